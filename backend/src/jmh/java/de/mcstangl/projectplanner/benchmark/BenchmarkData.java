@@ -0,0 +1,139 @@
+package de.mcstangl.projectplanner.benchmark;
+
+import de.mcstangl.projectplanner.enums.DefaultMilestone;
+import de.mcstangl.projectplanner.enums.ProjectStatus;
+import de.mcstangl.projectplanner.enums.UserRole;
+import de.mcstangl.projectplanner.model.MilestoneEntity;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
+import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.model.ProjectProjection;
+import de.mcstangl.projectplanner.model.StaffProjection;
+import de.mcstangl.projectplanner.model.UserEntity;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public final class BenchmarkData {
+
+    public static final int USER_COUNT = 50;
+    public static final int MILESTONES_PER_PROJECT = DefaultMilestone.values().length;
+
+    private static final LocalDate FIRST_DATE_OF_RECEIPT = LocalDate.of(2021, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    public static List<UserEntity> createUsers() {
+        List<UserEntity> users = new ArrayList<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(UserEntity.builder()
+                    .id((long) i + 1)
+                    .loginName("User" + i)
+                    .role(i % 10 == 0 ? UserRole.ADMIN : UserRole.USER)
+                    .build());
+        }
+        return users;
+    }
+
+    // Same seed for every run so results stay comparable across commits
+    public static List<ProjectEntity> createProjects(int projectCount) {
+        Random random = new Random(42);
+        List<UserEntity> users = createUsers();
+        List<ProjectEntity> projects = new ArrayList<>(projectCount);
+        long milestoneId = 1;
+
+        for (int i = 0; i < projectCount; i++) {
+            LocalDate dateOfReceipt = FIRST_DATE_OF_RECEIPT.plusDays(random.nextInt(3 * 365));
+            ProjectEntity project = ProjectEntity.builder()
+                    .id((long) i + 1)
+                    .title("Project " + i)
+                    .customer("Customer " + random.nextInt(500))
+                    .dateOfReceipt(Date.valueOf(dateOfReceipt))
+                    .status(ProjectStatus.values()[random.nextInt(ProjectStatus.values().length)])
+                    .owner(users.get(random.nextInt(USER_COUNT)))
+                    .writers(pickUsers(users, random, 2))
+                    .motionDesigners(pickUsers(users, random, 2))
+                    .build();
+
+            List<MilestoneEntity> milestones = new ArrayList<>(MILESTONES_PER_PROJECT);
+            for (DefaultMilestone defaultMilestone : DefaultMilestone.values()) {
+                LocalDate dueDate = dateOfReceipt.plusDays(random.nextInt(120));
+                milestones.add(MilestoneEntity.builder()
+                        .id(milestoneId++)
+                        .title(defaultMilestone.title)
+                        .dueDate(Date.valueOf(dueDate))
+                        .dateFinished(random.nextBoolean() ? Date.valueOf(dueDate) : null)
+                        .projectEntity(project)
+                        .build());
+            }
+            project.setMilestones(milestones);
+            project.setNextDueDate(milestones.get(0).getDueDate());
+            projects.add(project);
+        }
+        return projects;
+    }
+
+    public static List<MilestoneEntity> collectMilestones(List<ProjectEntity> projects) {
+        List<MilestoneEntity> milestones = new ArrayList<>(projects.size() * MILESTONES_PER_PROJECT);
+        for (ProjectEntity project : projects) {
+            milestones.addAll(project.getMilestones());
+        }
+        return milestones;
+    }
+
+    // The rows the board queries return for the given projects
+    public static List<ProjectProjection> createProjectProjections(List<ProjectEntity> projects) {
+        List<ProjectProjection> projections = new ArrayList<>(projects.size());
+        for (ProjectEntity project : projects) {
+            projections.add(new ProjectProjection(project.getId(), project.getTitle(), project.getCustomer(),
+                    project.getDateOfReceipt(), project.getStatus(), project.getVersion(),
+                    project.getOwner().getLoginName(), project.getOwner().getRole()));
+        }
+        return projections;
+    }
+
+    public static List<StaffProjection> createWriterProjections(List<ProjectEntity> projects) {
+        List<StaffProjection> projections = new ArrayList<>();
+        for (ProjectEntity project : projects) {
+            for (UserEntity writer : project.getWriters()) {
+                projections.add(new StaffProjection(project.getId(), writer.getLoginName(), writer.getRole()));
+            }
+        }
+        return projections;
+    }
+
+    public static List<StaffProjection> createMotionDesignerProjections(List<ProjectEntity> projects) {
+        List<StaffProjection> projections = new ArrayList<>();
+        for (ProjectEntity project : projects) {
+            for (UserEntity motionDesigner : project.getMotionDesigners()) {
+                projections.add(new StaffProjection(project.getId(), motionDesigner.getLoginName(), motionDesigner.getRole()));
+            }
+        }
+        return projections;
+    }
+
+    public static List<MilestoneProjection> createMilestoneProjectionsSortedByDueDate(List<ProjectEntity> projects) {
+        List<MilestoneProjection> projections = new ArrayList<>(projects.size() * MILESTONES_PER_PROJECT);
+        for (MilestoneEntity milestone : collectMilestones(projects)) {
+            projections.add(new MilestoneProjection(milestone.getId(), milestone.getProjectEntity().getId(),
+                    milestone.getProjectEntity().getTitle(), milestone.getTitle(), milestone.getDueDate(),
+                    milestone.getDateFinished(), milestone.getVersion()));
+        }
+        projections.sort(Comparator.comparing(MilestoneProjection::dueDate).thenComparing(MilestoneProjection::id));
+        return projections;
+    }
+
+    private static Set<UserEntity> pickUsers(List<UserEntity> users, Random random, int count) {
+        Set<UserEntity> pickedUsers = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            pickedUsers.add(users.get(random.nextInt(users.size())));
+        }
+        return pickedUsers;
+    }
+}
@@ -0,0 +1,57 @@
+package de.mcstangl.projectplanner.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.mcstangl.projectplanner.benchmark.BenchmarkData;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
+import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.model.StaffProjection;
+import de.mcstangl.projectplanner.service.ProjectBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Compare the allocation per request with: -prof gc, see gc.alloc.rate.norm
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardJsonWriterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int projectCount;
+
+    // Like the Spring message converter, the response stream is left open after writing
+    private final ObjectMapper objectMapper = new ObjectMapper().configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+    private final BoardJsonWriter boardJsonWriter = new BoardJsonWriter(objectMapper);
+    private final OutputStream outputStream = OutputStream.nullOutputStream();
+
+    private List<ProjectEntity> projects;
+    private ProjectBoard projectBoard;
+
+    @Setup
+    public void setUp() {
+        projects = BenchmarkData.createProjects(projectCount);
+        projectBoard = new ProjectBoard(
+                BenchmarkData.createProjectProjections(projects),
+                BenchmarkData.createWriterProjections(projects).stream().collect(Collectors.groupingBy(StaffProjection::projectId)),
+                BenchmarkData.createMotionDesignerProjections(projects).stream().collect(Collectors.groupingBy(StaffProjection::projectId)),
+                BenchmarkData.createMilestoneProjectionsSortedByDueDate(projects).stream().collect(Collectors.groupingBy(MilestoneProjection::projectId)));
+    }
+
+    @Benchmark
+    public void serializeMappedDtos() throws IOException {
+        objectMapper.writeValue(outputStream, boardJsonWriter.mapProject(projects));
+    }
+
+    @Benchmark
+    public void writeProjects() throws IOException {
+        boardJsonWriter.writeProjects(projectBoard, outputStream);
+    }
+}
@@ -0,0 +1,81 @@
+package de.mcstangl.projectplanner.controller;
+
+import de.mcstangl.projectplanner.api.MilestoneDto;
+import de.mcstangl.projectplanner.api.ProjectDto;
+import de.mcstangl.projectplanner.api.UpdateProjectDto;
+import de.mcstangl.projectplanner.benchmark.BenchmarkData;
+import de.mcstangl.projectplanner.model.MilestoneEntity;
+import de.mcstangl.projectplanner.model.ProjectEntity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int projectCount;
+
+    private final Mapper mapper = new Mapper() {
+    };
+
+    private List<ProjectEntity> projects;
+    private List<MilestoneEntity> milestones;
+    private List<UpdateProjectDto> updateProjectDtos;
+    private List<MilestoneDto> milestoneDtos;
+
+    @Setup
+    public void setUp() {
+        projects = BenchmarkData.createProjects(projectCount);
+        milestones = BenchmarkData.collectMilestones(projects);
+
+        List<ProjectDto> projectDtos = mapper.mapProject(projects);
+        updateProjectDtos = new ArrayList<>(projectDtos.size());
+        for (ProjectDto projectDto : projectDtos) {
+            updateProjectDtos.add(UpdateProjectDto.builder()
+                    .title(projectDto.getTitle())
+                    .newTitle(projectDto.getTitle())
+                    .customer(projectDto.getCustomer())
+                    .dateOfReceipt(projectDto.getDateOfReceipt())
+                    .status(projectDto.getStatus())
+                    .owner(projectDto.getOwner())
+                    .writer(projectDto.getWriter())
+                    .motionDesign(projectDto.getMotionDesign())
+                    .version(projectDto.getVersion())
+                    .build());
+        }
+        milestoneDtos = mapper.mapMilestone(milestones);
+    }
+
+    @Benchmark
+    public List<ProjectDto> mapProjectEntitiesToDtos() {
+        return mapper.mapProject(projects);
+    }
+
+    @Benchmark
+    public void mapUpdateProjectDtosToEntities(Blackhole blackhole) {
+        for (UpdateProjectDto updateProjectDto : updateProjectDtos) {
+            blackhole.consume(mapper.mapProject(updateProjectDto));
+        }
+    }
+
+    @Benchmark
+    public List<MilestoneDto> mapMilestoneEntitiesToDtos() {
+        return mapper.mapMilestone(milestones);
+    }
+
+    @Benchmark
+    public void mapMilestoneDtosToEntities(Blackhole blackhole) {
+        for (MilestoneDto milestoneDto : milestoneDtos) {
+            blackhole.consume(mapper.mapMilestone(milestoneDto));
+        }
+    }
+}
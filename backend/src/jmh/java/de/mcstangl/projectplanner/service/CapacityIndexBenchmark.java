@@ -0,0 +1,76 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.config.CapacityConfig;
+import de.mcstangl.projectplanner.model.ProjectDueDate;
+import de.mcstangl.projectplanner.model.StaffAssignment;
+import de.mcstangl.projectplanner.repository.StaffWorkloadRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapacityIndexBenchmark {
+
+    private static final int USER_COUNT = 50;
+    private static final int MILESTONES_PER_PROJECT = 9;
+
+    @Param({"1000", "10000"})
+    private int projectCount;
+
+    private CapacityIndex capacityIndex;
+    private List<LocalDate> dueDates;
+
+    // Every project has two of the users as staff and nine open milestones within one year
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate firstDueDate = LocalDate.parse("2021-01-04");
+        List<StaffAssignment> staffAssignments = new ArrayList<>(projectCount * 2);
+        List<ProjectDueDate> projectDueDates = new ArrayList<>(projectCount * MILESTONES_PER_PROJECT);
+        for (long projectId = 1; projectId <= projectCount; projectId++) {
+            staffAssignments.add(new StaffAssignment(projectId, "Projekt " + projectId, "User" + random.nextInt(USER_COUNT)));
+            staffAssignments.add(new StaffAssignment(projectId, "Projekt " + projectId, "User" + random.nextInt(USER_COUNT)));
+            for (int i = 0; i < MILESTONES_PER_PROJECT; i++) {
+                projectDueDates.add(new ProjectDueDate(projectId, firstDueDate.plusDays(random.nextInt(365))));
+            }
+        }
+
+        // The index is loaded once in the setup, only the check itself is measured
+        StaffWorkloadRepository staffWorkloadRepository = new StaffWorkloadRepository(new JdbcTemplate()) {
+            @Override
+            public List<StaffAssignment> findOpenProjectStaff() {
+                return staffAssignments;
+            }
+
+            @Override
+            public List<ProjectDueDate> findOpenDueDatesOfStaffedProjects() {
+                return projectDueDates;
+            }
+        };
+        CapacityConfig capacityConfig = new CapacityConfig();
+        capacityConfig.setMaxDeadlines(Integer.MAX_VALUE);
+        capacityIndex = new CapacityIndex(staffWorkloadRepository, new DateService(), capacityConfig);
+
+        dueDates = new ArrayList<>(MILESTONES_PER_PROJECT);
+        for (int i = 0; i < MILESTONES_PER_PROJECT; i++) {
+            dueDates.add(firstDueDate.plusDays(150 + i * 3L));
+        }
+        capacityIndex.findConflict("User0", 0L, dueDates);
+    }
+
+    @Benchmark
+    public Optional<CapacityConflict> findConflict() {
+        return capacityIndex.findConflict("User0", 0L, dueDates);
+    }
+}
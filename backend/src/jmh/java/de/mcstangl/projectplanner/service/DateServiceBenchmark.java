@@ -0,0 +1,64 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.config.BusinessDayConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateServiceBenchmark {
+
+    private static final int DATE_COUNT = 1024;
+
+    @Param({"1", "10", "250"})
+    private int days;
+
+    private DateService dateService;
+    private Date[] dates;
+    private LocalDate[] localDates;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        BusinessDayConfig businessDayConfig = new BusinessDayConfig();
+        businessDayConfig.setRegion("DE");
+        businessDayConfig.setHolidays(Map.of("DE", List.of("01-01", "05-01", "10-03", "12-25", "12-26")));
+        dateService = new DateService(businessDayConfig);
+
+        Random random = new Random(42);
+        dates = new Date[DATE_COUNT];
+        localDates = new LocalDate[DATE_COUNT];
+        for (int i = 0; i < DATE_COUNT; i++) {
+            localDates[i] = LocalDate.of(2021, 1, 1).plusDays(random.nextInt(3 * 365));
+            dates[i] = Date.valueOf(localDates[i]);
+        }
+    }
+
+    @Benchmark
+    public Date addBusinessDays() {
+        index = (index + 1) & (DATE_COUNT - 1);
+        return dateService.addBusinessDays(dates[index], days);
+    }
+
+    @Benchmark
+    public LocalDate addBusinessDaysToLocalDate() {
+        index = (index + 1) & (DATE_COUNT - 1);
+        return dateService.addBusinessDays(localDates[index], days);
+    }
+
+    @Benchmark
+    public LocalDate subtractBusinessDaysFromLocalDate() {
+        index = (index + 1) & (DATE_COUNT - 1);
+        return dateService.addBusinessDays(localDates[index], -days);
+    }
+}
@@ -0,0 +1,42 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.config.JwtConfig;
+import de.mcstangl.projectplanner.enums.UserRole;
+import de.mcstangl.projectplanner.model.UserEntity;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private UserEntity userEntity;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret("benchmark-secret-benchmark-secret-benchmark-secret");
+        jwtConfig.setExpiresAfterDays(1);
+        jwtService = new JwtService(jwtConfig);
+        userEntity = UserEntity.builder().loginName("Benchmark User").role(UserRole.ADMIN).build();
+        token = jwtService.createToken(userEntity);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtService.createToken(userEntity);
+    }
+
+    @Benchmark
+    public Claims decodeJwtClaims() {
+        return jwtService.decodeJwtClaims(token);
+    }
+}
@@ -0,0 +1,113 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.model.MilestoneDependencyEntity;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MilestoneScheduleBenchmark {
+
+    @Param({"100", "500"})
+    private int milestoneCount;
+
+    private DateService dateService;
+    private List<MilestoneProjection> milestones;
+    private List<MilestoneDependencyEntity> dependencies;
+    private Long firstMilestoneId;
+    private LocalDate firstMilestoneShifted;
+    private Long lastMilestoneId;
+    private LocalDate lastMilestoneShifted;
+    private List<MilestoneProjection> downstreamMilestones;
+    private List<MilestoneDependencyEntity> downstreamDependencies;
+    private Long lateMilestoneId;
+    private LocalDate lateMilestoneShifted;
+
+    // A chain through all milestones with additional random edges to earlier milestones
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        dateService = new DateService();
+        milestones = new ArrayList<>(milestoneCount);
+        dependencies = new ArrayList<>();
+
+        LocalDate dueDate = LocalDate.of(2021, 1, 4);
+        for (int i = 0; i < milestoneCount; i++) {
+            milestones.add(new MilestoneProjection((long) i + 1, 1L, "Project", "Milestone " + i, dueDate, null, 0));
+            if (i > 0) {
+                dependencies.add(createDependency(i, i + 1, 2));
+                if (i > 5 && random.nextBoolean()) {
+                    dependencies.add(createDependency(i - 5 - random.nextInt(i - 5) + 1, i + 1, 1));
+                }
+            }
+            dueDate = dateService.addBusinessDays(dueDate, 2);
+        }
+
+        firstMilestoneId = milestones.get(0).id();
+        firstMilestoneShifted = dateService.addBusinessDays(milestones.get(0).dueDate(), 5);
+        lastMilestoneId = milestones.get(milestoneCount - 1).id();
+        lastMilestoneShifted = dateService.addBusinessDays(milestones.get(milestoneCount - 1).dueDate(), 5);
+
+        // What MilestoneService loads for a milestone in the last quarter, every dependency into a later milestone
+        MilestoneProjection lateMilestone = milestones.get(milestoneCount * 3 / 4);
+        lateMilestoneId = lateMilestone.id();
+        lateMilestoneShifted = dateService.addBusinessDays(lateMilestone.dueDate(), 5);
+        downstreamDependencies = dependencies.stream()
+                .filter(dependency -> dependency.getSuccessorId() >= lateMilestoneId)
+                .toList();
+        Set<Long> downstreamMilestoneIds = new HashSet<>();
+        downstreamMilestoneIds.add(lateMilestoneId);
+        downstreamDependencies.forEach(dependency -> {
+            downstreamMilestoneIds.add(dependency.getPredecessorId());
+            downstreamMilestoneIds.add(dependency.getSuccessorId());
+        });
+        downstreamMilestones = milestones.stream()
+                .filter(milestone -> downstreamMilestoneIds.contains(milestone.id()))
+                .toList();
+    }
+
+    private MilestoneDependencyEntity createDependency(long predecessorId, long successorId, int businessDays) {
+        return MilestoneDependencyEntity.builder()
+                .projectId(1L)
+                .predecessorId(predecessorId)
+                .successorId(successorId)
+                .businessDays(businessDays)
+                .build();
+    }
+
+    @Benchmark
+    public List<MilestoneScheduleEntry> analyze() {
+        return new MilestoneSchedule(milestones, dependencies, dateService).analyze();
+    }
+
+    // Every other milestone has to move
+    @Benchmark
+    public Map<Long, LocalDate> moveFirstMilestone() {
+        return new MilestoneSchedule(milestones, dependencies, dateService).moveTo(firstMilestoneId, firstMilestoneShifted);
+    }
+
+    // Only the downstream part of the project is loaded and built
+    @Benchmark
+    public Map<Long, LocalDate> moveLateMilestoneDownstream() {
+        return new MilestoneSchedule(downstreamMilestones, downstreamDependencies, dateService).moveTo(lateMilestoneId, lateMilestoneShifted);
+    }
+
+    // Nothing downstream, only the graph has to be built
+    @Benchmark
+    public Map<Long, LocalDate> moveLastMilestone() {
+        return new MilestoneSchedule(milestones, dependencies, dateService).moveTo(lastMilestoneId, lastMilestoneShifted);
+    }
+}
@@ -0,0 +1,38 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.benchmark.BenchmarkData;
+import de.mcstangl.projectplanner.model.ProjectEntity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MilestoneServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int projectCount;
+
+    private MilestoneService milestoneService;
+    private List<ProjectEntity> projects;
+
+    @Setup
+    public void setUp() {
+        // Only the date calculation is measured, none of the collaborators that need a database
+        milestoneService = new MilestoneService(null, null, new DateService(), null, null, null, null);
+        projects = BenchmarkData.createProjects(projectCount);
+    }
+
+    @Benchmark
+    public void getDefaultMilestones(Blackhole blackhole) {
+        for (ProjectEntity project : projects) {
+            blackhole.consume(milestoneService.getDefaultMilestones(project.getDateOfReceipt(), project));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.benchmark.BenchmarkData;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
+import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.model.ProjectProjection;
+import de.mcstangl.projectplanner.model.StaffProjection;
+import de.mcstangl.projectplanner.repository.MilestoneRepository;
+import de.mcstangl.projectplanner.repository.ProjectRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int projectCount;
+
+    private ProjectService projectService;
+
+    @Setup
+    public void setUp() {
+        List<ProjectEntity> projects = BenchmarkData.createProjects(projectCount);
+        List<ProjectProjection> projectRows = BenchmarkData.createProjectProjections(projects);
+        List<StaffProjection> writerRows = BenchmarkData.createWriterProjections(projects);
+        List<StaffProjection> motionDesignerRows = BenchmarkData.createMotionDesignerProjections(projects);
+        List<MilestoneProjection> milestoneRows = BenchmarkData.createMilestoneProjectionsSortedByDueDate(projects);
+
+        // The repositories hand out prepared rows, so only grouping them into the board is measured
+        ProjectRepository projectRepository = createRepository(ProjectRepository.class, Map.of(
+                "findAllProjectedByStatusSortedByNextDueDate", projectRows,
+                "findAllWritersProjectedByStatus", writerRows,
+                "findAllMotionDesignersProjectedByStatus", motionDesignerRows));
+        MilestoneRepository milestoneRepository = createRepository(MilestoneRepository.class, Map.of(
+                "findAllProjectedByProjectStatusSortedByDueDate", milestoneRows));
+        MilestoneService milestoneService = new MilestoneService(milestoneRepository, projectRepository, new DateService(), null, null, null, null);
+        projectService = new ProjectService(projectRepository, null, milestoneService, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public ProjectBoard findBoard() {
+        return projectService.findBoard();
+    }
+
+    private <T> T createRepository(Class<T> repositoryType, Map<String, List<?>> resultsByMethodName) {
+        return repositoryType.cast(Proxy.newProxyInstance(
+                repositoryType.getClassLoader(),
+                new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    List<?> result = resultsByMethodName.get(method.getName());
+                    if (result == null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return result;
+                }));
+    }
+}
@@ -2,8 +2,10 @@ package de.mcstangl.projectplanner;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ProjectPlannerApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,20 @@
+package de.mcstangl.projectplanner.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BoardChangesDto {
+
+    private String version;
+    private List<ProjectDto> projects;
+    private List<MilestoneDto> milestones;
+    private List<TombstoneDto> deleted;
+}
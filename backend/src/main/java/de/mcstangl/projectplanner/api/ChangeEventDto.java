@@ -0,0 +1,19 @@
+package de.mcstangl.projectplanner.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChangeEventDto {
+
+    private String id;
+    private String type;
+    private String projectTitle;
+    private String previousProjectTitle;
+    private Long milestoneId;
+}
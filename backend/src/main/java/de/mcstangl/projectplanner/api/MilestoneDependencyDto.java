@@ -0,0 +1,20 @@
+package de.mcstangl.projectplanner.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MilestoneDependencyDto {
+
+    private Long id;
+    private Long predecessorId;
+    private Long successorId;
+    private int businessDays;
+
+}
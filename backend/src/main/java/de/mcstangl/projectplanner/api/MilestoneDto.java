@@ -17,5 +17,6 @@ public class MilestoneDto {
     private String dateFinished;
     private String dueDate;
     private String projectTitle;
+    private Long version;
 
 }
@@ -0,0 +1,23 @@
+package de.mcstangl.projectplanner.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MilestoneScheduleDto {
+
+    private Long milestoneId;
+    private String title;
+    private String dueDate;
+    private String earliestDate;
+    private String latestDate;
+    private int slack;
+    private boolean critical;
+
+}
@@ -24,6 +24,7 @@ public class ProjectDto {
     private List<UserDto> motionDesign;
     private List<MilestoneDto> milestones;
     private String status;
+    private Long version;
 
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,19 @@
+package de.mcstangl.projectplanner.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProjectPageDto {
+
+    private List<ProjectDto> projects;
+    private String nextCursor;
+    private Long totalCount;
+}
@@ -0,0 +1,22 @@
+package de.mcstangl.projectplanner.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StaffWorkloadDto {
+
+    private UserDto user;
+    private int openProjects;
+    private int overdueMilestones;
+    private List<WeeklyWorkloadDto> weeks;
+
+}
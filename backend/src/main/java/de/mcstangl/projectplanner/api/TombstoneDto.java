@@ -0,0 +1,17 @@
+package de.mcstangl.projectplanner.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TombstoneDto {
+
+    private String type;
+    private String projectTitle;
+    private Long milestoneId;
+}
@@ -0,0 +1,18 @@
+package de.mcstangl.projectplanner.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WeeklyWorkloadDto {
+
+    private String weekStart;
+    private int openMilestones;
+
+}
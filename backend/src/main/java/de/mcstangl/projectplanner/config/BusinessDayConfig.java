@@ -0,0 +1,20 @@
+package de.mcstangl.projectplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "business-days")
+@Data
+public class BusinessDayConfig {
+
+    private String region;
+
+    // Region -> holidays, either "MM-dd" for every year or "yyyy-MM-dd" for a single date
+    private Map<String, List<String>> holidays = new HashMap<>();
+}
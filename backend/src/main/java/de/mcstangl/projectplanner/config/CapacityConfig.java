@@ -0,0 +1,14 @@
+package de.mcstangl.projectplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "capacity")
+@Data
+public class CapacityConfig {
+
+    private int maxDeadlines = 6;
+    private int windowBusinessDays = 5;
+}
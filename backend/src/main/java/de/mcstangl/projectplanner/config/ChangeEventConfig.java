@@ -0,0 +1,16 @@
+package de.mcstangl.projectplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "change-events")
+@Data
+public class ChangeEventConfig {
+
+    private int historySize = 1000;
+    private int clientQueueCapacity = 100;
+    private long timeoutMillis = 1800000;
+    private int senderThreads = 2;
+}
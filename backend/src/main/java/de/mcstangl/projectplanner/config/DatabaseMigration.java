@@ -0,0 +1,96 @@
+package de.mcstangl.projectplanner.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+// Runs after Hibernate has updated the schema and adds what generate-ddl can not express
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class DatabaseMigration {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+
+    // Fills the column for projects stored before it existed, projects without open milestones are checked again
+    private static final String FILL_NEXT_DUE_DATE = "UPDATE projects SET next_due_date = (SELECT MIN(m.due_date) FROM milestone m " +
+            "WHERE m.project_id = projects.project_id AND m.date_finished IS NULL) WHERE next_due_date IS NULL";
+
+    private static final List<String> POSTGRESQL_STATEMENTS = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_milestone_open_due_date ON milestone (due_date) WHERE date_finished IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_projects_archive_date_of_receipt ON projects (date_of_receipt DESC, title) WHERE status = 'ARCHIVE'",
+            "CREATE SEQUENCE IF NOT EXISTS change_seq",
+            "UPDATE projects SET change_sequence = nextval('change_seq') WHERE change_sequence IS NULL",
+            "UPDATE milestone SET change_sequence = nextval('change_seq') WHERE change_sequence IS NULL",
+            FILL_NEXT_DUE_DATE
+    );
+
+    private static final List<String> DEFAULT_STATEMENTS = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_milestone_open_due_date ON milestone (due_date)",
+            "CREATE SEQUENCE IF NOT EXISTS change_seq",
+            "UPDATE projects SET change_sequence = nextval('change_seq') WHERE change_sequence IS NULL",
+            "UPDATE milestone SET change_sequence = nextval('change_seq') WHERE change_sequence IS NULL",
+            FILL_NEXT_DUE_DATE
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public DatabaseMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        String databaseProductName = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+
+        boolean postgreSql = POSTGRESQL.equals(databaseProductName);
+        List<String> statements = postgreSql ? POSTGRESQL_STATEMENTS : DEFAULT_STATEMENTS;
+        for (String statement : statements) {
+            jdbcTemplate.execute(statement);
+        }
+        alignSequence("project_seq", "projects", "project_id", postgreSql);
+        alignSequence("milestone_seq", "milestone", "milestone_id", postgreSql);
+        log.info(String.format("Applied %s schema statements for %s", statements.size(), databaseProductName));
+    }
+
+    // Projects and milestones used to share hibernate_sequence. Their own sequences hand out blocks of 50 ids, so on a
+    // database that already has rows the next block has to start behind the highest id. A sequence is never moved
+    // back, the ids of a block that Hibernate already holds stay reserved
+    private void alignSequence(String sequenceName, String tableName, String idColumnName, boolean postgreSql) {
+        long maxId = jdbcTemplate.queryForObject(
+                String.format("SELECT COALESCE(MAX(%s), 0) FROM %s", idColumnName, tableName), Long.class);
+        long nextValue = postgreSql ? findNextValueOfPostgreSqlSequence(sequenceName) : findNextValueOfSequence(sequenceName);
+        long requiredNextValue = maxId + SEQUENCE_ALLOCATION_SIZE;
+        if (nextValue >= requiredNextValue) {
+            return;
+        }
+
+        if (postgreSql) {
+            jdbcTemplate.queryForObject("SELECT setval(?, ?, false)", Long.class, sequenceName, requiredNextValue);
+        } else {
+            jdbcTemplate.execute(String.format("ALTER SEQUENCE %s RESTART WITH %s", sequenceName, requiredNextValue));
+        }
+        log.info(String.format("Moved %s to %s", sequenceName, requiredNextValue));
+    }
+
+    private long findNextValueOfPostgreSqlSequence(String sequenceName) {
+        return jdbcTemplate.queryForObject(
+                String.format("SELECT CASE WHEN is_called THEN last_value + %s ELSE last_value END FROM %s", SEQUENCE_ALLOCATION_SIZE, sequenceName),
+                Long.class);
+    }
+
+    private long findNextValueOfSequence(String sequenceName) {
+        return jdbcTemplate.queryForObject(
+                "SELECT CURRENT_VALUE + INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                Long.class, sequenceName.toUpperCase());
+    }
+}
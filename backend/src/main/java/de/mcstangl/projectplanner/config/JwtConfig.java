@@ -11,4 +11,5 @@ public class JwtConfig {
 
     private String secret;
     private long expiresAfterDays;
+    private int cacheSize = 1000;
 }
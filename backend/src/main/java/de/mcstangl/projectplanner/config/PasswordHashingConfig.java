@@ -0,0 +1,14 @@
+package de.mcstangl.projectplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "security.password-hashing")
+@Data
+public class PasswordHashingConfig {
+
+    private int threads = 2;
+    private int queueCapacity = 50;
+}
@@ -0,0 +1,14 @@
+package de.mcstangl.projectplanner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "project-cache")
+@Data
+public class ProjectCacheConfig {
+
+    private int maxSize = 500;
+    private long timeToLiveSeconds = 300;
+}
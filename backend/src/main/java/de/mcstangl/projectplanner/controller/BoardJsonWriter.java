@@ -0,0 +1,122 @@
+package de.mcstangl.projectplanner.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.mcstangl.projectplanner.enums.UserRole;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
+import de.mcstangl.projectplanner.model.ProjectProjection;
+import de.mcstangl.projectplanner.model.StaffProjection;
+import de.mcstangl.projectplanner.service.ProjectBoard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+// Writes the same JSON as a list of ProjectDtos without building the DTOs first
+@Component
+public class BoardJsonWriter extends Mapper {
+
+    private static final int DATE_LENGTH = "yyyy-MM-dd".length();
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public BoardJsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void writeProjects(ProjectBoard projectBoard, OutputStream outputStream) throws IOException {
+        char[] dateBuffer = new char[DATE_LENGTH];
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            generator.writeStartArray();
+            for (ProjectProjection project : projectBoard.getProjects()) {
+                writeProject(generator, project, projectBoard, dateBuffer);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        // The response stream belongs to the servlet container, only flush it
+        return objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private void writeProject(JsonGenerator generator, ProjectProjection project, ProjectBoard projectBoard, char[] dateBuffer) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("customer", project.customer());
+        generator.writeStringField("title", project.title());
+        generator.writeFieldName("owner");
+        writeUser(generator, project.ownerLoginName(), project.ownerRole());
+        writeDateField(generator, "dateOfReceipt", project.dateOfReceipt(), dateBuffer);
+        generator.writeFieldName("writer");
+        writeStaff(generator, projectBoard.getWriters(project.id()));
+        generator.writeFieldName("motionDesign");
+        writeStaff(generator, projectBoard.getMotionDesigners(project.id()));
+        generator.writeFieldName("milestones");
+        generator.writeStartArray();
+        for (MilestoneProjection milestone : projectBoard.getMilestones(project.id())) {
+            writeMilestone(generator, milestone, dateBuffer);
+        }
+        generator.writeEndArray();
+        generator.writeStringField("status", convertProjectStatusToString(project.status()));
+        generator.writeNumberField("version", project.version());
+        generator.writeEndObject();
+    }
+
+    private void writeMilestone(JsonGenerator generator, MilestoneProjection milestone, char[] dateBuffer) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", milestone.id());
+        generator.writeStringField("title", milestone.title());
+        writeDateField(generator, "dateFinished", milestone.dateFinished(), dateBuffer);
+        writeDateField(generator, "dueDate", milestone.dueDate(), dateBuffer);
+        generator.writeStringField("projectTitle", milestone.projectTitle());
+        generator.writeNumberField("version", milestone.version());
+        generator.writeEndObject();
+    }
+
+    // Same format as LocalDate.toString, without creating a String for every date on the board
+    private void writeDateField(JsonGenerator generator, String fieldName, LocalDate localDate, char[] dateBuffer) throws IOException {
+        generator.writeFieldName(fieldName);
+        if (localDate == null) {
+            generator.writeNull();
+            return;
+        }
+        writeDigits(dateBuffer, 0, 4, localDate.getYear());
+        dateBuffer[4] = '-';
+        writeDigits(dateBuffer, 5, 2, localDate.getMonthValue());
+        dateBuffer[7] = '-';
+        writeDigits(dateBuffer, 8, 2, localDate.getDayOfMonth());
+        generator.writeString(dateBuffer, 0, DATE_LENGTH);
+    }
+
+    private void writeDigits(char[] buffer, int offset, int length, int value) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private void writeStaff(JsonGenerator generator, List<StaffProjection> staff) throws IOException {
+        generator.writeStartArray();
+        for (StaffProjection staffMember : staff) {
+            writeUser(generator, staffMember.loginName(), staffMember.role());
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeUser(JsonGenerator generator, String loginName, UserRole role) throws IOException {
+        if (loginName == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeStringField("loginName", loginName);
+        generator.writeStringField("role", convertUserRoleToString(role));
+        generator.writeEndObject();
+    }
+}
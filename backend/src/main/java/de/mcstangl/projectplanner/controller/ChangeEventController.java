@@ -0,0 +1,25 @@
+package de.mcstangl.projectplanner.controller;
+
+import de.mcstangl.projectplanner.service.ChangeEventService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin
+@RestController
+@RequestMapping("api/project-planner/events")
+public class ChangeEventController {
+
+    private final ChangeEventService changeEventService;
+
+    @Autowired
+    public ChangeEventController(ChangeEventService changeEventService) {
+        this.changeEventService = changeEventService;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeEventService.subscribe(lastEventId);
+    }
+}
@@ -5,6 +5,7 @@ import de.mcstangl.projectplanner.api.CredentialsDto;
 import de.mcstangl.projectplanner.api.UserDto;
 import de.mcstangl.projectplanner.model.UserEntity;
 import de.mcstangl.projectplanner.service.JwtService;
+import de.mcstangl.projectplanner.service.PasswordService;
 import de.mcstangl.projectplanner.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +16,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.persistence.EntityNotFoundException;
+import java.util.concurrent.CompletableFuture;
 
 import static org.springframework.http.ResponseEntity.*;
 import static org.springframework.util.Assert.hasText;
@@ -28,16 +30,18 @@ public class LoginController extends Mapper{
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtService jwtService;
+    private final PasswordService passwordService;
 
     @Autowired
-    public LoginController(AuthenticationManager authenticationManager, UserService userService, JwtService jwtService) {
+    public LoginController(AuthenticationManager authenticationManager, UserService userService, JwtService jwtService, PasswordService passwordService) {
         this.authenticationManager = authenticationManager;
         this.userService = userService;
         this.jwtService = jwtService;
+        this.passwordService = passwordService;
     }
 
     @PostMapping("access_token")
-    public ResponseEntity<AccessTokenDto> getAccessToken(@RequestBody CredentialsDto credentialsDto) {
+    public CompletableFuture<ResponseEntity<AccessTokenDto>> getAccessToken(@RequestBody CredentialsDto credentialsDto) {
 
         hasText(credentialsDto.getLoginName(), "Bitte geben sie Ihren Benutzernamen ein.");
         hasText(credentialsDto.getPassword(), "Bitte geben sie Ihr Passwort ein.");
@@ -47,17 +51,19 @@ public class LoginController extends Mapper{
                 credentialsDto.getPassword()
         );
 
-        authenticationManager.authenticate(authenticationToken);
+        return passwordService.supplyAsync(() -> {
+            authenticationManager.authenticate(authenticationToken);
 
-        UserEntity userEntity = userService.findByLoginName(credentialsDto.getLoginName())
-                .orElseThrow(() -> new EntityNotFoundException(
-                                String.format("Benutzer mit dem Namen %s konnte nicht gefunden werden", credentialsDto.getLoginName())
-                        )
-                );
+            UserEntity userEntity = userService.findByLoginName(credentialsDto.getLoginName())
+                    .orElseThrow(() -> new EntityNotFoundException(
+                                    String.format("Benutzer mit dem Namen %s konnte nicht gefunden werden", credentialsDto.getLoginName())
+                            )
+                    );
 
-        String token = jwtService.createToken(userEntity);
-        log.info(String.format("Logged in user %s", credentialsDto.getLoginName()));
-        return ok(AccessTokenDto.builder().token(token).build());
+            String token = jwtService.createToken(userEntity);
+            log.info(String.format("Logged in user %s", credentialsDto.getLoginName()));
+            return ok(AccessTokenDto.builder().token(token).build());
+        });
     }
 
     @GetMapping("me")
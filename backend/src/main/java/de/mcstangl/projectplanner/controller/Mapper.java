@@ -1,19 +1,36 @@
 package de.mcstangl.projectplanner.controller;
 
 
+import de.mcstangl.projectplanner.api.BoardChangesDto;
+import de.mcstangl.projectplanner.api.MilestoneDependencyDto;
 import de.mcstangl.projectplanner.api.MilestoneDto;
+import de.mcstangl.projectplanner.api.MilestoneScheduleDto;
+import de.mcstangl.projectplanner.api.ProjectCreationResultDto;
 import de.mcstangl.projectplanner.api.ProjectDto;
+import de.mcstangl.projectplanner.api.StaffWorkloadDto;
+import de.mcstangl.projectplanner.api.TombstoneDto;
 import de.mcstangl.projectplanner.api.UpdateProjectDto;
 import de.mcstangl.projectplanner.api.UserDto;
+import de.mcstangl.projectplanner.api.WeeklyWorkloadDto;
 import de.mcstangl.projectplanner.enums.ProjectStatus;
 import de.mcstangl.projectplanner.enums.UserRole;
+import de.mcstangl.projectplanner.model.MilestoneDependencyEntity;
 import de.mcstangl.projectplanner.model.MilestoneEntity;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
 import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.model.TombstoneEntity;
 import de.mcstangl.projectplanner.model.UserEntity;
+import de.mcstangl.projectplanner.model.UserProjection;
+import de.mcstangl.projectplanner.service.BoardChanges;
+import de.mcstangl.projectplanner.service.MilestoneScheduleEntry;
+import de.mcstangl.projectplanner.service.ProjectCreationResult;
+import de.mcstangl.projectplanner.service.StaffWorkload;
+import de.mcstangl.projectplanner.service.WeeklyWorkload;
 
 import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
@@ -28,6 +45,7 @@ import java.util.Set;
                 .motionDesigners(mapUserList(updateProjectDto.getMotionDesign()))
                 .title(updateProjectDto.getTitle())
                 .status(convertStringToProjectStatus(updateProjectDto.getStatus()))
+                .version(requireVersion(updateProjectDto.getVersion()))
                 .build();
     }
 
@@ -53,24 +71,66 @@ import java.util.Set;
                 .title(projectEntity.getTitle())
                 .milestones(mapMilestone(projectEntity.getMilestones()))
                 .status(convertProjectStatusToString(projectEntity.getStatus()))
+                .version(projectEntity.getVersion())
                 .build();
     }
 
 
      public List<ProjectDto> mapProject(List<ProjectEntity> projectEntityList) {
-        List<ProjectDto> projectDtoList = new LinkedList<>();
+        List<ProjectDto> projectDtoList = new ArrayList<>(projectEntityList.size());
         for (ProjectEntity projectEntity : projectEntityList) {
             projectDtoList.add(mapProject(projectEntity));
         }
         return projectDtoList;
     }
 
+     public ProjectCreationResultDto mapProjectCreationResult(ProjectCreationResult projectCreationResult) {
+         return ProjectCreationResultDto.builder()
+                 .title(projectCreationResult.getProjectEntity().getTitle())
+                 .created(projectCreationResult.isCreated())
+                 .message(projectCreationResult.getErrorMessage())
+                 .project(projectCreationResult.isCreated() ? mapProject(projectCreationResult.getProjectEntity()) : null)
+                 .build();
+     }
+
+     public BoardChangesDto mapBoardChanges(BoardChanges boardChanges) {
+         List<TombstoneDto> tombstoneDtoList = new ArrayList<>(boardChanges.getTombstones().size());
+         for (TombstoneEntity tombstoneEntity : boardChanges.getTombstones()) {
+             tombstoneDtoList.add(TombstoneDto.builder()
+                     .type(tombstoneEntity.getType().toString())
+                     .projectTitle(tombstoneEntity.getProjectTitle())
+                     .milestoneId(tombstoneEntity.getMilestoneId())
+                     .build());
+         }
+         return BoardChangesDto.builder()
+                 .version(Long.toString(boardChanges.getVersion()))
+                 .projects(mapProject(boardChanges.getProjects()))
+                 .milestones(mapMilestone(boardChanges.getMilestones()))
+                 .deleted(tombstoneDtoList)
+                 .build();
+     }
+
      public UserDto mapUser(UserEntity userEntity){
         return UserDto.builder()
                 .loginName(userEntity.getLoginName())
                 .role(convertUserRoleToString(userEntity.getRole()))
                 .build();
     }
+     public UserDto mapUser(UserProjection userProjection) {
+         return UserDto.builder()
+                 .loginName(userProjection.loginName())
+                 .role(convertUserRoleToString(userProjection.role()))
+                 .build();
+     }
+
+     public List<UserDto> mapUserProjections(List<UserProjection> userProjectionList) {
+         List<UserDto> userDtoList = new ArrayList<>(userProjectionList.size());
+         for (UserProjection userProjection : userProjectionList) {
+             userDtoList.add(mapUser(userProjection));
+         }
+         return userDtoList;
+     }
+
      public UserEntity mapUser(UserDto userDto) {
         return UserEntity.builder()
                 .loginName(userDto.getLoginName())
@@ -79,7 +139,7 @@ import java.util.Set;
     }
 
      public List<UserDto> mapUser(Set<UserEntity> userEntities){
-        List<UserDto> userDtoList = new LinkedList<>();
+        List<UserDto> userDtoList = new ArrayList<>(userEntities.size());
         for (UserEntity userEntity : userEntities) {
             userDtoList.add(mapUser(userEntity));
         }
@@ -87,14 +147,14 @@ import java.util.Set;
     }
 
      public List<UserDto> mapUser(List<UserEntity> userEntityList){
-         List<UserDto> userDtoList = new LinkedList<>();
+         List<UserDto> userDtoList = new ArrayList<>(userEntityList.size());
          for (UserEntity userEntity : userEntityList) {
              userDtoList.add(mapUser(userEntity));
          }
          return userDtoList;
      }
      public Set<UserEntity> mapUserList(List<UserDto> userDtos){
-        Set<UserEntity> userEntitySet = new HashSet<>();
+        Set<UserEntity> userEntitySet = new HashSet<>(userDtos.size() * 4 / 3 + 1);
         for (UserDto userDto : userDtos) {
             userEntitySet.add(mapUser(userDto));
         }
@@ -102,7 +162,7 @@ import java.util.Set;
     }
 
      public List<MilestoneDto> mapMilestone(List<MilestoneEntity> milestoneEntityList) {
-         List<MilestoneDto> milestoneDtoList = new LinkedList<>();
+         List<MilestoneDto> milestoneDtoList = new ArrayList<>(milestoneEntityList.size());
          for (MilestoneEntity mileStoneEntity : milestoneEntityList) {
              milestoneDtoList.add(mapMilestone(mileStoneEntity));
          }
@@ -117,6 +177,7 @@ import java.util.Set;
                  .title(milestoneDto.getTitle())
                  .dueDate(dueDate)
                  .dateFinished(dateFinished)
+                 .version(convertVersion(milestoneDto.getVersion()))
                  .build();
      }
 
@@ -129,9 +190,105 @@ import java.util.Set;
                  .dueDate(dueDate)
                  .projectTitle(milestoneEntity.getProjectEntity().getTitle())
                  .dateFinished(dateFinished)
+                 .version(milestoneEntity.getVersion())
                  .build();
      }
 
+     public MilestoneDto mapMilestone(MilestoneProjection milestoneProjection) {
+         return MilestoneDto.builder()
+                 .id(milestoneProjection.id())
+                 .title(milestoneProjection.title())
+                 .dueDate(convertLocalDateToString(milestoneProjection.dueDate()))
+                 .projectTitle(milestoneProjection.projectTitle())
+                 .dateFinished(convertLocalDateToString(milestoneProjection.dateFinished()))
+                 .version(milestoneProjection.version())
+                 .build();
+     }
+
+     public List<MilestoneDto> mapMilestoneProjections(List<MilestoneProjection> milestoneProjectionList) {
+         List<MilestoneDto> milestoneDtoList = new ArrayList<>(milestoneProjectionList.size());
+         for (MilestoneProjection milestoneProjection : milestoneProjectionList) {
+             milestoneDtoList.add(mapMilestone(milestoneProjection));
+         }
+         return milestoneDtoList;
+     }
+
+     public List<MilestoneScheduleDto> mapMilestoneSchedule(List<MilestoneScheduleEntry> scheduleEntries) {
+         List<MilestoneScheduleDto> scheduleDtoList = new ArrayList<>(scheduleEntries.size());
+         for (MilestoneScheduleEntry scheduleEntry : scheduleEntries) {
+             scheduleDtoList.add(MilestoneScheduleDto.builder()
+                     .milestoneId(scheduleEntry.milestoneId())
+                     .title(scheduleEntry.title())
+                     .dueDate(convertLocalDateToString(scheduleEntry.dueDate()))
+                     .earliestDate(convertLocalDateToString(scheduleEntry.earliestDate()))
+                     .latestDate(convertLocalDateToString(scheduleEntry.latestDate()))
+                     .slack(scheduleEntry.slack())
+                     .critical(scheduleEntry.critical())
+                     .build());
+         }
+         return scheduleDtoList;
+     }
+
+     public MilestoneDependencyEntity mapMilestoneDependency(MilestoneDependencyDto milestoneDependencyDto) {
+         return MilestoneDependencyEntity.builder()
+                 .predecessorId(milestoneDependencyDto.getPredecessorId())
+                 .successorId(milestoneDependencyDto.getSuccessorId())
+                 .businessDays(milestoneDependencyDto.getBusinessDays())
+                 .build();
+     }
+
+     public MilestoneDependencyDto mapMilestoneDependency(MilestoneDependencyEntity milestoneDependencyEntity) {
+         return MilestoneDependencyDto.builder()
+                 .id(milestoneDependencyEntity.getId())
+                 .predecessorId(milestoneDependencyEntity.getPredecessorId())
+                 .successorId(milestoneDependencyEntity.getSuccessorId())
+                 .businessDays(milestoneDependencyEntity.getBusinessDays())
+                 .build();
+     }
+
+     public List<MilestoneDependencyDto> mapMilestoneDependencies(List<MilestoneDependencyEntity> milestoneDependencyEntityList) {
+         List<MilestoneDependencyDto> milestoneDependencyDtoList = new ArrayList<>(milestoneDependencyEntityList.size());
+         for (MilestoneDependencyEntity milestoneDependencyEntity : milestoneDependencyEntityList) {
+             milestoneDependencyDtoList.add(mapMilestoneDependency(milestoneDependencyEntity));
+         }
+         return milestoneDependencyDtoList;
+     }
+
+     public List<StaffWorkloadDto> mapStaffWorkload(List<StaffWorkload> staffWorkloadList) {
+         List<StaffWorkloadDto> staffWorkloadDtoList = new ArrayList<>(staffWorkloadList.size());
+         for (StaffWorkload staffWorkload : staffWorkloadList) {
+             List<WeeklyWorkloadDto> weeklyWorkloadDtoList = new ArrayList<>(staffWorkload.weeks().size());
+             for (WeeklyWorkload weeklyWorkload : staffWorkload.weeks()) {
+                 weeklyWorkloadDtoList.add(WeeklyWorkloadDto.builder()
+                         .weekStart(convertLocalDateToString(weeklyWorkload.weekStart()))
+                         .openMilestones(weeklyWorkload.openMilestones())
+                         .build());
+             }
+             staffWorkloadDtoList.add(StaffWorkloadDto.builder()
+                     .user(UserDto.builder()
+                             .loginName(staffWorkload.loginName())
+                             .role(convertUserRoleToString(staffWorkload.role()))
+                             .build())
+                     .openProjects(staffWorkload.openProjects())
+                     .overdueMilestones(staffWorkload.overdueMilestones())
+                     .weeks(weeklyWorkloadDtoList)
+                     .build());
+         }
+         return staffWorkloadDtoList;
+     }
+
+     // An update without the version it is based on could overwrite changes the client has never seen
+     long requireVersion(Long version) {
+         if (version == null) {
+             throw new IllegalArgumentException("Änderungen sind nur mit der Version des Eintrags möglich, bitte laden Sie die Seite neu");
+         }
+         return version;
+     }
+
+     // New milestones start with the first version, updates check for a version before they are mapped
+     private long convertVersion(Long version) {
+         return version == null ? 0 : version;
+     }
 
      private Date convertStringToDate(String dateString) {
          try {
@@ -146,6 +303,10 @@ import java.util.Set;
          }return date.toString();
      }
 
+     private String convertLocalDateToString(LocalDate date) {
+         return date == null ? null : date.toString();
+     }
+
      public String convertProjectStatusToString(ProjectStatus projectStatus){
         if(projectStatus == null){
             return null;
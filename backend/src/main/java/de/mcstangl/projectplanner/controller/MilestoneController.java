@@ -1,17 +1,24 @@
 package de.mcstangl.projectplanner.controller;
 
+import de.mcstangl.projectplanner.api.MilestoneDependencyDto;
 import de.mcstangl.projectplanner.api.MilestoneDto;
+import de.mcstangl.projectplanner.api.MilestoneScheduleDto;
 import de.mcstangl.projectplanner.enums.UserRole;
+import de.mcstangl.projectplanner.model.MilestoneDependencyEntity;
 import de.mcstangl.projectplanner.model.MilestoneEntity;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
 import de.mcstangl.projectplanner.model.ProjectEntity;
 import de.mcstangl.projectplanner.model.UserEntity;
+import de.mcstangl.projectplanner.service.BoardVersionService;
 import de.mcstangl.projectplanner.service.MilestoneService;
 import de.mcstangl.projectplanner.service.ProjectService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.List;
@@ -26,16 +33,60 @@ public class MilestoneController extends Mapper {
 
     private final MilestoneService mileStoneService;
     private final ProjectService projectService;
+    private final BoardVersionService boardVersionService;
 
     @Autowired
-    public MilestoneController(MilestoneService mileStoneService, ProjectService projectService) {
+    public MilestoneController(MilestoneService mileStoneService, ProjectService projectService, BoardVersionService boardVersionService) {
         this.mileStoneService = mileStoneService;
         this.projectService = projectService;
+        this.boardVersionService = boardVersionService;
     }
 
     @GetMapping("{projectTitle}")
-    public ResponseEntity<List<MilestoneDto>> findAllByProjectTitle(@PathVariable String projectTitle) {
-        List<MilestoneEntity> milestoneEntityList = mileStoneService.findAllByProjectTitle(projectTitle);
+    public ResponseEntity<List<MilestoneDto>> findAllByProjectTitle(@PathVariable String projectTitle, WebRequest webRequest) {
+
+        String eTag = boardVersionService.getProjectETag(projectTitle);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
+        List<MilestoneProjection> milestoneProjectionList = mileStoneService.findAllByProjectTitle(projectTitle);
+        return ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(mapMilestoneProjections(milestoneProjectionList));
+    }
+
+    @GetMapping("{projectTitle}/schedule")
+    public ResponseEntity<List<MilestoneScheduleDto>> getSchedule(@PathVariable String projectTitle) {
+        return ok(mapMilestoneSchedule(mileStoneService.getSchedule(projectTitle)));
+    }
+
+    @GetMapping("{projectTitle}/dependency")
+    public ResponseEntity<List<MilestoneDependencyDto>> findDependencies(@PathVariable String projectTitle) {
+        return ok(mapMilestoneDependencies(mileStoneService.findDependenciesByProjectTitle(projectTitle)));
+    }
+
+    @PostMapping("dependency")
+    public ResponseEntity<MilestoneDependencyDto> addDependency(@AuthenticationPrincipal UserEntity authUser, @RequestBody MilestoneDependencyDto milestoneDependencyDto) {
+        if (isAdmin(authUser)) {
+            MilestoneDependencyEntity newDependency = mileStoneService.addDependency(mapMilestoneDependency(milestoneDependencyDto));
+
+            return ok(mapMilestoneDependency(newDependency));
+        }
+        return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+    }
+
+    @DeleteMapping("dependency/{id}")
+    public ResponseEntity<MilestoneDependencyDto> removeDependency(@AuthenticationPrincipal UserEntity authUser, @PathVariable Long id) {
+        if (isAdmin(authUser)) {
+            MilestoneDependencyEntity removedDependency = mileStoneService.removeDependency(id);
+
+            return ok(mapMilestoneDependency(removedDependency));
+        }
+        return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+    }
+
+    @GetMapping(params = "businessDays")
+    public ResponseEntity<List<MilestoneDto>> findUpcoming(@RequestParam int businessDays, @RequestParam(required = false) String loginName) {
+        List<MilestoneEntity> milestoneEntityList = mileStoneService.findUpcoming(businessDays, loginName);
         return ok(mapMilestone(milestoneEntityList));
     }
 
@@ -61,6 +112,7 @@ public class MilestoneController extends Mapper {
         }
 
         if (isAdmin(authUser)) {
+            requireVersion(milestoneDto.getVersion());
             MilestoneEntity milestoneEntity = convertMilestoneDtoToEntityWithProject(milestoneDto);
 
             MilestoneEntity newMilestone = mileStoneService.updateMilestone(milestoneEntity);
@@ -70,6 +122,16 @@ public class MilestoneController extends Mapper {
         return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
     }
 
+    @PostMapping(value = "{id}/reschedule", params = "businessDays")
+    public ResponseEntity<List<MilestoneDto>> reschedule(@AuthenticationPrincipal UserEntity authUser, @PathVariable Long id, @RequestParam int businessDays) {
+        if (isAdmin(authUser)) {
+            List<MilestoneProjection> movedMilestones = mileStoneService.reschedule(id, businessDays);
+
+            return ok(mapMilestoneProjections(movedMilestones));
+        }
+        return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+    }
+
     @DeleteMapping("{id}")
     public ResponseEntity<MilestoneDto> deleteMilestone(@AuthenticationPrincipal UserEntity authUser, @PathVariable Long id) {
         if (isAdmin(authUser)) {
@@ -83,7 +145,7 @@ public class MilestoneController extends Mapper {
     private MilestoneEntity convertMilestoneDtoToEntityWithProject(MilestoneDto milestoneDto) {
         hasText(milestoneDto.getTitle(), "Ein Milestone muss einen Titel haben");
 
-        ProjectEntity projectEntity = projectService.findByTitle(milestoneDto.getProjectTitle())
+        ProjectEntity projectEntity = projectService.loadByTitle(milestoneDto.getProjectTitle())
                 .orElseThrow(() -> new EntityNotFoundException(
                         String.format("Projekt mit dem Titel %s konnte nicht gefunden werden", milestoneDto.getProjectTitle())));
 
@@ -92,6 +154,10 @@ public class MilestoneController extends Mapper {
         return mileStoneEntity;
     }
 
+    private <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+    }
+
     private boolean isAdmin(UserEntity authUser) {
         return authUser.getRole().equals(UserRole.ADMIN);
     }
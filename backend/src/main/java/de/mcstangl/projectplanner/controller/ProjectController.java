@@ -1,22 +1,32 @@
 package de.mcstangl.projectplanner.controller;
 
+import de.mcstangl.projectplanner.api.ProjectCreationResultDto;
 import de.mcstangl.projectplanner.api.ProjectDto;
+import de.mcstangl.projectplanner.api.ProjectPageDto;
 import de.mcstangl.projectplanner.api.UpdateProjectDto;
+import de.mcstangl.projectplanner.api.UserDto;
 import de.mcstangl.projectplanner.enums.UserRole;
 import de.mcstangl.projectplanner.model.ProjectEntity;
 import de.mcstangl.projectplanner.model.UserEntity;
+import de.mcstangl.projectplanner.service.BoardVersionService;
+import de.mcstangl.projectplanner.service.ProjectBoard;
+import de.mcstangl.projectplanner.service.ProjectCreationResult;
 import de.mcstangl.projectplanner.service.ProjectService;
 import de.mcstangl.projectplanner.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.persistence.EntityNotFoundException;
 import java.sql.Date;
-import java.util.List;
+import java.util.*;
 
 import static org.springframework.http.ResponseEntity.ok;
 
@@ -27,11 +37,15 @@ public class ProjectController extends Mapper{
 
     private final ProjectService projectService;
     private final UserService userService;
+    private final BoardVersionService boardVersionService;
+    private final BoardJsonWriter boardJsonWriter;
 
     @Autowired
-    public ProjectController(ProjectService projectService, UserService userService) {
+    public ProjectController(ProjectService projectService, UserService userService, BoardVersionService boardVersionService, BoardJsonWriter boardJsonWriter) {
         this.projectService = projectService;
         this.userService = userService;
+        this.boardVersionService = boardVersionService;
+        this.boardJsonWriter = boardJsonWriter;
     }
 
     @PostMapping
@@ -55,21 +69,113 @@ public class ProjectController extends Mapper{
         return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
     }
 
+    @PostMapping("bulk")
+    public ResponseEntity<List<ProjectCreationResultDto>> createNewProjects(@AuthenticationPrincipal UserEntity authUser, @RequestBody List<ProjectDto> newProjects) {
 
+        if (!isAdmin(authUser)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        Map<String, UserEntity> usersByLoginName = new HashMap<>();
+        for (UserEntity userEntity : userService.findAllByLoginNameIn(collectLoginNames(newProjects))) {
+            usersByLoginName.put(userEntity.getLoginName(), userEntity);
+        }
+
+        List<ProjectCreationResultDto> results = new ArrayList<>(newProjects.size());
+        List<ProjectEntity> newProjectEntities = new ArrayList<>(newProjects.size());
+        for (ProjectDto newProject : newProjects) {
+            try {
+                validateDate(newProject.getDateOfReceipt());
+                initializeWriterListIfNull(newProject);
+                initializeMotionDesignerListIfNull(newProject);
+                checkThatOwnerIsNotNull(newProject);
+
+                ProjectEntity newProjectEntity = mapProject(newProject);
+                newProjectEntity.setOwner(getUserEntity(usersByLoginName, newProject.getOwner()));
+                newProjectEntity.setWriters(getUserEntities(usersByLoginName, newProject.getWriter()));
+                newProjectEntity.setMotionDesigners(getUserEntities(usersByLoginName, newProject.getMotionDesign()));
+                newProjectEntities.add(newProjectEntity);
+                results.add(null);
+            } catch (IllegalArgumentException | EntityNotFoundException e) {
+                results.add(ProjectCreationResultDto.builder()
+                        .title(newProject.getTitle())
+                        .created(false)
+                        .message(e.getMessage())
+                        .build());
+            }
+        }
+
+        Iterator<ProjectCreationResult> creationResults = projectService.createNewProjects(newProjectEntities).iterator();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, mapProjectCreationResult(creationResults.next()));
+            }
+        }
+        return ok(results);
+    }
 
     @GetMapping
-    public ResponseEntity<List<ProjectDto>> findAll() {
+    public ResponseEntity<StreamingResponseBody> findAll(WebRequest webRequest) {
+
+        String eTag = boardVersionService.getBoardETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
+        ProjectBoard projectBoard = projectService.findBoard();
+
+        return ok().eTag(eTag).cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> boardJsonWriter.writeProjects(projectBoard, outputStream));
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<ProjectPageDto> findPage(@RequestParam int size,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "false") boolean withTotal) {
+
+        List<ProjectEntity> projectEntityList = cursor == null
+                ? projectService.findPage(page, size)
+                : projectService.findPageAfter(cursor, size);
+
+        String nextCursor = null;
+        if (projectEntityList.size() == size) {
+            nextCursor = projectService.createCursor(projectEntityList.get(projectEntityList.size() - 1));
+        }
+
+        Long totalCount = withTotal ? projectService.count() : null;
 
-        List<ProjectEntity> projectEntityList = projectService.findAll();
+        return ok(ProjectPageDto.builder()
+                .projects(mapProject(projectEntityList))
+                .nextCursor(nextCursor)
+                .totalCount(totalCount)
+                .build());
+    }
+
+    @GetMapping("archive")
+    public ResponseEntity<ProjectPageDto> findArchivePage(@RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "20") int size) {
+
+        List<ProjectEntity> projectEntityList = projectService.findArchivePage(page, size);
 
-        return ok(mapProject(projectEntityList));
+        return ok(ProjectPageDto.builder()
+                .projects(mapProject(projectEntityList))
+                .totalCount(projectService.countArchived())
+                .build());
     }
 
     @GetMapping("{title}")
-    public ResponseEntity<ProjectDto> findByTitle(@PathVariable String title) {
+    public ResponseEntity<ProjectDto> findByTitle(@PathVariable String title, WebRequest webRequest) {
+
+        String eTag = boardVersionService.getProjectETag(title);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
         ProjectEntity projectEntity = projectService.findByTitle(title)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Projekt mit dem Titel %s konnte nicht gefunden werden", title)));
-        return ok(mapProject(projectEntity));
+        return ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(mapProject(projectEntity));
 
     }
 
@@ -116,6 +222,10 @@ public class ProjectController extends Mapper{
     }
 
 
+    private <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+    }
+
     private boolean isAdmin(UserEntity authUser) {
         return authUser.getRole().equals(UserRole.ADMIN);
     }
@@ -142,16 +252,51 @@ public class ProjectController extends Mapper{
 
     private UserEntity getOwnerEntity(ProjectDto newProject) {
         checkThatOwnerIsNotNull(newProject);
-        return userService.findByLoginName(newProject.getOwner().getLoginName())
+        return userService.findReferenceByLoginName(newProject.getOwner().getLoginName())
                 .orElseThrow(() -> new EntityNotFoundException(
                         String.format("Benutzer mit dem Namen %s konnte nicht gefunden werden", newProject.getOwner().getLoginName())));
     }
     private UserEntity getOwnerEntity(UpdateProjectDto updateProjectDto) {
         checkThatOwnerIsNotNull(updateProjectDto);
-        return userService.findByLoginName(updateProjectDto.getOwner().getLoginName())
+        return userService.findReferenceByLoginName(updateProjectDto.getOwner().getLoginName())
                 .orElseThrow(() -> new EntityNotFoundException(
                         String.format("Benutzer mit dem Namen %s konnte nicht gefunden werden", updateProjectDto.getOwner().getLoginName())));
     }
+
+    private Set<String> collectLoginNames(List<ProjectDto> projectDtos) {
+        Set<String> loginNames = new HashSet<>();
+        for (ProjectDto projectDto : projectDtos) {
+            if (projectDto.getOwner() != null) {
+                loginNames.add(projectDto.getOwner().getLoginName());
+            }
+            if (projectDto.getWriter() != null) {
+                projectDto.getWriter().forEach(writer -> loginNames.add(writer.getLoginName()));
+            }
+            if (projectDto.getMotionDesign() != null) {
+                projectDto.getMotionDesign().forEach(motionDesigner -> loginNames.add(motionDesigner.getLoginName()));
+            }
+        }
+        loginNames.remove(null);
+        return loginNames;
+    }
+
+    private UserEntity getUserEntity(Map<String, UserEntity> usersByLoginName, UserDto userDto) {
+        UserEntity userEntity = usersByLoginName.get(userDto.getLoginName());
+        if (userEntity == null) {
+            throw new EntityNotFoundException(
+                    String.format("Benutzer mit dem Namen %s konnte nicht gefunden werden", userDto.getLoginName()));
+        }
+        return userEntity;
+    }
+
+    private Set<UserEntity> getUserEntities(Map<String, UserEntity> usersByLoginName, List<UserDto> userDtos) {
+        Set<UserEntity> userEntities = new HashSet<>();
+        for (UserDto userDto : userDtos) {
+            userEntities.add(getUserEntity(usersByLoginName, userDto));
+        }
+        return userEntities;
+    }
+
     private void checkThatOwnerIsNotNull(ProjectDto projectDto) {
         if(projectDto.getOwner() == null){
             throw new IllegalArgumentException("Ein Projekt muss eine*n Projektleiter*in haben");
@@ -1,7 +1,10 @@
 package de.mcstangl.projectplanner.controller;
 
+import de.mcstangl.projectplanner.service.CapacityExceededException;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -15,6 +18,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.OptimisticLockException;
 
 @ControllerAdvice
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
@@ -45,13 +49,33 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     }
 
     @ExceptionHandler({
-            EntityExistsException.class
+            EntityExistsException.class,
+            CapacityExceededException.class
     })
     @ResponseStatus(HttpStatus.CONFLICT)
     public ResponseEntity<RestException> handle409(Throwable e){
         return createRestException(e, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler({
+            OptimisticLockingFailureException.class,
+            OptimisticLockException.class
+    })
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<RestException> handleConcurrentModification() {
+        OptimisticLockException optimisticLockException = new OptimisticLockException("Der Eintrag wurde zwischenzeitlich geändert, bitte laden Sie die Seite neu");
+        return createRestException(optimisticLockException, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler({
+            TaskRejectedException.class
+    })
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<RestException> handle503() {
+        TaskRejectedException taskRejectedException = new TaskRejectedException("Der Server ist ausgelastet, bitte versuchen Sie es später erneut");
+        return createRestException(taskRejectedException, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 
     private ResponseEntity<RestException> createRestException(Throwable e, HttpStatus httpStatus){
         RestException restException = new RestException(e.getMessage(),httpStatus.value());
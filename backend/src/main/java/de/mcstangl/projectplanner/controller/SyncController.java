@@ -0,0 +1,29 @@
+package de.mcstangl.projectplanner.controller;
+
+import de.mcstangl.projectplanner.api.BoardChangesDto;
+import de.mcstangl.projectplanner.service.BoardChanges;
+import de.mcstangl.projectplanner.service.ProjectService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import static org.springframework.http.ResponseEntity.ok;
+
+@CrossOrigin
+@RestController
+@RequestMapping("api/project-planner/sync")
+public class SyncController extends Mapper {
+
+    private final ProjectService projectService;
+
+    @Autowired
+    public SyncController(ProjectService projectService) {
+        this.projectService = projectService;
+    }
+
+    @GetMapping
+    public ResponseEntity<BoardChangesDto> findChangesSince(@RequestParam(defaultValue = "0") long since) {
+        BoardChanges boardChanges = projectService.findChangesSince(since);
+        return ok(mapBoardChanges(boardChanges));
+    }
+}
@@ -4,6 +4,7 @@ import de.mcstangl.projectplanner.api.UserDto;
 import de.mcstangl.projectplanner.api.UserWithPasswordDto;
 import de.mcstangl.projectplanner.enums.UserRole;
 import de.mcstangl.projectplanner.model.UserEntity;
+import de.mcstangl.projectplanner.model.UserProjection;
 import de.mcstangl.projectplanner.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,7 +16,9 @@ import org.springframework.web.bind.annotation.*;
 import javax.persistence.EntityNotFoundException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.springframework.http.ResponseEntity.ok;
 
 @CrossOrigin
@@ -34,26 +37,25 @@ public class UserController extends Mapper {
     @GetMapping
     public ResponseEntity<List<UserDto>> findAll(@AuthenticationPrincipal UserEntity authUser) {
         if(isAdmin(authUser)){
-        List<UserEntity> userEntityList = userService.findAll();
+        List<UserProjection> userProjectionList = userService.findAll();
 
-        return ok(mapUser(userEntityList));
+        return ok(mapUserProjections(userProjectionList));
 
         }
         return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
     }
 
     @PostMapping
-    public ResponseEntity<UserDto> createNewUser(@AuthenticationPrincipal UserEntity authUser, @RequestBody UserDto newUserDto){
+    public CompletableFuture<ResponseEntity<UserDto>> createNewUser(@AuthenticationPrincipal UserEntity authUser, @RequestBody UserDto newUserDto){
         if(isAdmin(authUser)){
-           UserEntity createdUserEntity = userService.createNewUser(mapUser(newUserDto));
-            UserWithPasswordDto userWithPasswordDto = UserWithPasswordDto.builder()
-                    .loginName(createdUserEntity.getLoginName())
-                    .password(createdUserEntity.getPassword())
-                    .role(createdUserEntity.getRole().toString())
-                    .build();
-           return ok(userWithPasswordDto);
+           return userService.createNewUser(mapUser(newUserDto))
+                   .thenApply(createdUserEntity -> ok(UserWithPasswordDto.builder()
+                           .loginName(createdUserEntity.getLoginName())
+                           .password(createdUserEntity.getPassword())
+                           .role(createdUserEntity.getRole().toString())
+                           .build()));
         }
-        return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        return completedFuture(new ResponseEntity<>(HttpStatus.UNAUTHORIZED));
     }
 
     @GetMapping("{loginName}")
@@ -84,23 +86,22 @@ public class UserController extends Mapper {
     }
 
     @PutMapping("{loginName}/reset-password")
-    public ResponseEntity<UserWithPasswordDto> resetUserPassword(@AuthenticationPrincipal UserEntity authUser, @PathVariable String loginName){
+    public CompletableFuture<ResponseEntity<UserWithPasswordDto>> resetUserPassword(@AuthenticationPrincipal UserEntity authUser, @PathVariable String loginName){
         if(isAdmin(authUser)){
-           UserEntity userEntity = userService.resetPassword(loginName);
-           UserWithPasswordDto userWithPasswordDto = UserWithPasswordDto.builder()
-                   .loginName(userEntity.getLoginName())
-                   .role(userEntity.getRole().toString())
-                   .password(userEntity.getPassword())
-                   .build();
-           return ok(userWithPasswordDto);
+           return userService.resetPassword(loginName)
+                   .thenApply(userEntity -> ok(UserWithPasswordDto.builder()
+                           .loginName(userEntity.getLoginName())
+                           .role(userEntity.getRole().toString())
+                           .password(userEntity.getPassword())
+                           .build()));
         }
-        return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        return completedFuture(new ResponseEntity<>(HttpStatus.UNAUTHORIZED));
     }
 
     @PutMapping("update-password")
-    public ResponseEntity<UserDto> updatePassword(@AuthenticationPrincipal UserEntity authUser,@RequestBody UserWithPasswordDto userWithPasswordDto){
-        UserEntity userEntity = userService.updatePassword(authUser.getLoginName(), userWithPasswordDto.getPassword());
-        return ok(mapUser(userEntity));
+    public CompletableFuture<ResponseEntity<UserDto>> updatePassword(@AuthenticationPrincipal UserEntity authUser,@RequestBody UserWithPasswordDto userWithPasswordDto){
+        return userService.updatePassword(authUser.getLoginName(), userWithPasswordDto.getPassword())
+                .thenApply(userEntity -> ok(mapUser(userEntity)));
     }
 
     @DeleteMapping("{loginName}")
@@ -0,0 +1,29 @@
+package de.mcstangl.projectplanner.controller;
+
+import de.mcstangl.projectplanner.api.StaffWorkloadDto;
+import de.mcstangl.projectplanner.service.WorkloadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+import static org.springframework.http.ResponseEntity.ok;
+
+@CrossOrigin
+@RestController
+@RequestMapping("api/project-planner/workload")
+public class WorkloadController extends Mapper {
+
+    private final WorkloadService workloadService;
+
+    @Autowired
+    public WorkloadController(WorkloadService workloadService) {
+        this.workloadService = workloadService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<StaffWorkloadDto>> getWorkload(@RequestParam(defaultValue = "4") int weeks) {
+        return ok(mapStaffWorkload(workloadService.getWorkload(weeks)));
+    }
+}
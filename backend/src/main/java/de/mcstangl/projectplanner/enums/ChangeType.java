@@ -0,0 +1,7 @@
+package de.mcstangl.projectplanner.enums;
+
+public enum ChangeType {
+    PROJECT_CREATED, PROJECT_UPDATED, PROJECT_ARCHIVED, PROJECT_RESTORED,
+    MILESTONE_CREATED, MILESTONE_UPDATED, MILESTONE_DELETED,
+    USER_UPDATED
+}
@@ -0,0 +1,5 @@
+package de.mcstangl.projectplanner.enums;
+
+public enum TombstoneType {
+    PROJECT, MILESTONE
+}
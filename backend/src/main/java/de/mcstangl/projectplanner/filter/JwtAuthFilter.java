@@ -7,6 +7,7 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -17,6 +18,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 
 @Component
@@ -24,9 +26,11 @@ import java.util.List;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final VerifiedJwtCache verifiedJwtCache;
 
-    public JwtAuthFilter(JwtService jwtService) {
+    public JwtAuthFilter(JwtService jwtService, VerifiedJwtCache verifiedJwtCache) {
         this.jwtService = jwtService;
+        this.verifiedJwtCache = verifiedJwtCache;
     }
 
 
@@ -36,25 +40,40 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         if (authorizationHeader != null) {
             String token = authorizationHeader.replace("Bearer ", "").trim();
 
-            try {
-                Claims claims = jwtService.decodeJwtClaims(token);
-                UserEntity userEntity = UserEntity.builder()
-                        .loginName(claims.getSubject())
-                        .role(UserRole.valueOf(claims.get("role", String.class)))
-                        .build();
+            VerifiedJwtCache.VerifiedJwt verifiedJwt = verifiedJwtCache.get(token);
+            if (verifiedJwt == null) {
+                verifiedJwt = verifyToken(token);
+            }
+
+            if (verifiedJwt != null) {
                 SecurityContextHolder.getContext().setAuthentication(
                         new UsernamePasswordAuthenticationToken(
-                                userEntity,
+                                verifiedJwt.getPrincipal(),
                                 "",
-                                List.of(new SimpleGrantedAuthority(claims.get("role", String.class)))
+                                verifiedJwt.getAuthorities()
                         )
                 );
-            } catch (JwtException e) {
-                log.debug("Can not parse JWT token: ", e);
             }
+        }
+        filterChain.doFilter(request,response);
+    }
 
+    private VerifiedJwtCache.VerifiedJwt verifyToken(String token) {
+        try {
+            Claims claims = jwtService.decodeJwtClaims(token);
+            UserEntity userEntity = UserEntity.builder()
+                    .loginName(claims.getSubject())
+                    .role(UserRole.valueOf(claims.get("role", String.class)))
+                    .build();
+            List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(claims.get("role", String.class)));
+            Instant expiresAt = claims.getExpiration() == null ? null : claims.getExpiration().toInstant();
 
+            VerifiedJwtCache.VerifiedJwt verifiedJwt = new VerifiedJwtCache.VerifiedJwt(userEntity, authorities, expiresAt);
+            verifiedJwtCache.put(token, verifiedJwt);
+            return verifiedJwt;
+        } catch (JwtException e) {
+            log.debug("Can not parse JWT token: ", e);
+            return null;
         }
-        filterChain.doFilter(request,response);
     }
 }
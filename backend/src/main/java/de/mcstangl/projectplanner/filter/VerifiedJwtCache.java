@@ -0,0 +1,106 @@
+package de.mcstangl.projectplanner.filter;
+
+import de.mcstangl.projectplanner.config.JwtConfig;
+import de.mcstangl.projectplanner.model.UserEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class VerifiedJwtCache {
+
+    private final int maxSize;
+    private final Map<String, VerifiedJwt> verifiedJwtByTokenHash;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    @Autowired
+    public VerifiedJwtCache(JwtConfig jwtConfig) {
+        this.maxSize = jwtConfig.getCacheSize();
+        this.verifiedJwtByTokenHash = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedJwt> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public VerifiedJwt get(String token) {
+        String tokenHash = hash(token);
+        synchronized (verifiedJwtByTokenHash) {
+            VerifiedJwt verifiedJwt = verifiedJwtByTokenHash.get(tokenHash);
+            if (verifiedJwt != null && verifiedJwt.getExpiresAt().isAfter(Instant.now())) {
+                hitCount.incrementAndGet();
+                return verifiedJwt;
+            }
+            if (verifiedJwt != null) {
+                verifiedJwtByTokenHash.remove(tokenHash);
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    public void put(String token, VerifiedJwt verifiedJwt) {
+        Instant expiresAt = verifiedJwt.getExpiresAt();
+        if (maxSize <= 0 || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        String tokenHash = hash(token);
+        synchronized (verifiedJwtByTokenHash) {
+            verifiedJwtByTokenHash.put(tokenHash, verifiedJwt);
+        }
+    }
+
+    public int size() {
+        synchronized (verifiedJwtByTokenHash) {
+            return verifiedJwtByTokenHash.size();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${security.jwt.cacheStatisticsIntervalMillis:600000}", initialDelayString = "${security.jwt.cacheStatisticsIntervalMillis:600000}")
+    public void logStatistics() {
+        log.info(String.format("Verified JWT cache: %s hits, %s misses, %s entries", getHitCount(), getMissCount(), size()));
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] tokenHash = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(tokenHash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class VerifiedJwt {
+        private final UserEntity principal;
+        private final List<GrantedAuthority> authorities;
+        private final Instant expiresAt;
+    }
+}
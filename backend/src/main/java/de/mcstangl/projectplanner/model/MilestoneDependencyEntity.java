@@ -0,0 +1,41 @@
+package de.mcstangl.projectplanner.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+// Milestones are referenced by id, dependencies of deleted milestones are removed by MilestoneService
+@Entity
+@Table(
+        name = "milestone_dependencies",
+        indexes = {
+                @Index(name = "idx_milestone_dependencies_project", columnList = "project_id"),
+                @Index(name = "idx_milestone_dependencies_successor", columnList = "successor_id")},
+        uniqueConstraints = @UniqueConstraint(name = "uk_milestone_dependency", columnNames = {"predecessor_id", "successor_id"}))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class MilestoneDependencyEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "milestone_dependency_seq")
+    @SequenceGenerator(name = "milestone_dependency_seq", sequenceName = "milestone_dependency_seq", allocationSize = 50)
+    @Column(name = "milestone_dependency_id", nullable = false, unique = true)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "predecessor_id", nullable = false)
+    private Long predecessorId;
+
+    @Column(name = "successor_id", nullable = false)
+    private Long successorId;
+
+    // The successor is due at least this many business days after the predecessor
+    @Column(name = "business_days", nullable = false)
+    private int businessDays;
+}
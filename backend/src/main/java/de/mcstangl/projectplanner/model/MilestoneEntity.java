@@ -7,7 +7,10 @@ import java.sql.Date;
 import java.util.Objects;
 
 @Entity
-@Table(name = "milestone")
+@Table(
+        name = "milestone",
+        indexes = @Index(name = "idx_milestone_change_sequence", columnList = "change_sequence"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_milestone_project_title", columnNames = {"project_id", "title"}))
 @Getter
 @Setter
 @Builder
@@ -17,7 +20,8 @@ import java.util.Objects;
 public class MilestoneEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "milestone_seq")
+    @SequenceGenerator(name = "milestone_seq", sequenceName = "milestone_seq", allocationSize = 50)
     @Column(name ="milestone_id", unique = true,nullable = false)
     private Long id;
 
@@ -30,6 +34,14 @@ public class MilestoneEntity {
     @Column(name="due_date")
     private Date dueDate;
 
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    // Existing rows start with version 0 when the column is added
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name="project_id", nullable = false)
     private ProjectEntity projectEntity;
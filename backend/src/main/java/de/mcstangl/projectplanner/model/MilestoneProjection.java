@@ -0,0 +1,16 @@
+package de.mcstangl.projectplanner.model;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+public record MilestoneProjection(Long id, Long projectId, String projectTitle, String title, LocalDate dueDate, LocalDate dateFinished, long version) {
+
+    // Used by the JPQL constructor expressions, Hibernate passes date columns as java.util.Date
+    public MilestoneProjection(Long id, Long projectId, String projectTitle, String title, Date dueDate, Date dateFinished, long version) {
+        this(id, projectId, projectTitle, title, toLocalDate(dueDate), toLocalDate(dateFinished), version);
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : new java.sql.Date(date.getTime()).toLocalDate();
+    }
+}
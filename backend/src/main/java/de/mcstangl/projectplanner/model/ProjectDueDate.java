@@ -0,0 +1,6 @@
+package de.mcstangl.projectplanner.model;
+
+import java.time.LocalDate;
+
+public record ProjectDueDate(Long projectId, LocalDate dueDate) {
+}
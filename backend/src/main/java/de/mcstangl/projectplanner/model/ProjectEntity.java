@@ -2,6 +2,8 @@ package de.mcstangl.projectplanner.model;
 
 import de.mcstangl.projectplanner.enums.ProjectStatus;
 import lombok.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import javax.persistence.*;
 import java.sql.Date;
@@ -12,7 +14,10 @@ import java.util.Set;
 import static javax.persistence.EnumType.STRING;
 
 @Entity
-@Table(name = "projects")
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_change_sequence", columnList = "change_sequence"),
+        @Index(name = "idx_projects_status", columnList = "status"),
+        @Index(name = "idx_projects_next_due_date_title", columnList = "next_due_date, title")})
 @Getter
 @Setter
 @Builder
@@ -22,7 +27,8 @@ import static javax.persistence.EnumType.STRING;
 public class ProjectEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_seq")
+    @SequenceGenerator(name = "project_seq", sequenceName = "project_seq", allocationSize = 50)
     @Column(name = "project_id", nullable = false, unique = true)
     private Long id;
 
@@ -39,11 +45,21 @@ public class ProjectEntity {
     @Column(name = "status")
     private ProjectStatus status;
 
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    // Existing rows start with version 0 when the column is added
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "owner_id")
     private UserEntity owner;
 
+    // The collections are loaded with one query each for all projects of a result, joining them would multiply the rows
     @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @JoinTable(
             name = "project_writers",
             joinColumns = @JoinColumn(name = "project_id"),
@@ -51,6 +67,7 @@ public class ProjectEntity {
     private Set<UserEntity> writers;
 
     @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @JoinTable(
             name = "project_motion_designers",
             joinColumns = @JoinColumn(name = "project_id"),
@@ -58,8 +75,14 @@ public class ProjectEntity {
     private Set<UserEntity> motionDesigners;
 
     @OneToMany(mappedBy = "projectEntity", fetch = FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
+    @Fetch(FetchMode.SUBSELECT)
     private List<MilestoneEntity> milestones;
 
+    // Due date of the first open milestone. Set when the project is created and afterwards only changed by
+    // ProjectRepository.updateNextDueDates, saving the project never writes it
+    @Column(name = "next_due_date", updatable = false)
+    private Date nextDueDate;
+
     public void addWriter(UserEntity userEntity) {
         writers.add(userEntity);
     }
@@ -0,0 +1,17 @@
+package de.mcstangl.projectplanner.model;
+
+import de.mcstangl.projectplanner.enums.ProjectStatus;
+import de.mcstangl.projectplanner.enums.UserRole;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+public record ProjectProjection(Long id, String title, String customer, LocalDate dateOfReceipt, ProjectStatus status, long version,
+                                String ownerLoginName, UserRole ownerRole) {
+
+    // Used by the JPQL constructor expression, Hibernate passes date columns as java.util.Date
+    public ProjectProjection(Long id, String title, String customer, Date dateOfReceipt, ProjectStatus status, long version,
+                             String ownerLoginName, UserRole ownerRole) {
+        this(id, title, customer, new java.sql.Date(dateOfReceipt.getTime()).toLocalDate(), status, version, ownerLoginName, ownerRole);
+    }
+}
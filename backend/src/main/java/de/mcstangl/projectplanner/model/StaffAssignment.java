@@ -0,0 +1,4 @@
+package de.mcstangl.projectplanner.model;
+
+public record StaffAssignment(Long projectId, String projectTitle, String loginName) {
+}
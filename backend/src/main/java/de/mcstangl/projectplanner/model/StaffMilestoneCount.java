@@ -0,0 +1,6 @@
+package de.mcstangl.projectplanner.model;
+
+import java.time.LocalDate;
+
+public record StaffMilestoneCount(String loginName, LocalDate dueDate, int openMilestones) {
+}
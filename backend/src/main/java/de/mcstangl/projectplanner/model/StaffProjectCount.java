@@ -0,0 +1,4 @@
+package de.mcstangl.projectplanner.model;
+
+public record StaffProjectCount(String loginName, int openProjects) {
+}
@@ -0,0 +1,6 @@
+package de.mcstangl.projectplanner.model;
+
+import de.mcstangl.projectplanner.enums.UserRole;
+
+public record StaffProjection(Long projectId, String loginName, UserRole role) {
+}
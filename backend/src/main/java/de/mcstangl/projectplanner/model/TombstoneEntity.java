@@ -0,0 +1,38 @@
+package de.mcstangl.projectplanner.model;
+
+import de.mcstangl.projectplanner.enums.TombstoneType;
+import lombok.*;
+
+import javax.persistence.*;
+
+import static javax.persistence.EnumType.STRING;
+
+@Entity
+@Table(name = "tombstone", indexes = @Index(name = "idx_tombstone_change_sequence", columnList = "change_sequence"))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class TombstoneEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tombstone_seq")
+    @SequenceGenerator(name = "tombstone_seq", sequenceName = "tombstone_seq", allocationSize = 50)
+    @Column(name = "tombstone_id", nullable = false, unique = true)
+    private Long id;
+
+    @Column(name = "change_sequence", nullable = false)
+    private Long changeSequence;
+
+    @Enumerated(STRING)
+    @Column(name = "type", nullable = false)
+    private TombstoneType type;
+
+    @Column(name = "project_title", nullable = false)
+    private String projectTitle;
+
+    @Column(name = "milestone_id")
+    private Long milestoneId;
+}
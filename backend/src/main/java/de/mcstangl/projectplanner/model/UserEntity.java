@@ -4,8 +4,8 @@ import de.mcstangl.projectplanner.enums.UserRole;
 import lombok.*;
 
 import javax.persistence.*;
-import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @Entity
 @Table(name = "pp_user")
@@ -33,14 +33,17 @@ public class UserEntity {
     private UserRole role;
 
 
-    @OneToMany(mappedBy = "owner", fetch = FetchType.EAGER)
-    private List<ProjectEntity> ownedProjects;
+    @OneToMany(mappedBy = "owner", fetch = FetchType.LAZY)
+    @ToString.Exclude
+    private Set<ProjectEntity> ownedProjects;
 
-    @ManyToMany(mappedBy = "writers", fetch = FetchType.EAGER)
-    private List<ProjectEntity> writerInProjects;
+    @ManyToMany(mappedBy = "writers", fetch = FetchType.LAZY)
+    @ToString.Exclude
+    private Set<ProjectEntity> writerInProjects;
 
-    @ManyToMany(mappedBy = "motionDesigners", fetch = FetchType.EAGER)
-    private List<ProjectEntity> motionDesignerInProjects;
+    @ManyToMany(mappedBy = "motionDesigners", fetch = FetchType.LAZY)
+    @ToString.Exclude
+    private Set<ProjectEntity> motionDesignerInProjects;
 
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,6 @@
+package de.mcstangl.projectplanner.model;
+
+import de.mcstangl.projectplanner.enums.UserRole;
+
+public record UserProjection(String loginName, UserRole role) {
+}
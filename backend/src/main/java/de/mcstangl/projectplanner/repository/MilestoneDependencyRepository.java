@@ -0,0 +1,24 @@
+package de.mcstangl.projectplanner.repository;
+
+import de.mcstangl.projectplanner.model.MilestoneDependencyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface MilestoneDependencyRepository extends JpaRepository<MilestoneDependencyEntity, Long>, MilestoneDependencyRepositoryCustom {
+
+    List<MilestoneDependencyEntity> findAllByProjectId(Long projectId);
+
+    boolean existsByPredecessorIdAndSuccessorId(Long predecessorId, Long successorId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM MilestoneDependencyEntity d WHERE d.predecessorId = :milestoneId OR d.successorId = :milestoneId")
+    int deleteAllOfMilestone(@Param("milestoneId") Long milestoneId);
+}
@@ -0,0 +1,10 @@
+package de.mcstangl.projectplanner.repository;
+
+import de.mcstangl.projectplanner.model.MilestoneDependencyEntity;
+
+import java.util.List;
+
+public interface MilestoneDependencyRepositoryCustom {
+
+    List<MilestoneDependencyEntity> findAllLeadingIntoDownstreamOf(Long milestoneId);
+}
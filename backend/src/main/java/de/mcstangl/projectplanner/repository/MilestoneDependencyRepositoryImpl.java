@@ -0,0 +1,37 @@
+package de.mcstangl.projectplanner.repository;
+
+import de.mcstangl.projectplanner.model.MilestoneDependencyEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class MilestoneDependencyRepositoryImpl implements MilestoneDependencyRepositoryCustom {
+
+    private static final String FIND_ALL_LEADING_INTO_DOWNSTREAM = "WITH RECURSIVE downstream(milestone_id) AS (" +
+            "SELECT CAST(? AS BIGINT) " +
+            "UNION " +
+            "SELECT d.successor_id FROM milestone_dependencies d JOIN downstream ON d.predecessor_id = downstream.milestone_id) " +
+            "SELECT d.milestone_dependency_id, d.project_id, d.predecessor_id, d.successor_id, d.business_days " +
+            "FROM milestone_dependencies d WHERE d.successor_id IN (SELECT milestone_id FROM downstream)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MilestoneDependencyRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Every dependency whose successor can be reached from the milestone, so every milestone downstream comes with
+    // all of its predecessors. Reads through JDBC, pending changes of the persistence context have to be flushed first
+    @Override
+    public List<MilestoneDependencyEntity> findAllLeadingIntoDownstreamOf(Long milestoneId) {
+        return jdbcTemplate.query(FIND_ALL_LEADING_INTO_DOWNSTREAM, (resultSet, rowNumber) -> MilestoneDependencyEntity.builder()
+                .id(resultSet.getLong("milestone_dependency_id"))
+                .projectId(resultSet.getLong("project_id"))
+                .predecessorId(resultSet.getLong("predecessor_id"))
+                .successorId(resultSet.getLong("successor_id"))
+                .businessDays(resultSet.getInt("business_days"))
+                .build(), milestoneId);
+    }
+}
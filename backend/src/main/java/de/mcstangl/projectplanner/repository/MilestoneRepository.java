@@ -1,14 +1,70 @@
 package de.mcstangl.projectplanner.repository;
 
+import de.mcstangl.projectplanner.enums.ProjectStatus;
 import de.mcstangl.projectplanner.model.MilestoneEntity;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
 import de.mcstangl.projectplanner.model.ProjectEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Date;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface MilestoneRepository extends JpaRepository<MilestoneEntity, Long> {
+public interface MilestoneRepository extends JpaRepository<MilestoneEntity, Long>, MilestoneRepositoryCustom {
 
     List<MilestoneEntity> findAllByProjectEntity(ProjectEntity projectEntity);
+
+    @Query("SELECT new de.mcstangl.projectplanner.model.MilestoneProjection(" +
+            "m.id, p.id, p.title, m.title, m.dueDate, m.dateFinished, m.version) " +
+            "FROM MilestoneEntity m JOIN m.projectEntity p " +
+            "WHERE p.title = :projectTitle " +
+            "ORDER BY m.id ASC")
+    List<MilestoneProjection> findAllProjectedByProjectTitle(@Param("projectTitle") String projectTitle);
+
+    @Query("SELECT new de.mcstangl.projectplanner.model.MilestoneProjection(" +
+            "m.id, p.id, p.title, m.title, m.dueDate, m.dateFinished, m.version) " +
+            "FROM MilestoneEntity m JOIN m.projectEntity p " +
+            "WHERE m.id IN :ids " +
+            "ORDER BY m.id ASC")
+    List<MilestoneProjection> findAllProjectedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new de.mcstangl.projectplanner.model.MilestoneProjection(" +
+            "m.id, p.id, p.title, m.title, m.dueDate, m.dateFinished, m.version) " +
+            "FROM MilestoneEntity m JOIN m.projectEntity p " +
+            "WHERE p.id = (SELECT o.projectEntity.id FROM MilestoneEntity o WHERE o.id = :milestoneId) " +
+            "ORDER BY m.dueDate ASC, m.id ASC")
+    List<MilestoneProjection> findAllProjectedOfSameProject(@Param("milestoneId") Long milestoneId);
+
+    @Query("SELECT new de.mcstangl.projectplanner.model.MilestoneProjection(" +
+            "m.id, p.id, p.title, m.title, m.dueDate, m.dateFinished, m.version) " +
+            "FROM MilestoneEntity m JOIN m.projectEntity p " +
+            "WHERE p.status = :projectStatus " +
+            "ORDER BY m.dueDate ASC, m.id ASC")
+    List<MilestoneProjection> findAllProjectedByProjectStatusSortedByDueDate(@Param("projectStatus") ProjectStatus projectStatus);
+
+    boolean existsByProjectEntityAndTitle(ProjectEntity projectEntity, String title);
+
+    boolean existsByProjectEntityAndTitleAndIdNot(ProjectEntity projectEntity, String title, Long id);
+
+    @EntityGraph(attributePaths = "projectEntity")
+    List<MilestoneEntity> findAllByDateFinishedIsNullAndDueDateBetweenOrderByDueDateAscIdAsc(Date from, Date to);
+
+    @EntityGraph(attributePaths = "projectEntity")
+    List<MilestoneEntity> findAllByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Long changeSequence);
+
+    @EntityGraph(attributePaths = "projectEntity")
+    @Query("SELECT DISTINCT m FROM MilestoneEntity m " +
+            "JOIN m.projectEntity p " +
+            "LEFT JOIN p.writers w " +
+            "LEFT JOIN p.motionDesigners d " +
+            "WHERE m.dateFinished IS NULL " +
+            "AND m.dueDate BETWEEN :from AND :to " +
+            "AND (w.loginName = :loginName OR d.loginName = :loginName) " +
+            "ORDER BY m.dueDate ASC, m.id ASC")
+    List<MilestoneEntity> findAllOpenByDueDateBetweenAndStaffMember(@Param("from") Date from, @Param("to") Date to, @Param("loginName") String loginName);
 }
@@ -0,0 +1,10 @@
+package de.mcstangl.projectplanner.repository;
+
+import de.mcstangl.projectplanner.model.MilestoneProjection;
+
+import java.util.List;
+
+public interface MilestoneRepositoryCustom {
+
+    int[] updateDueDates(List<MilestoneProjection> milestones, long changeSequence);
+}
@@ -0,0 +1,44 @@
+package de.mcstangl.projectplanner.repository;
+
+import de.mcstangl.projectplanner.model.MilestoneProjection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+public class MilestoneRepositoryImpl implements MilestoneRepositoryCustom {
+
+    private static final String UPDATE_DUE_DATE = "UPDATE milestone SET due_date = ?, change_sequence = ?, version = version + 1 " +
+            "WHERE milestone_id = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MilestoneRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // One JDBC batch for all milestones, a count of 0 means the milestone was changed in the meantime
+    @Override
+    public int[] updateDueDates(List<MilestoneProjection> milestones, long changeSequence) {
+        return jdbcTemplate.batchUpdate(UPDATE_DUE_DATE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement preparedStatement, int i) throws SQLException {
+                MilestoneProjection milestone = milestones.get(i);
+                preparedStatement.setDate(1, Date.valueOf(milestone.dueDate()));
+                preparedStatement.setLong(2, changeSequence);
+                preparedStatement.setLong(3, milestone.id());
+                preparedStatement.setLong(4, milestone.version());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return milestones.size();
+            }
+        });
+    }
+}
@@ -1,15 +1,84 @@
 package de.mcstangl.projectplanner.repository;
 
+import de.mcstangl.projectplanner.enums.ProjectStatus;
 import de.mcstangl.projectplanner.model.ProjectEntity;
-import org.springframework.data.domain.Example;
+import de.mcstangl.projectplanner.model.ProjectProjection;
+import de.mcstangl.projectplanner.model.StaffProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<ProjectEntity, Long> {
 
     Optional<ProjectEntity> findByTitle(String title);
 
+    @Query("SELECT p.title FROM ProjectEntity p WHERE p.title IN :titles")
+    Set<String> findTitlesIn(@Param("titles") Collection<String> titles);
+
+    boolean existsByTitle(String title);
+
+    @Query("SELECT new de.mcstangl.projectplanner.model.ProjectProjection(" +
+            "p.id, p.title, p.customer, p.dateOfReceipt, p.status, p.version, o.loginName, o.role) " +
+            "FROM ProjectEntity p LEFT JOIN p.owner o " +
+            "WHERE p.status = :status " +
+            "ORDER BY p.nextDueDate ASC NULLS LAST, p.title ASC")
+    List<ProjectProjection> findAllProjectedByStatusSortedByNextDueDate(@Param("status") ProjectStatus status);
+
+    @Query("SELECT new de.mcstangl.projectplanner.model.StaffProjection(p.id, w.loginName, w.role) " +
+            "FROM ProjectEntity p JOIN p.writers w " +
+            "WHERE p.status = :status " +
+            "ORDER BY w.loginName ASC")
+    List<StaffProjection> findAllWritersProjectedByStatus(@Param("status") ProjectStatus status);
+
+    @Query("SELECT new de.mcstangl.projectplanner.model.StaffProjection(p.id, d.loginName, d.role) " +
+            "FROM ProjectEntity p JOIN p.motionDesigners d " +
+            "WHERE p.status = :status " +
+            "ORDER BY d.loginName ASC")
+    List<StaffProjection> findAllMotionDesignersProjectedByStatus(@Param("status") ProjectStatus status);
+
+    @EntityGraph(attributePaths = "owner", type = EntityGraph.EntityGraphType.LOAD)
+    List<ProjectEntity> findAllByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "owner", type = EntityGraph.EntityGraphType.LOAD)
+    List<ProjectEntity> findAllByChangeSequenceGreaterThan(Long changeSequence);
+
+    @Query("SELECT p.id FROM ProjectEntity p WHERE p.status = :status ORDER BY p.nextDueDate ASC NULLS LAST, p.title ASC")
+    List<Long> findIdsByStatusSortedByNextDueDate(@Param("status") ProjectStatus status, Pageable pageable);
+
+    @Query("SELECT p.id FROM ProjectEntity p " +
+            "WHERE p.status = :status " +
+            "AND (p.nextDueDate > :nextDueDate " +
+            "OR (p.nextDueDate = :nextDueDate AND p.title > :title) " +
+            "OR p.nextDueDate IS NULL) " +
+            "ORDER BY p.nextDueDate ASC NULLS LAST, p.title ASC")
+    List<Long> findIdsByStatusSortedByNextDueDateAfter(@Param("status") ProjectStatus status, @Param("nextDueDate") Date nextDueDate, @Param("title") String title, Pageable pageable);
+
+    @Query("SELECT p.id FROM ProjectEntity p WHERE p.status = :status AND p.nextDueDate IS NULL AND p.title > :title ORDER BY p.title ASC")
+    List<Long> findIdsByStatusWithoutNextDueDateAfter(@Param("status") ProjectStatus status, @Param("title") String title, Pageable pageable);
+
+    @Query("SELECT p.id FROM ProjectEntity p WHERE p.status = :status ORDER BY p.dateOfReceipt DESC, p.title ASC")
+    List<Long> findIdsByStatusSortedByDateOfReceiptDesc(@Param("status") ProjectStatus status, Pageable pageable);
+
+    long countByStatus(ProjectStatus status);
+
+    // Every write of milestones calls this for the projects it touched, pending milestone changes are flushed first
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE ProjectEntity p SET p.nextDueDate = (" +
+            "SELECT MIN(m.dueDate) FROM MilestoneEntity m WHERE m.projectEntity = p AND m.dateFinished IS NULL) " +
+            "WHERE p.id IN :projectIds")
+    int updateNextDueDates(@Param("projectIds") Collection<Long> projectIds);
+
 }
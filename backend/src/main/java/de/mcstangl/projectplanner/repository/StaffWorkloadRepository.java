@@ -0,0 +1,104 @@
+package de.mcstangl.projectplanner.repository;
+
+import de.mcstangl.projectplanner.model.ProjectDueDate;
+import de.mcstangl.projectplanner.model.StaffAssignment;
+import de.mcstangl.projectplanner.model.StaffMilestoneCount;
+import de.mcstangl.projectplanner.model.StaffProjectCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+// A user who is writer and motion designer of the same project only counts once
+@Repository
+public class StaffWorkloadRepository {
+
+    private static final String STAFF = "(SELECT project_id, user_id FROM project_writers " +
+            "UNION SELECT project_id, user_id FROM project_motion_designers) s ";
+
+    private static final String COUNT_OPEN_PROJECTS = "SELECT u.login_name, COUNT(*) AS open_projects " +
+            "FROM " + STAFF +
+            "JOIN projects p ON p.project_id = s.project_id " +
+            "JOIN pp_user u ON u.user_id = s.user_id " +
+            "WHERE p.status = 'OPEN' " +
+            "GROUP BY u.login_name";
+
+    private static final String COUNT_OPEN_MILESTONES = "SELECT u.login_name, m.due_date, COUNT(*) AS open_milestones " +
+            "FROM " + STAFF +
+            "JOIN projects p ON p.project_id = s.project_id " +
+            "JOIN milestone m ON m.project_id = s.project_id " +
+            "JOIN pp_user u ON u.user_id = s.user_id " +
+            "WHERE p.status = 'OPEN' AND m.date_finished IS NULL AND m.due_date < ? " +
+            "GROUP BY u.login_name, m.due_date";
+
+    private static final String FIND_OPEN_PROJECT_STAFF = "SELECT s.project_id, p.title, u.login_name " +
+            "FROM " + STAFF +
+            "JOIN projects p ON p.project_id = s.project_id " +
+            "JOIN pp_user u ON u.user_id = s.user_id " +
+            "WHERE p.status = 'OPEN'";
+
+    // Due dates of projects without staff are not needed, they are passed in when someone is assigned
+    private static final String FIND_OPEN_DUE_DATES = "SELECT m.project_id, m.due_date " +
+            "FROM milestone m " +
+            "JOIN projects p ON p.project_id = m.project_id " +
+            "WHERE p.status = 'OPEN' AND m.date_finished IS NULL AND m.due_date IS NOT NULL " +
+            "AND m.project_id IN (SELECT project_id FROM project_writers UNION SELECT project_id FROM project_motion_designers)";
+
+    private static final String WITH_TITLE_IN = " AND p.title IN (:titles)";
+
+    private static final RowMapper<StaffAssignment> STAFF_ASSIGNMENT_ROW_MAPPER = (resultSet, rowNumber) -> new StaffAssignment(
+            resultSet.getLong("project_id"),
+            resultSet.getString("title"),
+            resultSet.getString("login_name"));
+
+    private static final RowMapper<ProjectDueDate> PROJECT_DUE_DATE_ROW_MAPPER = (resultSet, rowNumber) -> new ProjectDueDate(
+            resultSet.getLong("project_id"),
+            resultSet.getDate("due_date").toLocalDate());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public StaffWorkloadRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public List<StaffProjectCount> countOpenProjects() {
+        return jdbcTemplate.query(COUNT_OPEN_PROJECTS, (resultSet, rowNumber) -> new StaffProjectCount(
+                resultSet.getString("login_name"),
+                resultSet.getInt("open_projects")));
+    }
+
+    public List<StaffMilestoneCount> countOpenMilestonesDueBefore(LocalDate dueBefore) {
+        return jdbcTemplate.query(COUNT_OPEN_MILESTONES, (resultSet, rowNumber) -> new StaffMilestoneCount(
+                resultSet.getString("login_name"),
+                resultSet.getDate("due_date").toLocalDate(),
+                resultSet.getInt("open_milestones")), Date.valueOf(dueBefore));
+    }
+
+    public List<StaffAssignment> findOpenProjectStaff() {
+        return jdbcTemplate.query(FIND_OPEN_PROJECT_STAFF, STAFF_ASSIGNMENT_ROW_MAPPER);
+    }
+
+    public List<StaffAssignment> findOpenProjectStaffByTitleIn(Collection<String> titles) {
+        return namedParameterJdbcTemplate.query(FIND_OPEN_PROJECT_STAFF + WITH_TITLE_IN,
+                new MapSqlParameterSource("titles", titles), STAFF_ASSIGNMENT_ROW_MAPPER);
+    }
+
+    public List<ProjectDueDate> findOpenDueDatesOfStaffedProjects() {
+        return jdbcTemplate.query(FIND_OPEN_DUE_DATES, PROJECT_DUE_DATE_ROW_MAPPER);
+    }
+
+    public List<ProjectDueDate> findOpenDueDatesOfStaffedProjectsByTitleIn(Collection<String> titles) {
+        return namedParameterJdbcTemplate.query(FIND_OPEN_DUE_DATES + WITH_TITLE_IN,
+                new MapSqlParameterSource("titles", titles), PROJECT_DUE_DATE_ROW_MAPPER);
+    }
+}
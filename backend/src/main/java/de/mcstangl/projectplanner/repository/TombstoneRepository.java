@@ -0,0 +1,13 @@
+package de.mcstangl.projectplanner.repository;
+
+import de.mcstangl.projectplanner.model.TombstoneEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<TombstoneEntity, Long> {
+
+    List<TombstoneEntity> findAllByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Long changeSequence);
+}
@@ -1,13 +1,40 @@
 package de.mcstangl.projectplanner.repository;
 
 import de.mcstangl.projectplanner.model.UserEntity;
+import de.mcstangl.projectplanner.model.UserProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     Optional<UserEntity> findByLoginName(String loginName);
+
+    List<UserEntity> findAllByLoginNameIn(Collection<String> loginNames);
+
+    @Query("SELECT new de.mcstangl.projectplanner.model.UserProjection(u.loginName, u.role) " +
+            "FROM UserEntity u ORDER BY u.id ASC")
+    List<UserProjection> findAllProjected();
+
+    @Query("SELECT COUNT(DISTINCT p) FROM ProjectEntity p " +
+            "LEFT JOIN p.writers w " +
+            "LEFT JOIN p.motionDesigners m " +
+            "WHERE p.owner = :user OR w = :user OR m = :user")
+    long countLinkedProjects(@Param("user") UserEntity user);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProjectEntity p SET p.changeSequence = :changeSequence " +
+            "WHERE p.owner = :user " +
+            "OR p.id IN (SELECT pw.id FROM ProjectEntity pw JOIN pw.writers w WHERE w = :user) " +
+            "OR p.id IN (SELECT pm.id FROM ProjectEntity pm JOIN pm.motionDesigners m WHERE m = :user)")
+    int updateChangeSequenceOfLinkedProjects(@Param("user") UserEntity user, @Param("changeSequence") Long changeSequence);
 }
@@ -0,0 +1,15 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.enums.ChangeType;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class BoardChangedEvent {
+
+    private final ChangeType type;
+    private final String projectTitle;
+    private final String previousProjectTitle;
+    private final Long milestoneId;
+}
@@ -0,0 +1,19 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.model.MilestoneEntity;
+import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.model.TombstoneEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BoardChanges {
+
+    private final long version;
+    private final List<ProjectEntity> projects;
+    private final List<MilestoneEntity> milestones;
+    private final List<TombstoneEntity> tombstones;
+}
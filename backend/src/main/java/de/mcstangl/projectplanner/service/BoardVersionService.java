@@ -0,0 +1,61 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.enums.ChangeType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Versions live in memory, the start time in the ETag invalidates all ETags handed out before a restart
+@Service
+public class BoardVersionService {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Long> projectVersions = new HashMap<>();
+
+    private long boardVersion;
+    private long versionOfUnchangedProjects;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent boardChangedEvent) {
+        if (boardChangedEvent.getType() == ChangeType.USER_UPDATED) {
+            allProjectsChanged();
+            return;
+        }
+        projectChanged(boardChangedEvent.getProjectTitle());
+        if (boardChangedEvent.getPreviousProjectTitle() != null) {
+            projectRenamed(boardChangedEvent.getPreviousProjectTitle());
+        }
+    }
+
+    public synchronized void projectChanged(String title) {
+        boardVersion++;
+        projectVersions.put(title, boardVersion);
+    }
+
+    // The old title drops out of the map, raising the default keeps ETags handed out for it from matching again
+    public synchronized void projectRenamed(String previousTitle) {
+        boardVersion++;
+        versionOfUnchangedProjects = boardVersion;
+        projectVersions.remove(previousTitle);
+    }
+
+    public synchronized void allProjectsChanged() {
+        boardVersion++;
+        versionOfUnchangedProjects = boardVersion;
+        projectVersions.clear();
+    }
+
+    public synchronized String getBoardETag() {
+        return createETag(boardVersion);
+    }
+
+    public synchronized String getProjectETag(String title) {
+        return createETag(projectVersions.getOrDefault(title, versionOfUnchangedProjects));
+    }
+
+    private String createETag(long version) {
+        return String.format("\"%s-%s\"", epoch, version);
+    }
+}
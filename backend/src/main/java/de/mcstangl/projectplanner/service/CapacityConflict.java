@@ -0,0 +1,6 @@
+package de.mcstangl.projectplanner.service;
+
+import java.time.LocalDate;
+
+public record CapacityConflict(String loginName, LocalDate windowStart, LocalDate windowEnd, int deadlines, int maxDeadlines) {
+}
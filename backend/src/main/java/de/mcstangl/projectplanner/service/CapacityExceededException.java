@@ -0,0 +1,8 @@
+package de.mcstangl.projectplanner.service;
+
+public class CapacityExceededException extends RuntimeException {
+
+    public CapacityExceededException(String message) {
+        super(message);
+    }
+}
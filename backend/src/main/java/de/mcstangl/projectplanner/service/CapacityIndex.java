@@ -0,0 +1,257 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.config.CapacityConfig;
+import de.mcstangl.projectplanner.enums.ChangeType;
+import de.mcstangl.projectplanner.model.ProjectDueDate;
+import de.mcstangl.projectplanner.model.StaffAssignment;
+import de.mcstangl.projectplanner.repository.StaffWorkloadRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Open due dates of every staffed project and of every staff member as sorted business days, so a check only
+// counts ints in a range. Changed projects are marked by the board events and reloaded together before the next check.
+// The monitor only guards the index in memory, reloads query the database without holding it
+@Service
+@Slf4j
+public class CapacityIndex {
+
+    // Only the distance between due dates matters, the anchor just has to be a business day
+    private static final LocalDate ANCHOR = LocalDate.of(2021, 1, 4);
+    private static final int[] NO_DEADLINES = new int[0];
+
+    private final StaffWorkloadRepository staffWorkloadRepository;
+    private final DateService dateService;
+    private final CapacityConfig capacityConfig;
+
+    private final Map<Long, ProjectDeadlines> projectsById = new HashMap<>();
+    private final Map<String, Long> projectIdsByTitle = new HashMap<>();
+    private final Map<String, Set<Long>> projectIdsByLoginName = new HashMap<>();
+    // Merged from the projects when first needed and dropped whenever one of them changes
+    private final Map<String, int[]> deadlinesByLoginName = new HashMap<>();
+    private final Set<String> changedTitles = ConcurrentHashMap.newKeySet();
+    private final Object loadLock = new Object();
+    private final LoadGeneration loadGeneration = new LoadGeneration();
+    private boolean loaded;
+
+    @Autowired
+    public CapacityIndex(StaffWorkloadRepository staffWorkloadRepository, DateService dateService, CapacityConfig capacityConfig) {
+        this.staffWorkloadRepository = staffWorkloadRepository;
+        this.dateService = dateService;
+        this.capacityConfig = capacityConfig;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent boardChangedEvent) {
+        if (boardChangedEvent.getType() == ChangeType.USER_UPDATED || boardChangedEvent.getProjectTitle() == null) {
+            invalidateAll();
+            return;
+        }
+        changedTitles.add(boardChangedEvent.getProjectTitle());
+        if (boardChangedEvent.getPreviousProjectTitle() != null) {
+            changedTitles.add(boardChangedEvent.getPreviousProjectTitle());
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        loadGeneration.invalidate();
+        loaded = false;
+        changedTitles.clear();
+        projectsById.clear();
+        projectIdsByTitle.clear();
+        projectIdsByLoginName.clear();
+        deadlinesByLoginName.clear();
+    }
+
+    // Checks every window of business days that contains one of the new due dates. The deadlines of the project
+    // itself are subtracted, otherwise they would be counted twice
+    public Optional<CapacityConflict> findConflict(String loginName, Long projectId, Collection<LocalDate> dueDates) {
+        if (dueDates.isEmpty()) {
+            return Optional.empty();
+        }
+        int[] addedDeadlines = toSortedBusinessDays(dueDates);
+        while (true) {
+            refresh();
+            synchronized (this) {
+                if (loaded) {
+                    return findConflict(loginName, projectId, addedDeadlines);
+                }
+            }
+        }
+    }
+
+    private Optional<CapacityConflict> findConflict(String loginName, Long projectId, int[] addedDeadlines) {
+        int[] existingDeadlines = findDeadlines(loginName);
+        ProjectDeadlines project = projectsById.get(projectId);
+        int[] projectDeadlines = project != null && project.loginNames.contains(loginName) ? project.dueBusinessDays : NO_DEADLINES;
+        int windowSize = capacityConfig.getWindowBusinessDays();
+        int maxDeadlines = capacityConfig.getMaxDeadlines();
+        for (int i = 0; i < addedDeadlines.length; i++) {
+            if (i > 0 && addedDeadlines[i] == addedDeadlines[i - 1]) {
+                continue;
+            }
+            for (int windowStart = addedDeadlines[i] - windowSize + 1; windowStart <= addedDeadlines[i]; windowStart++) {
+                int windowEnd = windowStart + windowSize - 1;
+                int deadlines = count(existingDeadlines, windowStart, windowEnd)
+                        - count(projectDeadlines, windowStart, windowEnd)
+                        + count(addedDeadlines, windowStart, windowEnd);
+                if (deadlines > maxDeadlines) {
+                    return Optional.of(new CapacityConflict(loginName, toDate(windowStart), toDate(windowEnd), deadlines, maxDeadlines));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Titles are taken from the set before the query, a title marked during the query is reloaded with the next check
+    private void refresh() {
+        synchronized (loadLock) {
+            boolean fullLoad;
+            long generation;
+            synchronized (this) {
+                fullLoad = !loaded;
+                generation = loadGeneration.current();
+            }
+            if (!fullLoad && changedTitles.isEmpty()) {
+                return;
+            }
+
+            List<String> titles = new ArrayList<>();
+            for (Iterator<String> iterator = changedTitles.iterator(); iterator.hasNext(); ) {
+                titles.add(iterator.next());
+                iterator.remove();
+            }
+            List<StaffAssignment> staffAssignments = fullLoad
+                    ? staffWorkloadRepository.findOpenProjectStaff()
+                    : staffWorkloadRepository.findOpenProjectStaffByTitleIn(titles);
+            List<ProjectDueDate> dueDates = fullLoad
+                    ? staffWorkloadRepository.findOpenDueDatesOfStaffedProjects()
+                    : staffWorkloadRepository.findOpenDueDatesOfStaffedProjectsByTitleIn(titles);
+
+            synchronized (this) {
+                if (!loadGeneration.isCurrent(generation)) {
+                    return;
+                }
+                if (!fullLoad) {
+                    titles.forEach(title -> removeProject(projectIdsByTitle.get(title)));
+                }
+                load(staffAssignments, dueDates);
+                if (fullLoad) {
+                    loaded = true;
+                    log.info(String.format("Loaded deadlines of %s staffed projects", projectsById.size()));
+                }
+            }
+        }
+    }
+
+    private void load(List<StaffAssignment> staffAssignments, List<ProjectDueDate> dueDates) {
+        Map<Long, ProjectDeadlines> loadedProjectsById = new HashMap<>();
+        for (StaffAssignment staffAssignment : staffAssignments) {
+            loadedProjectsById.computeIfAbsent(staffAssignment.projectId(), projectId -> new ProjectDeadlines(staffAssignment.projectTitle()))
+                    .loginNames.add(staffAssignment.loginName());
+        }
+
+        Map<Long, List<LocalDate>> dueDatesByProjectId = new HashMap<>();
+        for (ProjectDueDate dueDate : dueDates) {
+            dueDatesByProjectId.computeIfAbsent(dueDate.projectId(), projectId -> new ArrayList<>()).add(dueDate.dueDate());
+        }
+
+        for (Map.Entry<Long, ProjectDeadlines> entry : loadedProjectsById.entrySet()) {
+            ProjectDeadlines project = entry.getValue();
+            project.dueBusinessDays = toSortedBusinessDays(dueDatesByProjectId.getOrDefault(entry.getKey(), List.of()));
+            projectsById.put(entry.getKey(), project);
+            projectIdsByTitle.put(project.title, entry.getKey());
+            for (String loginName : project.loginNames) {
+                projectIdsByLoginName.computeIfAbsent(loginName, key -> new HashSet<>()).add(entry.getKey());
+                deadlinesByLoginName.remove(loginName);
+            }
+        }
+    }
+
+    private void removeProject(Long projectId) {
+        ProjectDeadlines project = projectId == null ? null : projectsById.remove(projectId);
+        if (project == null) {
+            return;
+        }
+        projectIdsByTitle.remove(project.title);
+        for (String loginName : project.loginNames) {
+            deadlinesByLoginName.remove(loginName);
+            Set<Long> projectIds = projectIdsByLoginName.get(loginName);
+            projectIds.remove(projectId);
+            if (projectIds.isEmpty()) {
+                projectIdsByLoginName.remove(loginName);
+            }
+        }
+    }
+
+    private int[] findDeadlines(String loginName) {
+        int[] deadlines = deadlinesByLoginName.get(loginName);
+        if (deadlines != null) {
+            return deadlines;
+        }
+
+        Set<Long> projectIds = projectIdsByLoginName.getOrDefault(loginName, Set.of());
+        int size = 0;
+        for (Long projectId : projectIds) {
+            size += projectsById.get(projectId).dueBusinessDays.length;
+        }
+        deadlines = new int[size];
+        int offset = 0;
+        for (Long projectId : projectIds) {
+            int[] dueBusinessDays = projectsById.get(projectId).dueBusinessDays;
+            System.arraycopy(dueBusinessDays, 0, deadlines, offset, dueBusinessDays.length);
+            offset += dueBusinessDays.length;
+        }
+        Arrays.sort(deadlines);
+        deadlinesByLoginName.put(loginName, deadlines);
+        return deadlines;
+    }
+
+    private int[] toSortedBusinessDays(Collection<LocalDate> dueDates) {
+        int[] businessDays = new int[dueDates.size()];
+        int i = 0;
+        for (LocalDate dueDate : dueDates) {
+            businessDays[i++] = dateService.businessDaysBetween(ANCHOR, dueDate);
+        }
+        Arrays.sort(businessDays);
+        return businessDays;
+    }
+
+    private LocalDate toDate(int businessDay) {
+        return dateService.addBusinessDays(ANCHOR, businessDay);
+    }
+
+    private static int count(int[] sortedBusinessDays, int from, int to) {
+        return lowerBound(sortedBusinessDays, to + 1) - lowerBound(sortedBusinessDays, from);
+    }
+
+    private static int lowerBound(int[] sortedBusinessDays, int value) {
+        int low = 0;
+        int high = sortedBusinessDays.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedBusinessDays[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static class ProjectDeadlines {
+
+        private final String title;
+        private final Set<String> loginNames = new HashSet<>();
+        private int[] dueBusinessDays = NO_DEADLINES;
+
+        private ProjectDeadlines(String title) {
+            this.title = title;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.api.ChangeEventDto;
+import de.mcstangl.projectplanner.config.ChangeEventConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class ChangeEventService {
+
+    public static final String RESYNC = "RESYNC";
+
+    private final ChangeEventConfig changeEventConfig;
+    private final ThreadPoolTaskExecutor senderExecutor;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ArrayDeque<ChangeEventDto> history = new ArrayDeque<>();
+    private final Set<ChangeEventClient> clients = ConcurrentHashMap.newKeySet();
+
+    private long sequence;
+
+    @Autowired
+    public ChangeEventService(ChangeEventConfig changeEventConfig) {
+        this.changeEventConfig = changeEventConfig;
+        this.senderExecutor = new ThreadPoolTaskExecutor();
+        this.senderExecutor.setCorePoolSize(changeEventConfig.getSenderThreads());
+        this.senderExecutor.setMaxPoolSize(changeEventConfig.getSenderThreads());
+        this.senderExecutor.setThreadNamePrefix("change-events-");
+        this.senderExecutor.initialize();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent boardChangedEvent) {
+        synchronized (this) {
+            sequence++;
+            ChangeEventDto changeEvent = ChangeEventDto.builder()
+                    .id(createEventId(sequence))
+                    .type(boardChangedEvent.getType().toString())
+                    .projectTitle(boardChangedEvent.getProjectTitle())
+                    .previousProjectTitle(boardChangedEvent.getPreviousProjectTitle())
+                    .milestoneId(boardChangedEvent.getMilestoneId())
+                    .build();
+            history.addLast(changeEvent);
+            if (history.size() > changeEventConfig.getHistorySize()) {
+                history.removeFirst();
+            }
+            for (ChangeEventClient client : clients) {
+                client.enqueue(changeEvent);
+            }
+        }
+        clients.forEach(this::scheduleSend);
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(changeEventConfig.getTimeoutMillis());
+        ChangeEventClient client = new ChangeEventClient(emitter, changeEventConfig.getClientQueueCapacity());
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+
+        synchronized (this) {
+            if (lastEventId != null) {
+                replayMissedEvents(client, lastEventId);
+            }
+            clients.add(client);
+        }
+        scheduleSend(client);
+        log.info(String.format("Client subscribed to change events, %s clients connected", clients.size()));
+        return emitter;
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach(client -> client.getEmitter().complete());
+        senderExecutor.shutdown();
+    }
+
+    private void replayMissedEvents(ChangeEventClient client, String lastEventId) {
+        Long lastSequence = parseSequence(lastEventId);
+        long oldestSequence = history.isEmpty() ? sequence + 1 : parseSequence(history.getFirst().getId());
+        if (lastSequence == null || lastSequence > sequence || lastSequence < oldestSequence - 1) {
+            client.requestResync(sequence == 0 ? null : createEventId(sequence));
+            return;
+        }
+        for (ChangeEventDto changeEvent : history) {
+            if (parseSequence(changeEvent.getId()) > lastSequence) {
+                client.enqueue(changeEvent);
+            }
+        }
+    }
+
+    private void scheduleSend(ChangeEventClient client) {
+        if (!client.startSending()) {
+            return;
+        }
+        try {
+            senderExecutor.execute(() -> send(client));
+        } catch (TaskRejectedException e) {
+            clients.remove(client);
+            client.getEmitter().completeWithError(e);
+        }
+    }
+
+    private void send(ChangeEventClient client) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = client.nextEvent()) != null) {
+                client.getEmitter().send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Sending change event failed, removing client", e);
+            clients.remove(client);
+            client.getEmitter().completeWithError(e);
+        }
+    }
+
+    private String createEventId(long eventSequence) {
+        return epoch + "-" + eventSequence;
+    }
+
+    private Long parseSequence(String eventId) {
+        int separatorIndex = eventId.lastIndexOf('-');
+        if (separatorIndex < 0 || !epoch.equals(eventId.substring(0, separatorIndex))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separatorIndex + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Slow clients get a bounded queue, when it overflows they are told to reload the board instead
+    private static class ChangeEventClient {
+
+        private final SseEmitter emitter;
+        private final int capacity;
+        private final ArrayDeque<ChangeEventDto> queue = new ArrayDeque<>();
+
+        private boolean resyncRequested;
+        private String resyncEventId;
+        private boolean sending;
+
+        private ChangeEventClient(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.capacity = capacity;
+        }
+
+        private SseEmitter getEmitter() {
+            return emitter;
+        }
+
+        private synchronized void enqueue(ChangeEventDto changeEvent) {
+            if (queue.size() >= capacity) {
+                requestResync(changeEvent.getId());
+                return;
+            }
+            queue.addLast(changeEvent);
+        }
+
+        private synchronized void requestResync(String latestEventId) {
+            queue.clear();
+            resyncRequested = true;
+            resyncEventId = latestEventId;
+        }
+
+        private synchronized boolean startSending() {
+            if (sending || (queue.isEmpty() && !resyncRequested)) {
+                return false;
+            }
+            sending = true;
+            return true;
+        }
+
+        private synchronized SseEmitter.SseEventBuilder nextEvent() {
+            if (resyncRequested) {
+                resyncRequested = false;
+                SseEmitter.SseEventBuilder event = SseEmitter.event()
+                        .name(RESYNC)
+                        .data(ChangeEventDto.builder().id(resyncEventId).type(RESYNC).build());
+                return resyncEventId == null ? event : event.id(resyncEventId);
+            }
+            ChangeEventDto changeEvent = queue.pollFirst();
+            if (changeEvent == null) {
+                sending = false;
+                return null;
+            }
+            return SseEmitter.event()
+                    .id(changeEvent.getId())
+                    .name(changeEvent.getType())
+                    .data(changeEvent);
+        }
+    }
+}
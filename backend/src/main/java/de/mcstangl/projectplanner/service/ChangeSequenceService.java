@@ -0,0 +1,60 @@
+package de.mcstangl.projectplanner.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import static org.springframework.util.Assert.state;
+
+// Sequences are drawn before the commit, so a higher sequence can become visible before a lower one. Every drawn
+// sequence stays in flight until its transaction is completed, syncing clients only get versions below all of them.
+// Drawing is serialized, so no sequence can be handed out without being in flight
+@Service
+public class ChangeSequenceService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NavigableSet<Long> changeSequencesInFlight = new TreeSet<>();
+    private long highestChangeSequence;
+
+    @Autowired
+    public ChangeSequenceService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public synchronized long next() {
+        state(TransactionSynchronizationManager.isSynchronizationActive(), "Change sequences can only be drawn within a transaction");
+
+        long changeSequence = draw();
+        changeSequencesInFlight.add(changeSequence);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(changeSequence);
+            }
+        });
+        return changeSequence;
+    }
+
+    // Every change up to the returned sequence is committed or rolled back, so queries started afterwards see all of them.
+    // Right after a start nothing has been drawn yet, one sequence is drawn to learn where the sequence stands
+    public synchronized long findCompletedChangeSequence() {
+        if (highestChangeSequence == 0) {
+            draw();
+        }
+        return changeSequencesInFlight.isEmpty() ? highestChangeSequence : changeSequencesInFlight.first() - 1;
+    }
+
+    private synchronized void complete(long changeSequence) {
+        changeSequencesInFlight.remove(changeSequence);
+    }
+
+    private long draw() {
+        highestChangeSequence = jdbcTemplate.queryForObject("SELECT nextval('change_seq')", Long.class);
+        return highestChangeSequence;
+    }
+}
@@ -1,69 +1,172 @@
 package de.mcstangl.projectplanner.service;
 
+import de.mcstangl.projectplanner.config.BusinessDayConfig;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.sql.Date;
-import java.util.Calendar;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class DateService {
 
-    public Date addBusinessDays(Date date, int days) {
-        int businessDaysToAdd = calculateBusinessDays(date, days);
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
-        calendar.add(Calendar.DATE, businessDaysToAdd);
-        return new Date(calendar.getTimeInMillis());
+    private final Set<MonthDay> yearlyHolidays = new HashSet<>();
+    private final Set<LocalDate> holidays = new HashSet<>();
+    private final Map<Integer, BusinessYear> businessYears = new ConcurrentHashMap<>();
+
+    public DateService() {
     }
 
-    private int calculateBusinessDays(Date date, int daysToAdd){
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.MONDAY && daysToAdd <= 4){
-            return daysToAdd;
+    @Autowired
+    public DateService(BusinessDayConfig businessDayConfig) {
+        if (businessDayConfig.getRegion() == null) {
+            return;
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.MONDAY && daysToAdd > 4 && daysToAdd <=9){
-            return daysToAdd + 2;
+        List<String> configuredHolidays = businessDayConfig.getHolidays().get(businessDayConfig.getRegion());
+        if (configuredHolidays == null) {
+            throw new IllegalArgumentException(
+                    String.format("Für die Region %s sind keine Feiertage konfiguriert", businessDayConfig.getRegion())
+            );
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.MONDAY && daysToAdd > 9){
-            return daysToAdd + 4;
+        for (String holiday : configuredHolidays) {
+            addHoliday(holiday);
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.TUESDAY && daysToAdd <= 3){
-            return daysToAdd;
+    }
+
+    public Date addBusinessDays(Date date, int days) {
+        return Date.valueOf(addBusinessDays(date.toLocalDate(), days));
+    }
+
+    public LocalDate addBusinessDays(LocalDate date, int days) {
+        if (days == 0) {
+            return date;
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.TUESDAY && daysToAdd > 3 && daysToAdd <= 8){
-            return daysToAdd + 2;
+
+        BusinessYear businessYear = getBusinessYear(date.getYear());
+        int dayOfYear = date.getDayOfYear() - 1;
+
+        // Counting backwards from a day off starts at the next business day, so -1 is the previous business day
+        int position = businessYear.rank(dayOfYear) + days;
+        if (days < 0 && !businessYear.isBusinessDay(dayOfYear)) {
+            position++;
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.TUESDAY && daysToAdd > 8){
-            return daysToAdd + 4;
+
+        while (position > businessYear.getBusinessDayCount()) {
+            position -= businessYear.getBusinessDayCount();
+            businessYear = getBusinessYear(businessYear.getYear() + 1);
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.WEDNESDAY && daysToAdd <= 2){
-            return daysToAdd;
+        while (position < 1) {
+            businessYear = getBusinessYear(businessYear.getYear() - 1);
+            position += businessYear.getBusinessDayCount();
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.WEDNESDAY && daysToAdd > 2 && daysToAdd <=7){
-            return daysToAdd + 2;
+        return LocalDate.ofYearDay(businessYear.getYear(), businessYear.select(position - 1) + 1);
+    }
+
+    public int businessDaysBetween(Date startDate, Date endDate) {
+        return businessDaysBetween(startDate.toLocalDate(), endDate.toLocalDate());
+    }
+
+    public int businessDaysBetween(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return -businessDaysBetween(endDate, startDate);
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.WEDNESDAY && daysToAdd > 7){
-            return daysToAdd + 4;
+
+        int businessDays = getBusinessYear(endDate.getYear()).rank(endDate.getDayOfYear() - 1)
+                - getBusinessYear(startDate.getYear()).rank(startDate.getDayOfYear() - 1);
+        for (int year = startDate.getYear(); year < endDate.getYear(); year++) {
+            businessDays += getBusinessYear(year).getBusinessDayCount();
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.THURSDAY && daysToAdd == 1){
-            return daysToAdd;
+        return businessDays;
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        return getBusinessYear(date.getYear()).isBusinessDay(date.getDayOfYear() - 1);
+    }
+
+    private void addHoliday(String holiday) {
+        try {
+            if (holiday.length() == 5) {
+                yearlyHolidays.add(MonthDay.parse("--" + holiday));
+            } else {
+                holidays.add(LocalDate.parse(holiday));
+            }
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format("Ungültiger Feiertag %s", holiday), e);
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.THURSDAY && daysToAdd > 1 && daysToAdd <=6){
-            return daysToAdd + 2;
+    }
+
+    private BusinessYear getBusinessYear(int year) {
+        return businessYears.computeIfAbsent(year, this::createBusinessYear);
+    }
+
+    private BusinessYear createBusinessYear(int year) {
+        LocalDate date = LocalDate.ofYearDay(year, 1);
+        List<Integer> businessDays = new ArrayList<>();
+        while (date.getYear() == year) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY
+                    && date.getDayOfWeek() != DayOfWeek.SUNDAY
+                    && !yearlyHolidays.contains(MonthDay.from(date))
+                    && !holidays.contains(date)) {
+                businessDays.add(date.getDayOfYear() - 1);
+            }
+            date = date.plusDays(1);
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.THURSDAY && daysToAdd > 6){
-            return daysToAdd + 4;
+        return new BusinessYear(year, date.minusDays(1).getDayOfYear(), businessDays);
+    }
+
+    private static class BusinessYear {
+
+        private final int year;
+        private final long[] bitmap;
+        private final int[] rankBeforeWord;
+        private final int[] businessDays;
+
+        private BusinessYear(int year, int daysInYear, List<Integer> businessDays) {
+            this.year = year;
+            this.bitmap = new long[(daysInYear + 63) / 64];
+            this.rankBeforeWord = new int[bitmap.length];
+            this.businessDays = new int[businessDays.size()];
+
+            for (int i = 0; i < businessDays.size(); i++) {
+                int dayOfYear = businessDays.get(i);
+                this.businessDays[i] = dayOfYear;
+                bitmap[dayOfYear >>> 6] |= 1L << (dayOfYear & 63);
+            }
+            for (int word = 1; word < bitmap.length; word++) {
+                rankBeforeWord[word] = rankBeforeWord[word - 1] + Long.bitCount(bitmap[word - 1]);
+            }
         }
 
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.FRIDAY && daysToAdd <=5){
-            return daysToAdd + 2;
+        private int getYear() {
+            return year;
         }
-        if(calendar.get(Calendar.DAY_OF_WEEK) == Calendar.FRIDAY && daysToAdd > 5){
-            return daysToAdd + 4;
+
+        private int getBusinessDayCount() {
+            return businessDays.length;
         }
 
-        throw new IllegalArgumentException("Calculation of Business days failed!");
-    }
+        private boolean isBusinessDay(int dayOfYear) {
+            return (bitmap[dayOfYear >>> 6] & (1L << (dayOfYear & 63))) != 0;
+        }
 
+        // Number of business days up to and including the given zero based day of the year
+        private int rank(int dayOfYear) {
+            long mask = -1L >>> (63 - (dayOfYear & 63));
+            return rankBeforeWord[dayOfYear >>> 6] + Long.bitCount(bitmap[dayOfYear >>> 6] & mask);
+        }
+
+        // Zero based day of the year of the business day at the given zero based position
+        private int select(int position) {
+            return businessDays[position];
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package de.mcstangl.projectplanner.service;
+
+// Caches read the generation before they query the database and keep the result only if it is still current.
+// A load that started before an invalidation might have read data of an uncommitted or outdated state and is dropped.
+// The owner guards every call with the same lock that guards its cached data
+class LoadGeneration {
+
+    private long generation;
+
+    long current() {
+        return generation;
+    }
+
+    void invalidate() {
+        generation++;
+    }
+
+    boolean isCurrent(long loadGeneration) {
+        return loadGeneration == generation;
+    }
+}
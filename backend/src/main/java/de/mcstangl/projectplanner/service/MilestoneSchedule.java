@@ -0,0 +1,274 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.model.MilestoneDependencyEntity;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Dependency graph of one project. Dates are kept as business days relative to an anchor,
+// so every calculation on the graph is plain int arithmetic
+public class MilestoneSchedule {
+
+    private final DateService dateService;
+    private final LocalDate anchor;
+
+    private final MilestoneProjection[] milestones;
+    private final Map<Long, Integer> indexById;
+    private final LocalDate[] dueDates;
+    private final int[] dueBusinessDays;
+
+    private final int[] successorOffsets;
+    private final int[] successors;
+    private final int[] successorLags;
+    private final int[] predecessorOffsets;
+    private final int[] predecessors;
+    private final int[] predecessorLags;
+
+    private final int[] topologicalOrder;
+    private final int[] topologicalPosition;
+
+    // Milestones without due date are not scheduled, dependencies on them are ignored
+    public MilestoneSchedule(List<MilestoneProjection> milestoneList, List<MilestoneDependencyEntity> dependencies, DateService dateService) {
+        this.dateService = dateService;
+        this.milestones = milestoneList.stream()
+                .filter(milestone -> milestone.dueDate() != null)
+                .toArray(MilestoneProjection[]::new);
+
+        int size = milestones.length;
+        indexById = new HashMap<>(size * 2);
+        LocalDate firstDueDate = null;
+        for (int i = 0; i < size; i++) {
+            indexById.put(milestones[i].id(), i);
+            if (firstDueDate == null || milestones[i].dueDate().isBefore(firstDueDate)) {
+                firstDueDate = milestones[i].dueDate();
+            }
+        }
+        // The anchor has to be a business day, otherwise counting back from it is off by one
+        anchor = firstDueDate == null ? null : dateService.addBusinessDays(firstDueDate, -1);
+
+        dueDates = new LocalDate[size];
+        dueBusinessDays = new int[size];
+        for (int i = 0; i < size; i++) {
+            dueDates[i] = milestones[i].dueDate();
+            dueBusinessDays[i] = toBusinessDay(dueDates[i]);
+        }
+
+        int[] edgePredecessors = new int[dependencies.size()];
+        int[] edgeSuccessors = new int[dependencies.size()];
+        int[] edgeLags = new int[dependencies.size()];
+        int edgeCount = 0;
+        for (MilestoneDependencyEntity dependency : dependencies) {
+            Integer predecessor = indexById.get(dependency.getPredecessorId());
+            Integer successor = indexById.get(dependency.getSuccessorId());
+            if (predecessor != null && successor != null) {
+                edgePredecessors[edgeCount] = predecessor;
+                edgeSuccessors[edgeCount] = successor;
+                edgeLags[edgeCount++] = dependency.getBusinessDays();
+            }
+        }
+
+        successorOffsets = new int[size + 1];
+        predecessorOffsets = new int[size + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            successorOffsets[edgePredecessors[edge] + 1]++;
+            predecessorOffsets[edgeSuccessors[edge] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            successorOffsets[i + 1] += successorOffsets[i];
+            predecessorOffsets[i + 1] += predecessorOffsets[i];
+        }
+
+        successors = new int[edgeCount];
+        successorLags = new int[edgeCount];
+        predecessors = new int[edgeCount];
+        predecessorLags = new int[edgeCount];
+        int[] successorFill = Arrays.copyOf(successorOffsets, size);
+        int[] predecessorFill = Arrays.copyOf(predecessorOffsets, size);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int predecessor = edgePredecessors[edge];
+            int successor = edgeSuccessors[edge];
+            successors[successorFill[predecessor]] = successor;
+            successorLags[successorFill[predecessor]++] = edgeLags[edge];
+            predecessors[predecessorFill[successor]] = predecessor;
+            predecessorLags[predecessorFill[successor]++] = edgeLags[edge];
+        }
+
+        topologicalOrder = sortTopologically();
+        topologicalPosition = new int[size];
+        for (int position = 0; position < size; position++) {
+            topologicalPosition[topologicalOrder[position]] = position;
+        }
+    }
+
+    private int[] sortTopologically() {
+        int size = milestones.length;
+        int[] inDegree = new int[size];
+        for (int i = 0; i < size; i++) {
+            inDegree[i] = predecessorOffsets[i + 1] - predecessorOffsets[i];
+        }
+
+        int[] order = new int[size];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            if (inDegree[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int current = order[head++];
+            for (int edge = successorOffsets[current]; edge < successorOffsets[current + 1]; edge++) {
+                if (--inDegree[successors[edge]] == 0) {
+                    order[tail++] = successors[edge];
+                }
+            }
+        }
+        if (tail < size) {
+            throw new IllegalStateException("Die Abhängigkeiten der Milestones enthalten einen Zyklus");
+        }
+        return order;
+    }
+
+    public List<MilestoneScheduleEntry> analyze() {
+        int size = milestones.length;
+        int[] earliest = new int[size];
+        for (int current : topologicalOrder) {
+            earliest[current] = predecessorOffsets[current] == predecessorOffsets[current + 1]
+                    ? dueBusinessDays[current]
+                    : requiredDueDate(current, earliest);
+        }
+
+        // Milestones at the end of a chain have to keep their due date, everything before is measured against them
+        int[] latest = new int[size];
+        for (int position = size - 1; position >= 0; position--) {
+            int current = topologicalOrder[position];
+            if (successorOffsets[current] == successorOffsets[current + 1]) {
+                latest[current] = dueBusinessDays[current];
+                continue;
+            }
+            int latestDate = Integer.MAX_VALUE;
+            for (int edge = successorOffsets[current]; edge < successorOffsets[current + 1]; edge++) {
+                latestDate = Math.min(latestDate, latest[successors[edge]] - successorLags[edge]);
+            }
+            latest[current] = latestDate;
+        }
+
+        List<MilestoneScheduleEntry> entries = new ArrayList<>(size);
+        for (int current : topologicalOrder) {
+            int slack = latest[current] - earliest[current];
+            entries.add(new MilestoneScheduleEntry(
+                    milestones[current].id(),
+                    milestones[current].title(),
+                    dueDates[current],
+                    toDate(earliest[current]),
+                    toDate(latest[current]),
+                    slack,
+                    slack <= 0));
+        }
+        return entries;
+    }
+
+    // Needs every dependency downstream of the successor, milestones without due date can still close a cycle
+    public static boolean wouldCreateCycle(List<MilestoneDependencyEntity> dependencies, Long predecessorId, Long successorId) {
+        Map<Long, List<Long>> successorsById = new HashMap<>();
+        for (MilestoneDependencyEntity dependency : dependencies) {
+            successorsById.computeIfAbsent(dependency.getPredecessorId(), id -> new ArrayList<>()).add(dependency.getSuccessorId());
+        }
+
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> stack = new ArrayDeque<>();
+        stack.push(successorId);
+        while (!stack.isEmpty()) {
+            Long current = stack.pop();
+            if (current.equals(predecessorId)) {
+                return true;
+            }
+            if (visited.add(current)) {
+                successorsById.getOrDefault(current, List.of()).forEach(stack::push);
+            }
+        }
+        return false;
+    }
+
+    // Moves the milestone and returns the new due dates of every milestone that had to move, including itself
+    public Map<Long, LocalDate> moveTo(Long milestoneId, LocalDate dueDate) {
+        Integer index = indexById.get(milestoneId);
+        if (index == null || dueDate == null) {
+            return Map.of();
+        }
+        Map<Long, LocalDate> changedDueDates = new LinkedHashMap<>();
+        if (!dueDate.equals(dueDates[index])) {
+            dueDates[index] = dueDate;
+            dueBusinessDays[index] = toBusinessDay(dueDate);
+            changedDueDates.put(milestoneId, dueDate);
+        }
+        propagate(index, false, changedDueDates);
+        return changedDueDates;
+    }
+
+    // Pushes the milestone behind its predecessors if a dependency requires it, then everything after it
+    public Map<Long, LocalDate> reschedule(Long milestoneId) {
+        Integer index = indexById.get(milestoneId);
+        if (index == null) {
+            return Map.of();
+        }
+        Map<Long, LocalDate> changedDueDates = new LinkedHashMap<>();
+        propagate(index, true, changedDueDates);
+        return changedDueDates;
+    }
+
+    // Only walks the milestones downstream of the start, in topological order so every milestone is
+    // visited once after all of its predecessors. Milestones are only pushed back, never pulled forward,
+    // and finished milestones stay where they are
+    private void propagate(int start, boolean includeStart, Map<Long, LocalDate> changedDueDates) {
+        boolean[] queued = new boolean[milestones.length];
+        PriorityQueue<Integer> queue = new PriorityQueue<>();
+        if (includeStart) {
+            queue.add(topologicalPosition[start]);
+            queued[start] = true;
+        } else {
+            enqueueSuccessors(start, queue, queued);
+        }
+
+        while (!queue.isEmpty()) {
+            int current = topologicalOrder[queue.poll()];
+            if (milestones[current].dateFinished() != null) {
+                continue;
+            }
+            int requiredDueDate = requiredDueDate(current, dueBusinessDays);
+            if (requiredDueDate > dueBusinessDays[current]) {
+                dueBusinessDays[current] = requiredDueDate;
+                dueDates[current] = toDate(requiredDueDate);
+                changedDueDates.put(milestones[current].id(), dueDates[current]);
+                enqueueSuccessors(current, queue, queued);
+            }
+        }
+    }
+
+    private void enqueueSuccessors(int milestone, PriorityQueue<Integer> queue, boolean[] queued) {
+        for (int edge = successorOffsets[milestone]; edge < successorOffsets[milestone + 1]; edge++) {
+            int successor = successors[edge];
+            if (!queued[successor]) {
+                queued[successor] = true;
+                queue.add(topologicalPosition[successor]);
+            }
+        }
+    }
+
+    private int requiredDueDate(int milestone, int[] dates) {
+        int requiredDueDate = Integer.MIN_VALUE;
+        for (int edge = predecessorOffsets[milestone]; edge < predecessorOffsets[milestone + 1]; edge++) {
+            requiredDueDate = Math.max(requiredDueDate, dates[predecessors[edge]] + predecessorLags[edge]);
+        }
+        return requiredDueDate;
+    }
+
+    private int toBusinessDay(LocalDate date) {
+        return dateService.businessDaysBetween(anchor, date);
+    }
+
+    private LocalDate toDate(int businessDay) {
+        return dateService.addBusinessDays(anchor, businessDay);
+    }
+}
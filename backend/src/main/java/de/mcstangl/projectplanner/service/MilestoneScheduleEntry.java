@@ -0,0 +1,6 @@
+package de.mcstangl.projectplanner.service;
+
+import java.time.LocalDate;
+
+public record MilestoneScheduleEntry(Long milestoneId, String title, LocalDate dueDate, LocalDate earliestDate, LocalDate latestDate, int slack, boolean critical) {
+}
@@ -1,34 +1,62 @@
 package de.mcstangl.projectplanner.service;
 
+import de.mcstangl.projectplanner.enums.ChangeType;
 import de.mcstangl.projectplanner.enums.DefaultMilestone;
+import de.mcstangl.projectplanner.enums.ProjectStatus;
+import de.mcstangl.projectplanner.enums.TombstoneType;
+import de.mcstangl.projectplanner.model.MilestoneDependencyEntity;
 import de.mcstangl.projectplanner.model.MilestoneEntity;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
 import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.model.TombstoneEntity;
+import de.mcstangl.projectplanner.repository.MilestoneDependencyRepository;
 import de.mcstangl.projectplanner.repository.MilestoneRepository;
 import de.mcstangl.projectplanner.repository.ProjectRepository;
+import de.mcstangl.projectplanner.repository.TombstoneRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
 import java.sql.Date;
+import java.time.LocalDate;
 import java.util.*;
 
+import static org.springframework.util.Assert.isTrue;
+
 @Service
 @Slf4j
 public class MilestoneService {
 
+    private static final int MAX_UPCOMING_BUSINESS_DAYS = 260;
+    private static final int MAX_RESCHEDULE_BUSINESS_DAYS = 260;
+    private static final String UNIQUE_TITLE_CONSTRAINT = "uk_milestone_project_title";
+
     private final MilestoneRepository milestoneRepository;
     private final ProjectRepository projectRepository;
     private final DateService dateService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ChangeSequenceService changeSequenceService;
+    private final TombstoneRepository tombstoneRepository;
+    private final MilestoneDependencyRepository milestoneDependencyRepository;
 
     @Autowired
-    public MilestoneService(MilestoneRepository milestoneRepository, ProjectRepository projectRepository, DateService dateService) {
+    public MilestoneService(MilestoneRepository milestoneRepository, ProjectRepository projectRepository, DateService dateService, ApplicationEventPublisher applicationEventPublisher, ChangeSequenceService changeSequenceService, TombstoneRepository tombstoneRepository, MilestoneDependencyRepository milestoneDependencyRepository) {
         this.milestoneRepository = milestoneRepository;
         this.projectRepository = projectRepository;
         this.dateService = dateService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.changeSequenceService = changeSequenceService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.milestoneDependencyRepository = milestoneDependencyRepository;
     }
 
+    @Transactional
     public MilestoneEntity createNewMilestone(MilestoneEntity newMilestone) {
         if (newMilestone.getId() != null) {
             log.debug("Create milestone failed. New milestone already had an ID");
@@ -36,48 +64,249 @@ public class MilestoneService {
         }
         checkForExistingMilestoneForProject(newMilestone);
         String logMessage = String.format("New milestone %s for project %s created.", newMilestone.getTitle(), newMilestone.getProjectEntity().getTitle());
+        newMilestone.setChangeSequence(changeSequenceService.next());
+        MilestoneEntity savedMilestone = saveMilestone(newMilestone);
+        updateNextDueDate(newMilestone.getProjectEntity().getId());
+        publishChange(ChangeType.MILESTONE_CREATED, newMilestone.getProjectEntity().getTitle(), newMilestone.getId());
         log.info(logMessage);
-        return milestoneRepository.save(newMilestone);
+        return savedMilestone;
     }
 
-    public List<MilestoneEntity> findAll() {
-        log.info("Fetched all milestones from DB");
-        return milestoneRepository.findAll();
+    public List<MilestoneEntity> findAllChangedSince(long since) {
+        log.info(String.format("Fetched all milestones changed since version %s", since));
+        return milestoneRepository.findAllByChangeSequenceGreaterThanOrderByChangeSequenceAsc(since);
     }
 
-    public List<MilestoneEntity> getAllSortedByDueDate() {
-        List<MilestoneEntity> milestoneEntityList = findAll().stream()
-                .filter(milestoneEntity -> milestoneEntity.getDateFinished() == null).toList();
-        log.info("Sorted all milestones by due date");
-        return sortMilestonesByDueDate(milestoneEntityList);
+    public List<MilestoneEntity> findUpcoming(int businessDays, String loginName) {
+        isTrue(businessDays >= 0 && businessDays <= MAX_UPCOMING_BUSINESS_DAYS,
+                String.format("Der Zeitraum muss zwischen 0 und %s Arbeitstagen liegen", MAX_UPCOMING_BUSINESS_DAYS));
+
+        LocalDate today = LocalDate.now();
+        Date from = Date.valueOf(today);
+        Date to = Date.valueOf(dateService.addBusinessDays(today, businessDays));
+
+        if (loginName == null || loginName.isBlank()) {
+            log.info(String.format("Fetched open milestones due within %s business days", businessDays));
+            return milestoneRepository.findAllByDateFinishedIsNullAndDueDateBetweenOrderByDueDateAscIdAsc(from, to);
+        }
+        log.info(String.format("Fetched open milestones of %s due within %s business days", loginName, businessDays));
+        return milestoneRepository.findAllOpenByDueDateBetweenAndStaffMember(from, to, loginName);
     }
 
-    public List<MilestoneEntity> findAllByProjectTitle(String projectTitle) {
-        ProjectEntity projectEntity = projectRepository
-                .findByTitle(projectTitle)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Das Projekt mit dem Titel %s konnte nicht gefunden werden", projectTitle)));
+    public List<MilestoneProjection> findAllByProjectTitle(String projectTitle) {
+        List<MilestoneProjection> milestones = milestoneRepository.findAllProjectedByProjectTitle(projectTitle);
+        if (milestones.isEmpty() && !projectRepository.existsByTitle(projectTitle)) {
+            throw new EntityNotFoundException(String.format("Das Projekt mit dem Titel %s konnte nicht gefunden werden", projectTitle));
+        }
         log.info(String.format("Fetched all milestones for project %s", projectTitle));
-        return milestoneRepository.findAllByProjectEntity(projectEntity);
+        return milestones;
     }
 
+    public List<MilestoneProjection> findAllProjectedSortedByDueDate(ProjectStatus projectStatus) {
+        return milestoneRepository.findAllProjectedByProjectStatusSortedByDueDate(projectStatus);
+    }
+
+    @Transactional
     public MilestoneEntity updateMilestone(MilestoneEntity milestoneUpdateData) {
 
         checkForExistingMilestoneForProject(milestoneUpdateData);
+        milestoneUpdateData.setChangeSequence(changeSequenceService.next());
 
+        MilestoneEntity updatedMilestone = saveMilestone(milestoneUpdateData);
+        publishChange(ChangeType.MILESTONE_UPDATED, milestoneUpdateData.getProjectEntity().getTitle(), milestoneUpdateData.getId());
         log.info(String.format("Updated milestone %s for project %s", milestoneUpdateData.getTitle(), milestoneUpdateData.getProjectEntity().getTitle()));
-        return milestoneRepository.save(milestoneUpdateData);
+        if (milestoneUpdateData.getDueDate() != null) {
+            String projectTitle = milestoneUpdateData.getProjectEntity().getTitle();
+            MilestoneSchedule schedule = loadDownstreamSchedule(milestoneUpdateData.getId(),
+                    milestoneDependencyRepository.findAllLeadingIntoDownstreamOf(milestoneUpdateData.getId()));
+            saveDueDates(schedule.moveTo(milestoneUpdateData.getId(), milestoneUpdateData.getDueDate().toLocalDate()), projectTitle);
+        }
+        updateNextDueDate(milestoneUpdateData.getProjectEntity().getId());
+        return updatedMilestone;
+    }
+
+    // Shifts the milestone and every open milestone of the project that is due on the same day or later
+    @Transactional
+    public List<MilestoneProjection> reschedule(Long id, int businessDays) {
+        isTrue(businessDays != 0 && Math.abs(businessDays) <= MAX_RESCHEDULE_BUSINESS_DAYS,
+                String.format("Ein Milestone kann um 1 bis %s Arbeitstage verschoben werden", MAX_RESCHEDULE_BUSINESS_DAYS));
+
+        List<MilestoneProjection> milestonesOfProject = milestoneRepository.findAllProjectedOfSameProject(id);
+        MilestoneProjection milestoneToMove = milestonesOfProject.stream()
+                .filter(milestone -> milestone.id().equals(id))
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Milestone mit ID %s konnte nicht gefunden werden", id)));
+        isTrue(milestoneToMove.dueDate() != null, "Ein Milestone ohne Fälligkeitsdatum kann nicht verschoben werden");
+
+        List<MilestoneProjection> movedMilestones = new ArrayList<>(milestonesOfProject.size());
+        for (MilestoneProjection milestone : milestonesOfProject) {
+            boolean isLaterOpenMilestone = milestone.dateFinished() == null
+                    && milestone.dueDate() != null
+                    && !milestone.dueDate().isBefore(milestoneToMove.dueDate());
+            if (milestone == milestoneToMove || isLaterOpenMilestone) {
+                movedMilestones.add(new MilestoneProjection(milestone.id(), milestone.projectId(), milestone.projectTitle(), milestone.title(),
+                        dateService.addBusinessDays(milestone.dueDate(), businessDays), milestone.dateFinished(), milestone.version()));
+            }
+        }
+
+        int[] updateCounts = milestoneRepository.updateDueDates(movedMilestones, changeSequenceService.next());
+        List<MilestoneProjection> updatedMilestones = new ArrayList<>(movedMilestones.size());
+        for (int i = 0; i < movedMilestones.size(); i++) {
+            MilestoneProjection milestone = movedMilestones.get(i);
+            if (updateCounts[i] == 0) {
+                throw new ObjectOptimisticLockingFailureException(MilestoneEntity.class, milestone.id());
+            }
+            updatedMilestones.add(new MilestoneProjection(milestone.id(), milestone.projectId(), milestone.projectTitle(), milestone.title(),
+                    milestone.dueDate(), milestone.dateFinished(), milestone.version() + 1));
+            publishChange(ChangeType.MILESTONE_UPDATED, milestone.projectTitle(), milestone.id());
+        }
+        updateNextDueDate(milestoneToMove.projectId());
+        log.info(String.format("Moved %s milestones of project %s by %s business days", updatedMilestones.size(), milestoneToMove.projectTitle(), businessDays));
+        return updatedMilestones;
+    }
+
+    public List<MilestoneScheduleEntry> getSchedule(String projectTitle) {
+        List<MilestoneScheduleEntry> schedule = loadSchedule(findAllByProjectTitle(projectTitle)).analyze();
+        log.info(String.format("Calculated schedule for project %s", projectTitle));
+        return schedule;
+    }
+
+    public List<MilestoneDependencyEntity> findDependenciesByProjectTitle(String projectTitle) {
+        ProjectEntity projectEntity = projectRepository.findByTitle(projectTitle)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Das Projekt mit dem Titel %s konnte nicht gefunden werden", projectTitle)));
+        log.info(String.format("Fetched all milestone dependencies for project %s", projectTitle));
+        return milestoneDependencyRepository.findAllByProjectId(projectEntity.getId());
+    }
+
+    @Transactional
+    public MilestoneDependencyEntity addDependency(MilestoneDependencyEntity newDependency) {
+        isTrue(newDependency.getBusinessDays() >= 0, "Der Abstand zwischen zwei Milestones darf nicht negativ sein");
+        MilestoneEntity predecessor = findMilestoneById(newDependency.getPredecessorId());
+        MilestoneEntity successor = findMilestoneById(newDependency.getSuccessorId());
+        ProjectEntity projectEntity = successor.getProjectEntity();
+        isTrue(projectEntity.getId().equals(predecessor.getProjectEntity().getId()), "Abhängigkeiten sind nur zwischen Milestones desselben Projekts möglich");
+
+        if (milestoneDependencyRepository.existsByPredecessorIdAndSuccessorId(predecessor.getId(), successor.getId())) {
+            throw new EntityExistsException("Diese Abhängigkeit existiert bereits");
+        }
+        List<MilestoneDependencyEntity> dependencies = new ArrayList<>(milestoneDependencyRepository.findAllLeadingIntoDownstreamOf(successor.getId()));
+        isTrue(!MilestoneSchedule.wouldCreateCycle(dependencies, predecessor.getId(), successor.getId()), "Die Abhängigkeit würde einen Zyklus erzeugen");
+
+        newDependency.setProjectId(projectEntity.getId());
+        MilestoneDependencyEntity savedDependency = milestoneDependencyRepository.save(newDependency);
+        dependencies.add(newDependency);
+
+        MilestoneSchedule schedule = loadDownstreamSchedule(successor.getId(), dependencies);
+        saveDueDates(schedule.reschedule(successor.getId()), projectEntity.getTitle());
+        updateNextDueDate(projectEntity.getId());
+        publishChange(ChangeType.MILESTONE_UPDATED, projectEntity.getTitle(), successor.getId());
+        log.info(String.format("Milestone %s in project %s now depends on milestone %s", successor.getTitle(), projectEntity.getTitle(), predecessor.getTitle()));
+        return savedDependency;
+    }
+
+    // Nothing moves back when a dependency is removed, but the slack of the milestones before the successor changes
+    @Transactional
+    public MilestoneDependencyEntity removeDependency(Long id) {
+        MilestoneDependencyEntity dependency = milestoneDependencyRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Abhängigkeit mit ID %s konnte nicht gefunden werden", id)));
+        MilestoneEntity successor = findMilestoneById(dependency.getSuccessorId());
+        milestoneDependencyRepository.delete(dependency);
+        publishChange(ChangeType.MILESTONE_UPDATED, successor.getProjectEntity().getTitle(), successor.getId());
+        log.info(String.format("Milestone dependency %s removed", id));
+        return dependency;
+    }
+
+    // Relies on getDefaultMilestones returning the milestones in the order of DefaultMilestone
+    public void createDefaultDependencies(List<ProjectEntity> projectEntities) {
+        DefaultMilestone[] defaultMilestones = DefaultMilestone.values();
+        List<MilestoneDependencyEntity> dependencies = new ArrayList<>(projectEntities.size() * (defaultMilestones.length - 1));
+        for (ProjectEntity projectEntity : projectEntities) {
+            List<MilestoneEntity> milestones = projectEntity.getMilestones();
+            for (int i = 1; i < milestones.size() && i < defaultMilestones.length; i++) {
+                dependencies.add(MilestoneDependencyEntity.builder()
+                        .projectId(projectEntity.getId())
+                        .predecessorId(milestones.get(i - 1).getId())
+                        .successorId(milestones.get(i).getId())
+                        .businessDays(defaultMilestones[i].getDueTime())
+                        .build());
+            }
+        }
+        milestoneDependencyRepository.saveAll(dependencies);
+    }
+
+    private MilestoneSchedule loadSchedule(List<MilestoneProjection> milestones) {
+        if (milestones.isEmpty()) {
+            return new MilestoneSchedule(milestones, List.of(), dateService);
+        }
+        return new MilestoneSchedule(milestones, milestoneDependencyRepository.findAllByProjectId(milestones.get(0).projectId()), dateService);
+    }
+
+    // A change can only move milestones downstream, so only those and their direct predecessors are loaded
+    private MilestoneSchedule loadDownstreamSchedule(Long milestoneId, List<MilestoneDependencyEntity> dependencies) {
+        if (dependencies.isEmpty()) {
+            return new MilestoneSchedule(List.of(), List.of(), dateService);
+        }
+        Set<Long> milestoneIds = new HashSet<>();
+        milestoneIds.add(milestoneId);
+        for (MilestoneDependencyEntity dependency : dependencies) {
+            milestoneIds.add(dependency.getPredecessorId());
+            milestoneIds.add(dependency.getSuccessorId());
+        }
+        return new MilestoneSchedule(milestoneRepository.findAllProjectedByIdIn(milestoneIds), dependencies, dateService);
+    }
+
+    private void saveDueDates(Map<Long, LocalDate> dueDates, String projectTitle) {
+        if (dueDates.isEmpty()) {
+            return;
+        }
+        long changeSequence = changeSequenceService.next();
+        List<MilestoneEntity> milestones = milestoneRepository.findAllById(dueDates.keySet());
+        for (MilestoneEntity milestone : milestones) {
+            milestone.setDueDate(Date.valueOf(dueDates.get(milestone.getId())));
+            milestone.setChangeSequence(changeSequence);
+        }
+        milestoneRepository.saveAll(milestones);
+        milestones.forEach(milestone -> publishChange(ChangeType.MILESTONE_UPDATED, projectTitle, milestone.getId()));
+        log.info(String.format("Moved %s dependent milestones in project %s", milestones.size(), projectTitle));
+    }
+
+    private MilestoneEntity findMilestoneById(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Eine Abhängigkeit braucht zwei Milestones");
+        }
+        return milestoneRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(String.format("Milestone mit ID %s konnte nicht gefunden werden", id)));
     }
 
     private void checkForExistingMilestoneForProject(MilestoneEntity newMilestone) {
-        List<MilestoneEntity> fetchedMilestonesForProject = findAllByProjectTitle(newMilestone.getProjectEntity().getTitle());
-        for (MilestoneEntity fetchedMilestone : fetchedMilestonesForProject) {
-            if (fetchedMilestone.getTitle().equals(newMilestone.getTitle()) && !fetchedMilestone.getId().equals(newMilestone.getId()) ) {
-                log.info(String.format("Check failed: Project %s already has a milestone %s", newMilestone.getProjectEntity().getTitle(), newMilestone.getTitle()));
-                throw new EntityExistsException(String.format("Dieses Projekt hat bereits einen Milestone %s", newMilestone.getTitle()));
+        if (existsMilestoneWithSameTitle(newMilestone)) {
+            log.info(String.format("Check failed: Project %s already has a milestone %s", newMilestone.getProjectEntity().getTitle(), newMilestone.getTitle()));
+            throw new EntityExistsException(String.format("Dieses Projekt hat bereits einen Milestone %s", newMilestone.getTitle()));
+        }
+    }
+
+    private boolean existsMilestoneWithSameTitle(MilestoneEntity milestoneEntity) {
+        if (milestoneEntity.getId() == null) {
+            return milestoneRepository.existsByProjectEntityAndTitle(milestoneEntity.getProjectEntity(), milestoneEntity.getTitle());
+        }
+        return milestoneRepository.existsByProjectEntityAndTitleAndIdNot(milestoneEntity.getProjectEntity(), milestoneEntity.getTitle(), milestoneEntity.getId());
+    }
+
+    // The unique constraint on project and title catches milestones created concurrently after the check. The
+    // transaction can not run another query after the failed flush, so the constraint is read from the exception
+    private MilestoneEntity saveMilestone(MilestoneEntity milestoneEntity) {
+        try {
+            return milestoneRepository.saveAndFlush(milestoneEntity);
+        } catch (DataIntegrityViolationException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.toLowerCase().contains(UNIQUE_TITLE_CONSTRAINT)) {
+                log.info(String.format("Save failed: Project %s already has a milestone %s", milestoneEntity.getProjectEntity().getTitle(), milestoneEntity.getTitle()));
+                throw new EntityExistsException(String.format("Dieses Projekt hat bereits einen Milestone %s", milestoneEntity.getTitle()));
             }
+            throw e;
         }
     }
 
+    @Transactional
     public MilestoneEntity deleteById(Long id) {
 
         MilestoneEntity milestoneEntity = milestoneRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(String.format("Milestone mit ID %s konnte nicht gefunden werden", id)));
@@ -93,12 +322,33 @@ public class MilestoneService {
 
         fetchedProjectEntity.removeMilestone(milestoneEntity);
         projectRepository.save(fetchedProjectEntity);
+        updateNextDueDate(fetchedProjectEntity.getId());
+        milestoneDependencyRepository.deleteAllOfMilestone(id);
+        tombstoneRepository.save(TombstoneEntity.builder()
+                .changeSequence(changeSequenceService.next())
+                .type(TombstoneType.MILESTONE)
+                .projectTitle(fetchedProjectEntity.getTitle())
+                .milestoneId(id)
+                .build());
+        publishChange(ChangeType.MILESTONE_DELETED, fetchedProjectEntity.getTitle(), id);
         log.info(String.format("Milestone %s in project %s deleted", milestoneEntity.getTitle(), fetchedProjectEntity.getTitle()));
         return milestoneEntity;
 
 
     }
 
+    private void updateNextDueDate(Long projectId) {
+        projectRepository.updateNextDueDates(List.of(projectId));
+    }
+
+    private void publishChange(ChangeType changeType, String projectTitle, Long milestoneId) {
+        applicationEventPublisher.publishEvent(BoardChangedEvent.builder()
+                .type(changeType)
+                .projectTitle(projectTitle)
+                .milestoneId(milestoneId)
+                .build());
+    }
+
     public List<MilestoneEntity> getDefaultMilestones(Date dateOfReceipt, ProjectEntity projectEntity) {
         Date firstDate = dateService.addBusinessDays(dateOfReceipt, DefaultMilestone.TEXTERSTELLUNG.getDueTime());
         MilestoneEntity firstMilestone = MilestoneEntity.builder()
@@ -170,9 +420,5 @@ public class MilestoneService {
         return defaultMilestones;
     }
 
-    public List<MilestoneEntity> sortMilestonesByDueDate(List<MilestoneEntity> milestoneEntityList) {
-        return milestoneEntityList.stream().sorted(Comparator.comparing(MilestoneEntity::getDueDate)).toList();
-    }
-
 
 }
@@ -1,25 +1,47 @@
 package de.mcstangl.projectplanner.service;
 
+import de.mcstangl.projectplanner.config.PasswordHashingConfig;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 @Service
 public class PasswordService {
 
     private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor passwordHashingExecutor;
 
     @Autowired
-    public PasswordService(PasswordEncoder passwordEncoder) {
+    public PasswordService(PasswordEncoder passwordEncoder, PasswordHashingConfig passwordHashingConfig) {
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = new ThreadPoolTaskExecutor();
+        this.passwordHashingExecutor.setCorePoolSize(passwordHashingConfig.getThreads());
+        this.passwordHashingExecutor.setMaxPoolSize(passwordHashingConfig.getThreads());
+        this.passwordHashingExecutor.setQueueCapacity(passwordHashingConfig.getQueueCapacity());
+        this.passwordHashingExecutor.setThreadNamePrefix("password-hashing-");
+        this.passwordHashingExecutor.initialize();
     }
 
     public String getRandomPassword(){
         return RandomStringUtils.randomAlphanumeric(12);
     }
 
-    public String getHashedPassword(String password){
-        return passwordEncoder.encode(password);
+    public CompletableFuture<String> hashPassword(String password){
+        return supplyAsync(() -> passwordEncoder.encode(password));
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> passwordTask) {
+        return CompletableFuture.supplyAsync(passwordTask, passwordHashingExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        passwordHashingExecutor.shutdown();
     }
 }
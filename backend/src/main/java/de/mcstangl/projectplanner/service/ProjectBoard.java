@@ -0,0 +1,32 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.model.MilestoneProjection;
+import de.mcstangl.projectplanner.model.ProjectProjection;
+import de.mcstangl.projectplanner.model.StaffProjection;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+public class ProjectBoard {
+
+    @Getter
+    private final List<ProjectProjection> projects;
+    private final Map<Long, List<StaffProjection>> writersByProjectId;
+    private final Map<Long, List<StaffProjection>> motionDesignersByProjectId;
+    private final Map<Long, List<MilestoneProjection>> milestonesByProjectId;
+
+    public List<StaffProjection> getWriters(Long projectId) {
+        return writersByProjectId.getOrDefault(projectId, List.of());
+    }
+
+    public List<StaffProjection> getMotionDesigners(Long projectId) {
+        return motionDesignersByProjectId.getOrDefault(projectId, List.of());
+    }
+
+    public List<MilestoneProjection> getMilestones(Long projectId) {
+        return milestonesByProjectId.getOrDefault(projectId, List.of());
+    }
+}
@@ -0,0 +1,194 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.config.ProjectCacheConfig;
+import de.mcstangl.projectplanner.enums.ChangeType;
+import de.mcstangl.projectplanner.model.ProjectEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Holds detached project aggregates, callers must not modify the cached entities
+@Slf4j
+@Component
+public class ProjectCache {
+
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final Map<String, CachedProject> projectsByTitle;
+    private final Map<Long, String> titlesById = new HashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final LoadGeneration loadGeneration = new LoadGeneration();
+
+    @Autowired
+    public ProjectCache(ProjectCacheConfig projectCacheConfig) {
+        this.maxSize = projectCacheConfig.getMaxSize();
+        this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(projectCacheConfig.getTimeToLiveSeconds());
+        this.projectsByTitle = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedProject> eldest) {
+                if (size() > maxSize) {
+                    titlesById.remove(eldest.getValue().getProject().getId());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<ProjectEntity> findByTitle(String title, Function<String, Optional<ProjectEntity>> loader) {
+        long generation;
+        synchronized (projectsByTitle) {
+            CachedProject cachedProject = getIfFresh(title);
+            if (cachedProject != null) {
+                hitCount.incrementAndGet();
+                return Optional.of(cachedProject.getProject());
+            }
+            generation = loadGeneration.current();
+        }
+        missCount.incrementAndGet();
+        Optional<ProjectEntity> loadedProject = loader.apply(title);
+        loadedProject.ifPresent(project -> put(List.of(project), generation));
+        return loadedProject;
+    }
+
+    public Map<Long, ProjectEntity> findAllById(Collection<Long> ids, Function<Collection<Long>, List<ProjectEntity>> loader) {
+        Map<Long, ProjectEntity> projectsById = new HashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        long generation;
+        synchronized (projectsByTitle) {
+            for (Long id : ids) {
+                String title = titlesById.get(id);
+                CachedProject cachedProject = title == null ? null : getIfFresh(title);
+                if (cachedProject != null) {
+                    projectsById.put(id, cachedProject.getProject());
+                } else {
+                    missingIds.add(id);
+                }
+            }
+            generation = loadGeneration.current();
+        }
+        hitCount.addAndGet(projectsById.size());
+        if (missingIds.isEmpty()) {
+            return projectsById;
+        }
+        missCount.addAndGet(missingIds.size());
+        List<ProjectEntity> loadedProjects = loader.apply(missingIds);
+        for (ProjectEntity project : loadedProjects) {
+            projectsById.put(project.getId(), project);
+        }
+        put(loadedProjects, generation);
+        return projectsById;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent boardChangedEvent) {
+        if (boardChangedEvent.getType() == ChangeType.USER_UPDATED) {
+            invalidateAll();
+            return;
+        }
+        invalidate(boardChangedEvent.getProjectTitle());
+        if (boardChangedEvent.getPreviousProjectTitle() != null) {
+            invalidate(boardChangedEvent.getPreviousProjectTitle());
+        }
+    }
+
+    public void invalidate(String title) {
+        synchronized (projectsByTitle) {
+            loadGeneration.invalidate();
+            remove(title);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (projectsByTitle) {
+            loadGeneration.invalidate();
+            projectsByTitle.clear();
+            titlesById.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (projectsByTitle) {
+            return projectsByTitle.size();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${project-cache.statisticsIntervalMillis:600000}", initialDelayString = "${project-cache.statisticsIntervalMillis:600000}")
+    public void logStatistics() {
+        log.info(String.format("Project cache: %s hits, %s misses, %s entries", getHitCount(), getMissCount(), size()));
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private void put(List<ProjectEntity> projects, long generation) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long expiresAt = System.nanoTime() + timeToLiveNanos;
+        synchronized (projectsByTitle) {
+            if (!loadGeneration.isCurrent(generation)) {
+                return;
+            }
+            for (ProjectEntity project : projects) {
+                remove(titlesById.get(project.getId()));
+                projectsByTitle.put(project.getTitle(), new CachedProject(project, expiresAt));
+                titlesById.put(project.getId(), project.getTitle());
+            }
+        }
+    }
+
+    private CachedProject getIfFresh(String title) {
+        CachedProject cachedProject = projectsByTitle.get(title);
+        if (cachedProject == null) {
+            return null;
+        }
+        if (cachedProject.getExpiresAt() - System.nanoTime() <= 0) {
+            remove(title);
+            return null;
+        }
+        return cachedProject;
+    }
+
+    private void remove(String title) {
+        if (title == null) {
+            return;
+        }
+        CachedProject removedProject = projectsByTitle.remove(title);
+        if (removedProject != null) {
+            titlesById.remove(removedProject.getProject().getId());
+        }
+    }
+
+    private static class CachedProject {
+
+        private final ProjectEntity project;
+        private final long expiresAt;
+
+        private CachedProject(ProjectEntity project, long expiresAt) {
+            this.project = project;
+            this.expiresAt = expiresAt;
+        }
+
+        private ProjectEntity getProject() {
+            return project;
+        }
+
+        private long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.model.ProjectEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProjectCreationResult {
+
+    private final ProjectEntity projectEntity;
+    private final String errorMessage;
+
+    public static ProjectCreationResult created(ProjectEntity projectEntity) {
+        return new ProjectCreationResult(projectEntity, null);
+    }
+
+    public static ProjectCreationResult failed(ProjectEntity projectEntity, String errorMessage) {
+        return new ProjectCreationResult(projectEntity, errorMessage);
+    }
+
+    public boolean isCreated() {
+        return errorMessage == null;
+    }
+}
@@ -1,54 +1,86 @@
 package de.mcstangl.projectplanner.service;
 
+import de.mcstangl.projectplanner.enums.ChangeType;
 import de.mcstangl.projectplanner.enums.ProjectStatus;
+import de.mcstangl.projectplanner.enums.TombstoneType;
 import de.mcstangl.projectplanner.model.MilestoneEntity;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
 import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.model.ProjectProjection;
+import de.mcstangl.projectplanner.model.StaffProjection;
+import de.mcstangl.projectplanner.model.TombstoneEntity;
 import de.mcstangl.projectplanner.model.UserEntity;
 import de.mcstangl.projectplanner.repository.ProjectRepository;
+import de.mcstangl.projectplanner.repository.TombstoneRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.springframework.util.Assert.hasText;
+import static org.springframework.util.Assert.isTrue;
 
 
 @Service
 @Slf4j
 public class ProjectService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final int MAX_BULK_SIZE = 1000;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
     private final ProjectRepository projectRepository;
     private final UserService userService;
     private final MilestoneService milestoneService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ChangeSequenceService changeSequenceService;
+    private final TombstoneRepository tombstoneRepository;
+    private final ProjectCache projectCache;
+    private final CapacityIndex capacityIndex;
 
     @Autowired
-    public ProjectService(ProjectRepository projectRepository, UserService userService, MilestoneService milestoneService) {
+    public ProjectService(ProjectRepository projectRepository, UserService userService, MilestoneService milestoneService, ApplicationEventPublisher applicationEventPublisher, ChangeSequenceService changeSequenceService, TombstoneRepository tombstoneRepository, ProjectCache projectCache, CapacityIndex capacityIndex) {
         this.projectRepository = projectRepository;
         this.userService = userService;
         this.milestoneService = milestoneService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.changeSequenceService = changeSequenceService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.projectCache = projectCache;
+        this.capacityIndex = capacityIndex;
     }
 
+    // The milestones are sorted once when the project is loaded, cached projects are never modified afterwards
     public Optional<ProjectEntity> findByTitle(String title) {
 
-        Optional<ProjectEntity> fetchedProjectEntityOpt = projectRepository.findByTitle(title);
+        Optional<ProjectEntity> fetchedProjectEntityOpt = projectCache.findByTitle(title,
+                titleToLoad -> projectRepository.findByTitle(titleToLoad).map(this::sortProjectMilestones));
         if (fetchedProjectEntityOpt.isPresent()) {
             log.info(String.format("Fetched project %s", title));
-            ProjectEntity fetchedProjectEntity = fetchedProjectEntityOpt.get();
-            if (fetchedProjectEntity.getMilestones() == null) {
-                return Optional.of(fetchedProjectEntity);
-            }
-
-            sortProjectMilestones(fetchedProjectEntity);
-            return Optional.of(fetchedProjectEntity);
         }
+        return fetchedProjectEntityOpt;
+    }
 
-        return Optional.empty();
+    // For callers that attach the project to other entities, cached projects are shared between requests
+    public Optional<ProjectEntity> loadByTitle(String title) {
+        return projectRepository.findByTitle(title);
     }
 
 
+    @Transactional
     public ProjectEntity createNewProject(ProjectEntity projectEntity) {
 
         hasText(projectEntity.getCustomer(), "Kundenname darf nicht leer sein");
@@ -61,91 +93,309 @@ public class ProjectService {
         List<MilestoneEntity> defaultMilestones = milestoneService.getDefaultMilestones(projectEntity.getDateOfReceipt(), projectEntity);
         projectEntity.setMilestones(defaultMilestones);
         projectEntity.setStatus(ProjectStatus.OPEN);
+        setChangeSequence(projectEntity, changeSequenceService.next());
+        setNextDueDate(projectEntity);
+        ProjectEntity savedProjectEntity = projectRepository.save(projectEntity);
+        milestoneService.createDefaultDependencies(List.of(projectEntity));
+        publishChange(ChangeType.PROJECT_CREATED, projectEntity.getTitle(), null);
         log.info(String.format("Project %s created", projectEntity.getTitle()));
-        return projectRepository.save(projectEntity);
+        return savedProjectEntity;
     }
 
+    // Items that fail validation are reported per item, everything that passes is stored in one transaction
+    @Transactional
+    public List<ProjectCreationResult> createNewProjects(List<ProjectEntity> projectEntities) {
+
+        isTrue(projectEntities.size() <= MAX_BULK_SIZE, String.format("Es können höchstens %s Projekte auf einmal angelegt werden", MAX_BULK_SIZE));
+
+        ProjectCreationResult[] results = new ProjectCreationResult[projectEntities.size()];
+        Set<String> titles = new HashSet<>();
+        for (int i = 0; i < projectEntities.size(); i++) {
+            ProjectEntity projectEntity = projectEntities.get(i);
+            try {
+                hasText(projectEntity.getCustomer(), "Kundenname darf nicht leer sein");
+                hasText(projectEntity.getTitle(), "Projekttitel darf nicht leer sein");
+                projectEntity.setTitle(removeInvalidCharsFromTitle(projectEntity.getTitle()));
+                titles.add(projectEntity.getTitle());
+            } catch (IllegalArgumentException e) {
+                results[i] = ProjectCreationResult.failed(projectEntity, e.getMessage());
+            }
+        }
 
-    public List<ProjectEntity> findAll() {
-        List<ProjectEntity> sortedProjectsWithMilestones = getAllProjectsSortedByMilestoneDueDate();
-        List<ProjectEntity> allProjects = projectRepository.findAll();
-
-        List<ProjectEntity> allProjectsSorted = new LinkedList<>(sortedProjectsWithMilestones);
+        Set<String> existingTitles = titles.isEmpty() ? Set.of() : projectRepository.findTitlesIn(titles);
+        Set<String> titlesInRequest = new HashSet<>();
+        Map<String, List<LocalDate>> unsavedDueDatesByLoginName = new HashMap<>();
+        List<ProjectEntity> projectsToSave = new ArrayList<>(projectEntities.size());
+        for (int i = 0; i < projectEntities.size(); i++) {
+            ProjectEntity projectEntity = projectEntities.get(i);
+            if (results[i] != null) {
+                continue;
+            }
+            if (existingTitles.contains(projectEntity.getTitle()) || !titlesInRequest.add(projectEntity.getTitle())) {
+                results[i] = ProjectCreationResult.failed(projectEntity, "Ein Projekt mit diesem Namen existiert schon");
+                continue;
+            }
+            projectEntity.setMilestones(milestoneService.getDefaultMilestones(projectEntity.getDateOfReceipt(), projectEntity));
+            projectEntity.setStatus(ProjectStatus.OPEN);
+            try {
+                checkCapacityOfNewStaff(projectEntity, Set.of(), unsavedDueDatesByLoginName);
+            } catch (CapacityExceededException e) {
+                results[i] = ProjectCreationResult.failed(projectEntity, e.getMessage());
+                continue;
+            }
+            List<LocalDate> openDueDates = findOpenDueDates(projectEntity);
+            findLoginNamesOfStaff(projectEntity).forEach(loginName ->
+                    unsavedDueDatesByLoginName.computeIfAbsent(loginName, key -> new ArrayList<>()).addAll(openDueDates));
+            setNextDueDate(projectEntity);
+            projectsToSave.add(projectEntity);
+        }
 
-        for (ProjectEntity project : allProjects) {
-            if (!allProjectsSorted.contains(project)) {
-                allProjectsSorted.add(project);
+        if (!projectsToSave.isEmpty()) {
+            long changeSequence = changeSequenceService.next();
+            projectsToSave.forEach(projectEntity -> setChangeSequence(projectEntity, changeSequence));
+            projectRepository.saveAll(projectsToSave);
+            milestoneService.createDefaultDependencies(projectsToSave);
+            projectsToSave.forEach(projectEntity -> publishChange(ChangeType.PROJECT_CREATED, projectEntity.getTitle(), null));
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = ProjectCreationResult.created(projectEntities.get(i));
             }
         }
-        log.info("Fetched all projects");
-        return allProjectsSorted;
+        log.info(String.format("%s of %s projects created", projectsToSave.size(), projectEntities.size()));
+        return Arrays.asList(results);
     }
 
-    public List<ProjectEntity> getAllProjectsSortedByMilestoneDueDate() {
-        List<ProjectEntity> sortedProjects = milestoneService.getAllSortedByDueDate().stream()
-                .map(MilestoneEntity::getProjectEntity)
-                .distinct()
-                .toList();
-        for (ProjectEntity project : sortedProjects) {
+    // Reads only the columns shown on the board, none of the rows end up in the persistence context.
+    // Archived projects are only read page by page through findArchivePage
+    @Transactional(readOnly = true)
+    public ProjectBoard findBoard() {
+        List<ProjectProjection> sortedProjects = projectRepository.findAllProjectedByStatusSortedByNextDueDate(ProjectStatus.OPEN);
+        Map<Long, List<StaffProjection>> writersByProjectId = projectRepository.findAllWritersProjectedByStatus(ProjectStatus.OPEN).stream()
+                .collect(Collectors.groupingBy(StaffProjection::projectId));
+        Map<Long, List<StaffProjection>> motionDesignersByProjectId = projectRepository.findAllMotionDesignersProjectedByStatus(ProjectStatus.OPEN).stream()
+                .collect(Collectors.groupingBy(StaffProjection::projectId));
+        Map<Long, List<MilestoneProjection>> milestonesByProjectId = milestoneService.findAllProjectedSortedByDueDate(ProjectStatus.OPEN).stream()
+                .collect(Collectors.groupingBy(MilestoneProjection::projectId));
+        log.info("Fetched all open projects sorted by milestone due date");
+        return new ProjectBoard(sortedProjects, writersByProjectId, motionDesignersByProjectId, milestonesByProjectId);
+    }
+
+    // The version never passes a change that might still be committed, changes above it are sent again with the next call
+    public BoardChanges findChangesSince(long since) {
+        isTrue(since >= 0, "Die Version darf nicht negativ sein");
+        long completedChangeSequence = changeSequenceService.findCompletedChangeSequence();
+        List<ProjectEntity> changedProjects = projectRepository.findAllByChangeSequenceGreaterThan(since);
+        List<MilestoneEntity> changedMilestones = milestoneService.findAllChangedSince(since);
+        List<TombstoneEntity> tombstones = tombstoneRepository.findAllByChangeSequenceGreaterThanOrderByChangeSequenceAsc(since);
+
+        long version = since;
+        for (ProjectEntity project : changedProjects) {
+            version = Math.max(version, project.getChangeSequence());
             sortProjectMilestones(project);
         }
-        log.info("Sorted all projects by milestone due date");
-        return sortedProjects;
+        for (MilestoneEntity milestone : changedMilestones) {
+            version = Math.max(version, milestone.getChangeSequence());
+        }
+        for (TombstoneEntity tombstone : tombstones) {
+            version = Math.max(version, tombstone.getChangeSequence());
+        }
+        version = Math.max(since, Math.min(version, completedChangeSequence));
+        log.info(String.format("Fetched board changes since version %s", since));
+        return new BoardChanges(version, changedProjects, changedMilestones, tombstones);
     }
 
-    public ProjectEntity update(ProjectEntity projectUpdateData, String newTitle) {
+    public List<ProjectEntity> findPage(int page, int size) {
+        checkPageSize(size);
+        isTrue(page >= 0, "Die Seitenzahl darf nicht negativ sein");
+        List<Long> projectIds = projectRepository.findIdsByStatusSortedByNextDueDate(ProjectStatus.OPEN, PageRequest.of(page, size));
+        log.info(String.format("Fetched page %s of open projects sorted by milestone due date", page));
+        return findAllByIdsInOrder(projectIds);
+    }
 
-        ProjectEntity fetchedProjectEntity = getProjectEntity(projectUpdateData.getTitle());
+    public List<ProjectEntity> findPageAfter(String cursor, int size) {
+        checkPageSize(size);
+        String[] cursorValues = decodeCursor(cursor);
+        String title = cursorValues[1];
+        List<Long> projectIds;
+        if (cursorValues[0].isEmpty()) {
+            projectIds = projectRepository.findIdsByStatusWithoutNextDueDateAfter(ProjectStatus.OPEN, title, PageRequest.of(0, size));
+        } else {
+            Date nextDueDate = Date.valueOf(cursorValues[0]);
+            projectIds = projectRepository.findIdsByStatusSortedByNextDueDateAfter(ProjectStatus.OPEN, nextDueDate, title, PageRequest.of(0, size));
+        }
+        log.info(String.format("Fetched open projects sorted by milestone due date after project %s", title));
+        return findAllByIdsInOrder(projectIds);
+    }
 
-        ProjectEntity projectEntityCopy = copyProjectEntity(fetchedProjectEntity);
+    public String createCursor(ProjectEntity lastProjectOfPage) {
+        String nextDueDate = lastProjectOfPage.getNextDueDate() == null ? "" : lastProjectOfPage.getNextDueDate().toString();
+        String cursor = nextDueDate + CURSOR_SEPARATOR + lastProjectOfPage.getTitle();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Newest archived projects first
+    public List<ProjectEntity> findArchivePage(int page, int size) {
+        checkPageSize(size);
+        isTrue(page >= 0, "Die Seitenzahl darf nicht negativ sein");
+        List<Long> projectIds = projectRepository.findIdsByStatusSortedByDateOfReceiptDesc(ProjectStatus.ARCHIVE, PageRequest.of(page, size));
+        log.info(String.format("Fetched page %s of archived projects", page));
+        return findAllByIdsInOrder(projectIds);
+    }
+
+    public long count() {
+        log.info("Counted open projects");
+        return projectRepository.countByStatus(ProjectStatus.OPEN);
+    }
+
+    public long countArchived() {
+        log.info("Counted archived projects");
+        return projectRepository.countByStatus(ProjectStatus.ARCHIVE);
+    }
+
+    // The project is changed while attached, the version check happens when the transaction commits
+    @Transactional
+    public ProjectEntity update(ProjectEntity projectUpdateData, String newTitle) {
+
+        ProjectEntity projectEntity = loadProjectEntity(projectUpdateData.getTitle());
+        checkVersion(projectEntity, projectUpdateData.getVersion());
+        String fetchedTitle = projectEntity.getTitle();
+        Set<String> previousStaff = findLoginNamesOfCountedStaff(projectEntity);
 
         hasText(newTitle,"Projekttitel darf nicht leer sein" );
         String convertedNewTitle = removeInvalidCharsFromTitle(newTitle);
 
         if (projectUpdateData.getCustomer() != null) {
-            updateCustomer(projectUpdateData, projectEntityCopy);
+            updateCustomer(projectUpdateData, projectEntity);
         }
 
         if (projectUpdateData.getOwner() != null) {
-            projectEntityCopy.setOwner(projectUpdateData.getOwner());
+            projectEntity.setOwner(projectUpdateData.getOwner());
         }
 
         if(projectUpdateData.getStatus() != null){
-            projectEntityCopy.setStatus(projectUpdateData.getStatus());
-        } else projectEntityCopy.setStatus(ProjectStatus.OPEN);
+            projectEntity.setStatus(projectUpdateData.getStatus());
+        } else projectEntity.setStatus(ProjectStatus.OPEN);
 
         if (projectUpdateData.getDateOfReceipt() != null) {
-            projectEntityCopy.setDateOfReceipt(projectUpdateData.getDateOfReceipt());
+            projectEntity.setDateOfReceipt(projectUpdateData.getDateOfReceipt());
         }
 
+        Map<String, UserEntity> staffByLoginName = findStaff(projectUpdateData);
+
         if (projectUpdateData.getWriters() != null) {
-            updateWriters(projectUpdateData, projectEntityCopy);
+            updateWriters(projectUpdateData, projectEntity, staffByLoginName);
         }
 
         if (projectUpdateData.getMotionDesigners() != null) {
-            updateMotionDesigners(projectUpdateData, projectEntityCopy);
+            updateMotionDesigners(projectUpdateData, projectEntity, staffByLoginName);
         }
+        checkCapacityOfNewStaff(projectEntity, previousStaff);
 
-        if (!convertedNewTitle.trim().equals(fetchedProjectEntity.getTitle())) {
+        if (!convertedNewTitle.trim().equals(fetchedTitle)) {
             checkIfProjectTitleExists(convertedNewTitle);
-            projectEntityCopy.setTitle(convertedNewTitle);
+            projectEntity.setTitle(convertedNewTitle);
         }
-        log.info(String.format("Project %s updated", projectEntityCopy.getTitle()));
-        return projectRepository.save(projectEntityCopy);
+        long changeSequence = changeSequenceService.next();
+        projectEntity.setChangeSequence(changeSequence);
+        ProjectEntity updatedProjectEntity = projectRepository.save(projectEntity);
+        String previousTitle = fetchedTitle.equals(projectEntity.getTitle()) ? null : fetchedTitle;
+        if (previousTitle != null) {
+            // Clients that synchronise by version only learn about the old title through a tombstone
+            tombstoneRepository.save(TombstoneEntity.builder()
+                    .changeSequence(changeSequence)
+                    .type(TombstoneType.PROJECT)
+                    .projectTitle(previousTitle)
+                    .build());
+        }
+        publishChange(ChangeType.PROJECT_UPDATED, projectEntity.getTitle(), previousTitle);
+        log.info(String.format("Project %s updated", projectEntity.getTitle()));
+        return updatedProjectEntity;
     }
 
+    @Transactional
     public ProjectEntity moveToArchive(String title) {
-        ProjectEntity fetchProjectEntity = getProjectEntity(title);
+        ProjectEntity fetchProjectEntity = loadProjectEntity(title);
         fetchProjectEntity.setStatus(ProjectStatus.ARCHIVE);
+        fetchProjectEntity.setChangeSequence(changeSequenceService.next());
+        ProjectEntity savedProjectEntity = projectRepository.save(fetchProjectEntity);
+        publishChange(ChangeType.PROJECT_ARCHIVED, title, null);
         log.info(String.format("Project %s updated status to archive", title));
-        return projectRepository.save(fetchProjectEntity);
+        return savedProjectEntity;
     }
 
+    @Transactional
     public ProjectEntity restoreFromArchive(String title) {
-        ProjectEntity fetchProjectEntity = getProjectEntity(title);
+        ProjectEntity fetchProjectEntity = loadProjectEntity(title);
+        Set<String> previousStaff = findLoginNamesOfCountedStaff(fetchProjectEntity);
         fetchProjectEntity.setStatus(ProjectStatus.OPEN);
+        checkCapacityOfNewStaff(fetchProjectEntity, previousStaff);
+        fetchProjectEntity.setChangeSequence(changeSequenceService.next());
+        ProjectEntity savedProjectEntity = projectRepository.save(fetchProjectEntity);
+        publishChange(ChangeType.PROJECT_RESTORED, title, null);
         log.info(String.format("Project %s updated status to open", title));
-        return projectRepository.save(fetchProjectEntity);
+        return savedProjectEntity;
+    }
+
+    private void publishChange(ChangeType changeType, String title, String previousTitle) {
+        applicationEventPublisher.publishEvent(BoardChangedEvent.builder()
+                .type(changeType)
+                .projectTitle(title)
+                .previousProjectTitle(previousTitle)
+                .build());
+    }
+
+    private void setChangeSequence(ProjectEntity projectEntity, long changeSequence) {
+        projectEntity.setChangeSequence(changeSequence);
+        if (projectEntity.getMilestones() != null) {
+            projectEntity.getMilestones().forEach(milestone -> milestone.setChangeSequence(changeSequence));
+        }
+    }
+
+    // New projects only have the milestones they are saved with, later milestone writes update the column in the database
+    private void setNextDueDate(ProjectEntity projectEntity) {
+        projectEntity.setNextDueDate(projectEntity.getMilestones().stream()
+                .filter(milestone -> milestone.getDateFinished() == null && milestone.getDueDate() != null)
+                .map(MilestoneEntity::getDueDate)
+                .min(Comparator.naturalOrder())
+                .orElse(null));
+    }
+
+    private List<ProjectEntity> findAllByIdsInOrder(List<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProjectEntity> projectsById = projectCache.findAllById(projectIds,
+                idsToLoad -> projectRepository.findAllByIdIn(idsToLoad).stream().map(this::sortProjectMilestones).toList());
+        List<ProjectEntity> sortedProjects = new ArrayList<>(projectIds.size());
+        for (Long projectId : projectIds) {
+            ProjectEntity project = projectsById.get(projectId);
+            if (project != null) {
+                sortedProjects.add(project);
+            }
+        }
+        return sortedProjects;
+    }
+
+    private void checkPageSize(int size) {
+        isTrue(size > 0 && size <= MAX_PAGE_SIZE, String.format("Die Seitengröße muss zwischen 1 und %s liegen", MAX_PAGE_SIZE));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String decodedCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decodedCursor.indexOf(CURSOR_SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException();
+            }
+            String nextDueDate = decodedCursor.substring(0, separatorIndex);
+            if (!nextDueDate.isEmpty()) {
+                Date.valueOf(nextDueDate);
+            }
+            return new String[]{nextDueDate, decodedCursor.substring(separatorIndex + 1)};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Ungültiger Cursor");
+        }
     }
 
     private void checkIfProjectTitleExists(String title) {
@@ -167,55 +417,137 @@ public class ProjectService {
         );
     }
 
-    private void updateCustomer(ProjectEntity projectUpdateEntity, ProjectEntity projectEntityCopy) {
+    // Entities that get modified are loaded from the database, cached entities are shared between requests
+    private ProjectEntity loadProjectEntity(String title) {
+        return loadByTitle(title).orElseThrow(
+                () -> new EntityNotFoundException(
+                        String.format(
+                                "Projekt mit dem Titel %s konnte nicht gefunden werden",
+                                title))
+        );
+    }
+
+    private void checkVersion(ProjectEntity projectEntity, long expectedVersion) {
+        if (projectEntity.getVersion() != expectedVersion) {
+            log.info(String.format("Update of project %s failed. Version %s is outdated", projectEntity.getTitle(), expectedVersion));
+            throw new ObjectOptimisticLockingFailureException(ProjectEntity.class, projectEntity.getId());
+        }
+    }
+
+    private void updateCustomer(ProjectEntity projectUpdateEntity, ProjectEntity projectEntity) {
         hasText(projectUpdateEntity.getCustomer(), "Kundenname darf nicht leer sein");
-        projectEntityCopy.setCustomer(projectUpdateEntity.getCustomer().trim());
+        projectEntity.setCustomer(projectUpdateEntity.getCustomer().trim());
     }
 
-    private void updateWriters(ProjectEntity projectUpdateEntity, ProjectEntity projectEntityCopy) {
+    private Map<String, UserEntity> findStaff(ProjectEntity projectUpdateEntity) {
+        Set<String> loginNames = new HashSet<>();
+        if (projectUpdateEntity.getWriters() != null) {
+            projectUpdateEntity.getWriters().forEach(writer -> loginNames.add(writer.getLoginName()));
+        }
+        if (projectUpdateEntity.getMotionDesigners() != null) {
+            projectUpdateEntity.getMotionDesigners().forEach(motionDesigner -> loginNames.add(motionDesigner.getLoginName()));
+        }
+        loginNames.remove(null);
+        return userService.findReferencesByLoginNameIn(loginNames);
+    }
+
+    private void updateWriters(ProjectEntity projectUpdateEntity, ProjectEntity projectEntity, Map<String, UserEntity> staffByLoginName) {
         Set<UserEntity> writersToUpdate = projectUpdateEntity.getWriters();
-        projectEntityCopy.setWriters(new HashSet<>());
+        projectEntity.setWriters(new HashSet<>());
         for (UserEntity writer : writersToUpdate) {
-            UserEntity writerToAdd = userService.findByLoginName(writer.getLoginName())
-                    .orElseThrow(() -> new EntityNotFoundException("Der Benutzer konnte nicht gefunden werden"));
-            projectEntityCopy.addWriter(writerToAdd);
+            projectEntity.addWriter(getStaffMember(staffByLoginName, writer));
         }
     }
 
 
-    private void updateMotionDesigners(ProjectEntity projectUpdateEntity, ProjectEntity projectEntityCopy) {
+    private void updateMotionDesigners(ProjectEntity projectUpdateEntity, ProjectEntity projectEntity, Map<String, UserEntity> staffByLoginName) {
         Set<UserEntity> motionDesignersToUpdate = projectUpdateEntity.getMotionDesigners();
-        projectEntityCopy.setMotionDesigners(new HashSet<>());
+        projectEntity.setMotionDesigners(new HashSet<>());
 
         for (UserEntity motionDesigner : motionDesignersToUpdate) {
-            UserEntity motionDesignerToAdd = userService.findByLoginName(motionDesigner.getLoginName())
-                    .orElseThrow(() -> new EntityNotFoundException("Der Benutzer konnte nicht gefunden werden"));
-            projectEntityCopy.addMotionDesigner(motionDesignerToAdd);
+            projectEntity.addMotionDesigner(getStaffMember(staffByLoginName, motionDesigner));
         }
     }
 
+    // Deadlines of a project that is not open are not counted, reopening it adds them for all of its staff
+    private Set<String> findLoginNamesOfCountedStaff(ProjectEntity projectEntity) {
+        return projectEntity.getStatus() == ProjectStatus.OPEN ? findLoginNamesOfStaff(projectEntity) : Set.of();
+    }
 
-    private ProjectEntity copyProjectEntity(ProjectEntity fetchedProjectEntity) {
-        return ProjectEntity.builder()
-                .id(fetchedProjectEntity.getId())
-                .customer(fetchedProjectEntity.getCustomer())
-                .dateOfReceipt(fetchedProjectEntity.getDateOfReceipt())
-                .title(fetchedProjectEntity.getTitle())
-                .writers(fetchedProjectEntity.getWriters())
-                .motionDesigners(fetchedProjectEntity.getMotionDesigners())
-                .milestones(fetchedProjectEntity.getMilestones())
-                .owner(fetchedProjectEntity.getOwner()).build();
+    private Set<String> findLoginNamesOfStaff(ProjectEntity projectEntity) {
+        Set<String> loginNames = new TreeSet<>();
+        if (projectEntity.getWriters() != null) {
+            projectEntity.getWriters().forEach(writer -> loginNames.add(writer.getLoginName()));
+        }
+        if (projectEntity.getMotionDesigners() != null) {
+            projectEntity.getMotionDesigners().forEach(motionDesigner -> loginNames.add(motionDesigner.getLoginName()));
+        }
+        return loginNames;
     }
 
+    // Staff members who already work on the project keep it, even if they are overloaded in the meantime
+    private void checkCapacityOfNewStaff(ProjectEntity projectEntity, Set<String> previousStaff) {
+        checkCapacityOfNewStaff(projectEntity, previousStaff, Map.of());
+    }
 
-    private void sortProjectMilestones(ProjectEntity fetchedProjectEntity) {
-        List<MilestoneEntity> milestoneEntityList = fetchedProjectEntity.getMilestones();
-        List<MilestoneEntity> sortedMilestoneEntityList = sortMilestonesByDueDate(milestoneEntityList);
-        fetchedProjectEntity.setMilestones(sortedMilestoneEntityList);
+    // The index only knows stored projects, projects accepted earlier in the same bulk request are added per staff member
+    private void checkCapacityOfNewStaff(ProjectEntity projectEntity, Set<String> previousStaff, Map<String, List<LocalDate>> unsavedDueDatesByLoginName) {
+        if (projectEntity.getStatus() != ProjectStatus.OPEN || projectEntity.getMilestones() == null) {
+            return;
+        }
+        Set<String> newStaff = findLoginNamesOfStaff(projectEntity);
+        newStaff.removeAll(previousStaff);
+        if (newStaff.isEmpty()) {
+            return;
+        }
+
+        List<LocalDate> openDueDates = findOpenDueDates(projectEntity);
+        for (String loginName : newStaff) {
+            List<LocalDate> dueDates = openDueDates;
+            List<LocalDate> unsavedDueDates = unsavedDueDatesByLoginName.get(loginName);
+            if (unsavedDueDates != null) {
+                dueDates = new ArrayList<>(unsavedDueDates);
+                dueDates.addAll(openDueDates);
+            }
+            capacityIndex.findConflict(loginName, projectEntity.getId(), dueDates).ifPresent(capacityConflict -> {
+                log.info(String.format("Assignment of %s to project %s rejected, %s deadlines between %s and %s",
+                        loginName, projectEntity.getTitle(), capacityConflict.deadlines(), capacityConflict.windowStart(), capacityConflict.windowEnd()));
+                throw new CapacityExceededException(String.format(
+                        "%s hätte vom %s bis zum %s %s Deadlines, erlaubt sind höchstens %s",
+                        loginName,
+                        capacityConflict.windowStart().format(DATE_FORMATTER),
+                        capacityConflict.windowEnd().format(DATE_FORMATTER),
+                        capacityConflict.deadlines(),
+                        capacityConflict.maxDeadlines()));
+            });
+        }
+    }
+
+    private List<LocalDate> findOpenDueDates(ProjectEntity projectEntity) {
+        if (projectEntity.getMilestones() == null) {
+            return List.of();
+        }
+        return projectEntity.getMilestones().stream()
+                .filter(milestone -> milestone.getDateFinished() == null && milestone.getDueDate() != null)
+                .map(milestone -> milestone.getDueDate().toLocalDate())
+                .toList();
     }
 
-    private List<MilestoneEntity> sortMilestonesByDueDate(List<MilestoneEntity> milestoneEntityList) {
-        return milestoneEntityList.stream().sorted(Comparator.comparing(MilestoneEntity::getDueDate)).toList();
+    private UserEntity getStaffMember(Map<String, UserEntity> staffByLoginName, UserEntity staffMember) {
+        UserEntity foundStaffMember = staffByLoginName.get(staffMember.getLoginName());
+        if (foundStaffMember == null) {
+            throw new EntityNotFoundException("Der Benutzer konnte nicht gefunden werden");
+        }
+        return foundStaffMember;
+    }
+
+
+    // Sorts in place, replacing the list would detach the collection Hibernate tracks for orphan removal
+    private ProjectEntity sortProjectMilestones(ProjectEntity fetchedProjectEntity) {
+        if (fetchedProjectEntity.getMilestones() != null) {
+            fetchedProjectEntity.getMilestones().sort(Comparator.comparing(MilestoneEntity::getDueDate, Comparator.nullsLast(Comparator.naturalOrder())));
+        }
+        return fetchedProjectEntity;
     }
 
     private String removeInvalidCharsFromTitle(String title){
@@ -0,0 +1,8 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.enums.UserRole;
+
+import java.util.List;
+
+public record StaffWorkload(String loginName, UserRole role, int openProjects, int overdueMilestones, List<WeeklyWorkload> weeks) {
+}
@@ -0,0 +1,82 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.enums.ChangeType;
+import de.mcstangl.projectplanner.model.UserEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Keeps id, login name and role of users to reference them in projects without loading them
+@Component
+public class UserDirectory {
+
+    private final Map<String, UserEntity> usersByLoginName = new HashMap<>();
+    private final LoadGeneration loadGeneration = new LoadGeneration();
+
+    public Map<String, UserEntity> findAllByLoginNameIn(Collection<String> loginNames, Function<Collection<String>, List<UserEntity>> loader) {
+        Map<String, UserEntity> foundUsers = new HashMap<>();
+        Set<String> missingLoginNames = new HashSet<>();
+        long generation;
+        synchronized (usersByLoginName) {
+            for (String loginName : loginNames) {
+                UserEntity userEntity = usersByLoginName.get(loginName);
+                if (userEntity != null) {
+                    foundUsers.put(loginName, userEntity);
+                } else {
+                    missingLoginNames.add(loginName);
+                }
+            }
+            generation = loadGeneration.current();
+        }
+        if (missingLoginNames.isEmpty()) {
+            return foundUsers;
+        }
+
+        List<UserEntity> loadedUsers = new ArrayList<>();
+        for (UserEntity userEntity : loader.apply(missingLoginNames)) {
+            UserEntity userReference = UserEntity.builder()
+                    .id(userEntity.getId())
+                    .loginName(userEntity.getLoginName())
+                    .role(userEntity.getRole())
+                    .build();
+            foundUsers.put(userReference.getLoginName(), userReference);
+            loadedUsers.add(userReference);
+        }
+        synchronized (usersByLoginName) {
+            if (loadGeneration.isCurrent(generation)) {
+                loadedUsers.forEach(userReference -> usersByLoginName.put(userReference.getLoginName(), userReference));
+            }
+        }
+        return foundUsers;
+    }
+
+    // Users loaded while an update was not committed yet are dropped once it is
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent boardChangedEvent) {
+        if (boardChangedEvent.getType() == ChangeType.USER_UPDATED) {
+            invalidateAll();
+        }
+    }
+
+    public void invalidate(String loginName) {
+        synchronized (usersByLoginName) {
+            loadGeneration.invalidate();
+            usersByLoginName.remove(loginName);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (usersByLoginName) {
+            loadGeneration.invalidate();
+            usersByLoginName.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (usersByLoginName) {
+            return usersByLoginName.size();
+        }
+    }
+}
@@ -1,18 +1,22 @@
 package de.mcstangl.projectplanner.service;
 
-import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.enums.ChangeType;
 import de.mcstangl.projectplanner.model.UserEntity;
+import de.mcstangl.projectplanner.model.UserProjection;
 import de.mcstangl.projectplanner.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.springframework.util.Assert.hasText;
 
@@ -22,12 +26,18 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordService passwordService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ChangeSequenceService changeSequenceService;
+    private final UserDirectory userDirectory;
 
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordService passwordService) {
+    public UserService(UserRepository userRepository, PasswordService passwordService, ApplicationEventPublisher applicationEventPublisher, ChangeSequenceService changeSequenceService, UserDirectory userDirectory) {
         this.userRepository = userRepository;
         this.passwordService = passwordService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.changeSequenceService = changeSequenceService;
+        this.userDirectory = userDirectory;
 
     }
 
@@ -36,12 +46,34 @@ public class UserService {
         return userRepository.findByLoginName(loginName);
     }
 
-    public List<UserEntity> findAll() {
+    public List<UserEntity> findAllByLoginNameIn(Collection<String> loginNames) {
+        if (loginNames.isEmpty()) {
+            return List.of();
+        }
+        log.info(String.format("Fetched %s users by login name", loginNames.size()));
+        return userRepository.findAllByLoginNameIn(loginNames);
+    }
+
+    // The returned users only carry id, login name and role and are meant to be referenced by projects
+    public Optional<UserEntity> findReferenceByLoginName(String loginName) {
+        return Optional.ofNullable(findReferencesByLoginNameIn(List.of(loginName)).get(loginName));
+    }
+
+    public Map<String, UserEntity> findReferencesByLoginNameIn(Collection<String> loginNames) {
+        if (loginNames.isEmpty()) {
+            return Map.of();
+        }
+        return userDirectory.findAllByLoginNameIn(loginNames, this::findAllByLoginNameIn);
+    }
+
+    // Only login name and role, the password hash never leaves the database here
+    public List<UserProjection> findAll() {
         log.info("Fetched all users");
-        return userRepository.findAll();
+        return userRepository.findAllProjected();
     }
 
-    public UserEntity createNewUser(UserEntity newUserEntity) {
+    // Hashing runs on the password hashing threads, the user is saved there once the hash is done
+    public CompletableFuture<UserEntity> createNewUser(UserEntity newUserEntity) {
 
         hasText(newUserEntity.getLoginName(), "Login Name darf nicht leer sein");
         if (newUserEntity.getRole() == null) {
@@ -52,11 +84,16 @@ public class UserService {
         if (userEntityOpt.isPresent()) {
             throw new EntityExistsException("Ein User mit diesem Namen existiert schon");
         }
-        log.info(String.format("User %s created", newUserEntity.getLoginName()));
-        return saveUserEntityWithNewRandomPassword(newUserEntity);
+        return saveUserEntityWithNewRandomPassword(newUserEntity)
+                .thenApply(createdUserEntity -> {
+                    userDirectory.invalidate(newUserEntity.getLoginName());
+                    log.info(String.format("User %s created", newUserEntity.getLoginName()));
+                    return createdUserEntity;
+                });
     }
 
 
+    @Transactional
     public UserEntity updateUser(String loginName, UserEntity userUpdateData) {
 
         hasText(userUpdateData.getLoginName(), "Login Name darf nicht leer sein");
@@ -75,8 +112,14 @@ public class UserService {
         if (userUpdateData.getRole() != null) {
             userEntity.setRole(userUpdateData.getRole());
         }
+        UserEntity updatedUserEntity = userRepository.save(userEntity);
+        userDirectory.invalidate(loginName);
+        userDirectory.invalidate(userEntity.getLoginName());
+        // Projects show the login names and roles of their staff
+        userRepository.updateChangeSequenceOfLinkedProjects(userEntity, changeSequenceService.next());
+        applicationEventPublisher.publishEvent(BoardChangedEvent.builder().type(ChangeType.USER_UPDATED).build());
         log.info(String.format("User %s updated", userEntity.getLoginName()));
-        return userRepository.save(userEntity);
+        return updatedUserEntity;
     }
 
 
@@ -86,41 +129,47 @@ public class UserService {
         checkIfUserHasProjects(userEntity);
 
         userRepository.delete(userEntity);
+        userDirectory.invalidate(loginName);
         log.info(String.format("User %s deleted", loginName));
         return userEntity;
     }
 
 
 
-    public UserEntity resetPassword(String loginName) {
+    public CompletableFuture<UserEntity> resetPassword(String loginName) {
         UserEntity fetchedUserEntity = getUserEntity(loginName);
-        log.info(String.format("Reset password for user %s", loginName));
-        return saveUserEntityWithNewRandomPassword(fetchedUserEntity);
+        return saveUserEntityWithNewRandomPassword(fetchedUserEntity)
+                .thenApply(userEntity -> {
+                    log.info(String.format("Reset password for user %s", loginName));
+                    return userEntity;
+                });
     }
 
-    public UserEntity updatePassword(String loginName, String password) {
+    public CompletableFuture<UserEntity> updatePassword(String loginName, String password) {
         UserEntity userEntity = getUserEntity(loginName);
         hasText(password, "Das Passwort darf nicht leer sein");
-        String hashedPassword = passwordService.getHashedPassword(password);
-        userEntity.setPassword(hashedPassword);
-        log.info(String.format("Updated password for user %s", loginName));
-
-        return userRepository.save(userEntity);
-
+        return passwordService.hashPassword(password)
+                .thenApply(hashedPassword -> {
+                    userEntity.setPassword(hashedPassword);
+                    log.info(String.format("Updated password for user %s", loginName));
+                    return userRepository.save(userEntity);
+                });
     }
 
-    private UserEntity saveUserEntityWithNewRandomPassword(UserEntity user) {
+    private CompletableFuture<UserEntity> saveUserEntityWithNewRandomPassword(UserEntity user) {
         String randomPassword = passwordService.getRandomPassword();
-        String hashedPassword = passwordService.getHashedPassword(randomPassword);
 
-        user.setPassword(hashedPassword);
+        return passwordService.hashPassword(randomPassword)
+                .thenApply(hashedPassword -> {
+                    user.setPassword(hashedPassword);
 
-        UserEntity savedUserEntity = userRepository.save(user);
+                    UserEntity savedUserEntity = userRepository.save(user);
 
-        UserEntity userWithClearPassword = copyUserEntity(savedUserEntity);
-        userWithClearPassword.setPassword(randomPassword);
+                    UserEntity userWithClearPassword = copyUserEntity(savedUserEntity);
+                    userWithClearPassword.setPassword(randomPassword);
 
-        return userWithClearPassword;
+                    return userWithClearPassword;
+                });
     }
 
 
@@ -132,23 +181,14 @@ public class UserService {
     }
 
     private void checkIfUserHasProjects(UserEntity userEntity) {
-        Set<ProjectEntity> userProjects = new HashSet<>();
-        if (userEntity.getOwnedProjects() != null){
-            userProjects.addAll(userEntity.getOwnedProjects());
-        }
-        if (userEntity.getWriterInProjects() != null){
-            userProjects.addAll(userEntity.getWriterInProjects());
-        }
-        if (userEntity.getMotionDesignerInProjects() != null){
-            userProjects.addAll(userEntity.getMotionDesignerInProjects());
-        }
+        long linkedProjectCount = userRepository.countLinkedProjects(userEntity);
 
-        if(userProjects.size() > 0){
+        if(linkedProjectCount > 0){
             throw new IllegalArgumentException(
                     String.format(
                             "Der Benutzer %s ist verknüpft in %s Projekten und kann nicht gelöscht werden",
                             userEntity.getLoginName(),
-                            userProjects.size()));
+                            linkedProjectCount));
         }
     }
 
@@ -0,0 +1,6 @@
+package de.mcstangl.projectplanner.service;
+
+import java.time.LocalDate;
+
+public record WeeklyWorkload(LocalDate weekStart, int openMilestones) {
+}
@@ -0,0 +1,121 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.model.StaffMilestoneCount;
+import de.mcstangl.projectplanner.model.StaffProjectCount;
+import de.mcstangl.projectplanner.model.UserProjection;
+import de.mcstangl.projectplanner.repository.StaffWorkloadRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.util.Assert.isTrue;
+
+// The counters are aggregated once and reused until the board changes or a new week starts
+@Service
+@Slf4j
+public class WorkloadService {
+
+    public static final int MAX_WEEKS = 26;
+    private static final int[] NO_MILESTONES = new int[MAX_WEEKS + 1];
+
+    private final StaffWorkloadRepository staffWorkloadRepository;
+    private final UserService userService;
+
+    private final LoadGeneration loadGeneration = new LoadGeneration();
+    private WorkloadSnapshot snapshot;
+
+    @Autowired
+    public WorkloadService(StaffWorkloadRepository staffWorkloadRepository, UserService userService) {
+        this.staffWorkloadRepository = staffWorkloadRepository;
+        this.userService = userService;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent boardChangedEvent) {
+        invalidate();
+    }
+
+    public synchronized void invalidate() {
+        loadGeneration.invalidate();
+        snapshot = null;
+    }
+
+    public List<StaffWorkload> getWorkload(int weeks) {
+        return getWorkload(weeks, LocalDate.now());
+    }
+
+    public List<StaffWorkload> getWorkload(int weeks, LocalDate today) {
+        isTrue(weeks >= 1 && weeks <= MAX_WEEKS, String.format("Es können 1 bis %s Wochen angezeigt werden", MAX_WEEKS));
+
+        LocalDate weekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        WorkloadSnapshot workloadSnapshot = getSnapshot(weekStart);
+        List<UserProjection> users = userService.findAll();
+
+        List<StaffWorkload> workload = new ArrayList<>(users.size());
+        for (UserProjection user : users) {
+            int[] openMilestones = workloadSnapshot.openMilestonesByLoginName().getOrDefault(user.loginName(), NO_MILESTONES);
+            List<WeeklyWorkload> weeklyWorkload = new ArrayList<>(weeks);
+            for (int week = 0; week < weeks; week++) {
+                weeklyWorkload.add(new WeeklyWorkload(weekStart.plusWeeks(week), openMilestones[week + 1]));
+            }
+            workload.add(new StaffWorkload(
+                    user.loginName(),
+                    user.role(),
+                    workloadSnapshot.openProjectsByLoginName().getOrDefault(user.loginName(), 0),
+                    openMilestones[0],
+                    weeklyWorkload));
+        }
+        log.info(String.format("Calculated workload of %s users for %s weeks", users.size(), weeks));
+        return workload;
+    }
+
+    private WorkloadSnapshot getSnapshot(LocalDate weekStart) {
+        long generation;
+        synchronized (this) {
+            if (snapshot != null && snapshot.weekStart().equals(weekStart)) {
+                return snapshot;
+            }
+            generation = loadGeneration.current();
+        }
+
+        WorkloadSnapshot loadedSnapshot = loadSnapshot(weekStart);
+        synchronized (this) {
+            if (loadGeneration.isCurrent(generation)) {
+                snapshot = loadedSnapshot;
+            }
+        }
+        return loadedSnapshot;
+    }
+
+    // Index 0 counts the overdue milestones, index n the milestones due in the n-th week from weekStart
+    private WorkloadSnapshot loadSnapshot(LocalDate weekStart) {
+        Map<String, Integer> openProjectsByLoginName = new HashMap<>();
+        for (StaffProjectCount projectCount : staffWorkloadRepository.countOpenProjects()) {
+            openProjectsByLoginName.put(projectCount.loginName(), projectCount.openProjects());
+        }
+
+        Map<String, int[]> openMilestonesByLoginName = new HashMap<>();
+        for (StaffMilestoneCount milestoneCount : staffWorkloadRepository.countOpenMilestonesDueBefore(weekStart.plusWeeks(MAX_WEEKS))) {
+            int[] openMilestones = openMilestonesByLoginName.computeIfAbsent(milestoneCount.loginName(), loginName -> new int[MAX_WEEKS + 1]);
+            int index = milestoneCount.dueDate().isBefore(weekStart)
+                    ? 0
+                    : (int) ChronoUnit.WEEKS.between(weekStart, milestoneCount.dueDate()) + 1;
+            openMilestones[index] += milestoneCount.openMilestones();
+        }
+        log.info(String.format("Aggregated workload of %s staff members", openProjectsByLoginName.size()));
+        return new WorkloadSnapshot(weekStart, openProjectsByLoginName, openMilestonesByLoginName);
+    }
+
+    private record WorkloadSnapshot(LocalDate weekStart, Map<String, Integer> openProjectsByLoginName, Map<String, int[]> openMilestonesByLoginName) {
+    }
+}
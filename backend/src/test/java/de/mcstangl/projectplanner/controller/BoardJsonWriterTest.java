@@ -0,0 +1,96 @@
+package de.mcstangl.projectplanner.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.mcstangl.projectplanner.api.MilestoneDto;
+import de.mcstangl.projectplanner.api.ProjectDto;
+import de.mcstangl.projectplanner.api.UserDto;
+import de.mcstangl.projectplanner.enums.ProjectStatus;
+import de.mcstangl.projectplanner.enums.UserRole;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
+import de.mcstangl.projectplanner.model.ProjectProjection;
+import de.mcstangl.projectplanner.model.StaffProjection;
+import de.mcstangl.projectplanner.service.ProjectBoard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class BoardJsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BoardJsonWriter boardJsonWriter = new BoardJsonWriter(objectMapper);
+
+    @Test
+    @DisplayName("Write projects should produce the same JSON as the ProjectDtos of the board")
+    public void writeProjects() throws IOException {
+        // Given
+        ProjectBoard projectBoard = new ProjectBoard(
+                List.of(
+                        new ProjectProjection(1L, "Test1", "Customer", LocalDate.parse("2021-09-13"), ProjectStatus.OPEN, 2L, "Owner", UserRole.ADMIN),
+                        new ProjectProjection(2L, "Test2", "Customer", LocalDate.parse("2021-09-14"), ProjectStatus.OPEN, 0L, "Owner", UserRole.ADMIN)),
+                Map.of(1L, List.of(new StaffProjection(1L, "Writer", UserRole.USER))),
+                Map.of(),
+                Map.of(1L, List.of(
+                        new MilestoneProjection(1L, 1L, "Test1", "Milestone1", LocalDate.parse("2021-09-20"), null, 0L),
+                        new MilestoneProjection(2L, 1L, "Test1", "Milestone2", LocalDate.parse("2021-09-27"), LocalDate.parse("2021-09-24"), 1L))));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        boardJsonWriter.writeProjects(projectBoard, outputStream);
+
+        // Then
+        UserDto owner = UserDto.builder().loginName("Owner").role("ADMIN").build();
+        List<ProjectDto> expectedProjects = List.of(
+                ProjectDto.builder()
+                        .customer("Customer")
+                        .title("Test1")
+                        .owner(owner)
+                        .dateOfReceipt("2021-09-13")
+                        .writer(List.of(UserDto.builder().loginName("Writer").role("USER").build()))
+                        .motionDesign(List.of())
+                        .milestones(List.of(
+                                MilestoneDto.builder().id(1L).title("Milestone1").dueDate("2021-09-20")
+                                        .projectTitle("Test1").version(0L).build(),
+                                MilestoneDto.builder().id(2L).title("Milestone2").dueDate("2021-09-27")
+                                        .dateFinished("2021-09-24").projectTitle("Test1").version(1L).build()))
+                        .status("OPEN")
+                        .version(2L)
+                        .build(),
+                ProjectDto.builder()
+                        .customer("Customer")
+                        .title("Test2")
+                        .owner(owner)
+                        .dateOfReceipt("2021-09-14")
+                        .writer(List.of())
+                        .motionDesign(List.of())
+                        .milestones(List.of())
+                        .status("OPEN")
+                        .version(0L)
+                        .build());
+        JsonNode actual = objectMapper.readTree(outputStream.toByteArray());
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsBytes(expectedProjects));
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    @DisplayName("Write projects without projects should write an empty array")
+    public void writeProjectsWithoutProjects() throws IOException {
+        // Given
+        ProjectBoard projectBoard = new ProjectBoard(List.of(), Map.of(), Map.of(), Map.of());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        boardJsonWriter.writeProjects(projectBoard, outputStream);
+
+        // Then
+        assertThat(outputStream.toString(), is("[]"));
+    }
+}
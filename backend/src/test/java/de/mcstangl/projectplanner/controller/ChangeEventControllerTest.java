@@ -0,0 +1,136 @@
+package de.mcstangl.projectplanner.controller;
+
+import de.mcstangl.projectplanner.SpringBootTests;
+import de.mcstangl.projectplanner.api.ProjectDto;
+import de.mcstangl.projectplanner.enums.ProjectStatus;
+import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.repository.ProjectRepository;
+import de.mcstangl.projectplanner.service.ProjectCache;
+import de.mcstangl.projectplanner.util.TestUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ChangeEventControllerTest extends SpringBootTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestUtil testUtil;
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectCache projectCache;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @AfterEach
+    public void clear() {
+        projectRepository.deleteAll();
+        projectCache.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Subscribing with an unknown last event id should ask for a resync and then stream the missed changes on resume")
+    public void subscribeAndResume() throws Exception {
+        // Given
+        createTestProject();
+        String resyncEventId;
+
+        try (Stream<String> lines = subscribe("unknown-1")) {
+            Iterator<String> events = lines.iterator();
+            Map<String, String> resyncEvent = readEvent(events);
+            resyncEventId = resyncEvent.get("id");
+
+            // When
+            testRestTemplate.exchange(
+                    getUrl() + "/project/Test/archive",
+                    HttpMethod.PUT,
+                    new HttpEntity<>(null, testUtil.getAuthHeader("ADMIN")),
+                    ProjectDto.class);
+            Map<String, String> archivedEvent = readEvent(events);
+
+            // Then
+            assertThat(resyncEvent.get("event"), is("RESYNC"));
+            assertThat(archivedEvent.get("event"), is("PROJECT_ARCHIVED"));
+            assertThat(archivedEvent.get("data"), containsString("\"projectTitle\":\"Test\""));
+        }
+
+        try (Stream<String> lines = subscribe(resyncEventId)) {
+            // When
+            Map<String, String> replayedEvent = readEvent(lines.iterator());
+
+            // Then
+            assertThat(replayedEvent.get("event"), is("PROJECT_ARCHIVED"));
+        }
+    }
+
+    private Stream<String> subscribe(String lastEventId) throws IOException, InterruptedException {
+        HttpHeaders authHeader = testUtil.getAuthHeader("USER");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(getUrl() + "/events"))
+                .header(HttpHeaders.AUTHORIZATION, authHeader.getFirst(HttpHeaders.AUTHORIZATION))
+                .header("Last-Event-ID", lastEventId)
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofLines()).body();
+    }
+
+    private Map<String, String> readEvent(Iterator<String> lines) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty()) {
+                if (!fields.isEmpty()) {
+                    return fields;
+                }
+                continue;
+            }
+            int separatorIndex = line.indexOf(':');
+            fields.put(line.substring(0, separatorIndex), line.substring(separatorIndex + 1));
+        }
+        return fields;
+    }
+
+    private void createTestProject() {
+        projectRepository.save(ProjectEntity.builder()
+                .title("Test")
+                .customer("Test")
+                .status(ProjectStatus.OPEN)
+                .dateOfReceipt(Date.valueOf("2021-09-13"))
+                .build());
+    }
+
+    private String getUrl() {
+        return String.format("http://localhost:%s/api/project-planner", port);
+    }
+}
@@ -7,6 +7,7 @@ import de.mcstangl.projectplanner.config.JwtConfig;
 import de.mcstangl.projectplanner.enums.UserRole;
 import de.mcstangl.projectplanner.model.UserEntity;
 import de.mcstangl.projectplanner.repository.UserRepository;
+import de.mcstangl.projectplanner.service.UserDirectory;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
@@ -46,12 +47,16 @@ class LoginControllerTest extends SpringBootTests {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDirectory userDirectory;
+
     @Autowired
     private JwtConfig jwtConfig;
 
     @AfterEach
     public void clearDB() {
         userRepository.deleteAll();
+        userDirectory.invalidateAll();
     }
 
     @Test
@@ -1,11 +1,19 @@
 package de.mcstangl.projectplanner.controller;
 
 import de.mcstangl.projectplanner.SpringBootTests;
+import de.mcstangl.projectplanner.api.MilestoneDependencyDto;
 import de.mcstangl.projectplanner.api.MilestoneDto;
+import de.mcstangl.projectplanner.api.MilestoneScheduleDto;
+import de.mcstangl.projectplanner.enums.UserRole;
 import de.mcstangl.projectplanner.model.MilestoneEntity;
 import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.model.UserEntity;
+import de.mcstangl.projectplanner.repository.MilestoneDependencyRepository;
 import de.mcstangl.projectplanner.repository.MilestoneRepository;
 import de.mcstangl.projectplanner.repository.ProjectRepository;
+import de.mcstangl.projectplanner.repository.UserRepository;
+import de.mcstangl.projectplanner.service.ProjectCache;
+import de.mcstangl.projectplanner.service.UserDirectory;
 import de.mcstangl.projectplanner.util.TestUtil;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,7 +28,11 @@ import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.http.*;
 
 import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -45,17 +57,129 @@ class MilestoneControllerTest extends SpringBootTests {
     @Autowired
     private MilestoneRepository milestoneRepository;
 
+    @Autowired
+    private MilestoneDependencyRepository milestoneDependencyRepository;
+
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private ProjectCache projectCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
 
     @AfterEach
     public void tearDown() {
+        milestoneDependencyRepository.deleteAll();
         milestoneRepository.deleteAll();
         projectRepository.deleteAll();
+        projectCache.invalidateAll();
+        userRepository.deleteAll();
+        userDirectory.invalidateAll();
     }
 
 
+    @Test
+    @DisplayName("Find upcoming should return the open milestones due within the business days of the staff member")
+    public void findUpcoming() {
+        // Given
+        UserEntity writer = userRepository.save(UserEntity.builder()
+                .loginName("Writer")
+                .password("Test")
+                .role(UserRole.USER).build());
+        ProjectEntity projectOfWriter = projectRepository.save(ProjectEntity.builder()
+                .dateOfReceipt(Date.valueOf("2021-01-01"))
+                .title("Writer Project")
+                .customer("Test")
+                .writers(new HashSet<>(Set.of(writer)))
+                .build());
+        ProjectEntity otherProject = createTestProject();
+        LocalDate today = LocalDate.now();
+        createMilestone(projectOfWriter, "Today", today, null);
+        createMilestone(projectOfWriter, "Finished", today, today);
+        createMilestone(projectOfWriter, "Next Month", today.plusDays(40), null);
+        createMilestone(otherProject, "Other Project", today.plusDays(1), null);
+
+        // When
+        ResponseEntity<MilestoneDto[]> response = testRestTemplate.exchange(
+                getUrl() + "?businessDays=5",
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                MilestoneDto[].class);
+        ResponseEntity<MilestoneDto[]> responseOfWriter = testRestTemplate.exchange(
+                getUrl() + "?businessDays=5&loginName=Writer",
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                MilestoneDto[].class);
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertNotNull(response.getBody());
+        assertThat(Arrays.stream(response.getBody()).map(MilestoneDto::getTitle).toList(), contains("Today", "Other Project"));
+        assertNotNull(responseOfWriter.getBody());
+        assertThat(Arrays.stream(responseOfWriter.getBody()).map(MilestoneDto::getTitle).toList(), contains("Today"));
+        assertThat(responseOfWriter.getBody()[0].getProjectTitle(), is("Writer Project"));
+    }
+
+    @Test
+    @DisplayName("Find upcoming with a negative number of business days should return HttpStatus.BAD_REQUEST")
+    public void findUpcomingWithNegativeBusinessDays() {
+        // When
+        ResponseEntity<MilestoneDto> response = testRestTemplate.exchange(
+                getUrl() + "?businessDays=-1",
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                MilestoneDto.class);
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    @DisplayName("Find by project title should return HttpStatus.NOT_MODIFIED until a milestone of the project changes")
+    public void findAllByProjectTitleWithIfNoneMatch() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity testMilestone = createTestMilestone1(testProject);
+        ResponseEntity<MilestoneDto[]> response = testRestTemplate.exchange(
+                getUrl() + "/Test1",
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                MilestoneDto[].class);
+        String eTag = response.getHeaders().getETag();
+        assertNotNull(eTag);
+        HttpHeaders headers = testUtil.getAuthHeader("USER");
+        headers.setIfNoneMatch(eTag);
+
+        // When
+        ResponseEntity<MilestoneDto[]> notModifiedResponse = testRestTemplate.exchange(
+                getUrl() + "/Test1",
+                HttpMethod.GET,
+                new HttpEntity<>(null, headers),
+                MilestoneDto[].class);
+        testRestTemplate.exchange(
+                getUrl() + "/" + testMilestone.getId(),
+                HttpMethod.DELETE,
+                new HttpEntity<>(null, testUtil.getAuthHeader("ADMIN")),
+                MilestoneDto.class);
+        ResponseEntity<MilestoneDto[]> modifiedResponse = testRestTemplate.exchange(
+                getUrl() + "/Test1",
+                HttpMethod.GET,
+                new HttpEntity<>(null, headers),
+                MilestoneDto[].class);
+
+        // Then
+        assertThat(notModifiedResponse.getStatusCode(), is(HttpStatus.NOT_MODIFIED));
+        assertThat(modifiedResponse.getStatusCode(), is(HttpStatus.OK));
+        assertNotNull(modifiedResponse.getBody());
+        assertThat(modifiedResponse.getBody().length, is(0));
+    }
+
     @Test
     @DisplayName("Find by project title should return all milestones related the project")
     public void findAllByProjectTitle() {
@@ -214,6 +338,7 @@ class MilestoneControllerTest extends SpringBootTests {
                 .title("Updated Milestone")
                 .dueDate("2021-01-01")
                 .dateFinished("2021-01-01")
+                .version(0L)
                 .build();
 
         // When
@@ -233,6 +358,64 @@ class MilestoneControllerTest extends SpringBootTests {
         assertThat(response.getBody().getDueDate(), is("2021-01-01"));
     }
 
+    @Test
+    @DisplayName("Update milestone without a version should return HttpStatus.BAD_REQUEST and keep the milestone")
+    public void updateMilestoneWithoutVersion() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity testMilestone1 = createTestMilestone1(testProject);
+        MilestoneDto mileStoneDto = MilestoneDto.builder()
+                .id(testMilestone1.getId())
+                .projectTitle("Test1")
+                .title("Updated Milestone")
+                .build();
+
+        // When
+        ResponseEntity<MilestoneDto> response = testRestTemplate.exchange(
+                getUrl(),
+                HttpMethod.PUT,
+                new HttpEntity<>(mileStoneDto, testUtil.getAuthHeader("ADMIN")),
+                MilestoneDto.class);
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+        assertThat(milestoneRepository.findById(testMilestone1.getId()).orElseThrow().getTitle(), is(testMilestone1.getTitle()));
+    }
+
+    @Test
+    @DisplayName("Update milestone with an outdated version should return HttpStatus.CONFLICT")
+    public void updateMilestoneWithOutdatedVersion() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity testMilestone1 = createTestMilestone1(testProject);
+        MilestoneDto mileStoneDto = MilestoneDto.builder()
+                .id(testMilestone1.getId())
+                .projectTitle("Test1")
+                .title("Updated Milestone")
+                .dueDate("2021-01-01")
+                .dateFinished("2021-01-01")
+                .version(0L)
+                .build();
+
+        // When
+        ResponseEntity<MilestoneDto> firstResponse = testRestTemplate.exchange(
+                getUrl(),
+                HttpMethod.PUT,
+                new HttpEntity<>(mileStoneDto, testUtil.getAuthHeader("ADMIN")),
+                MilestoneDto.class);
+        ResponseEntity<MilestoneDto> secondResponse = testRestTemplate.exchange(
+                getUrl(),
+                HttpMethod.PUT,
+                new HttpEntity<>(mileStoneDto, testUtil.getAuthHeader("ADMIN")),
+                MilestoneDto.class);
+
+        // Then
+        assertThat(firstResponse.getStatusCode(), is(HttpStatus.OK));
+        assertNotNull(firstResponse.getBody());
+        assertThat(firstResponse.getBody().getVersion(), is(1L));
+        assertThat(secondResponse.getStatusCode(), is(HttpStatus.CONFLICT));
+    }
+
     @Test
     @DisplayName("Update new milestone as user should fail")
     public void updateMilestoneAsUser() {
@@ -267,6 +450,7 @@ class MilestoneControllerTest extends SpringBootTests {
                 .title(title)
                 .dueDate("2021-03-13")
                 .dateFinished("2021-12-12")
+                .version(0L)
                 .build();
 
         // When
@@ -305,6 +489,7 @@ class MilestoneControllerTest extends SpringBootTests {
                 .title("New Milestone")
                 .dueDate(dueDate)
                 .dateFinished(dateFinished)
+                .version(0L)
                 .build();
 
         // When
@@ -416,6 +601,197 @@ class MilestoneControllerTest extends SpringBootTests {
 
     }
 
+    @Test
+    @DisplayName("Update milestone should move the milestones that depend on it")
+    public void updateMilestoneMovesDependentMilestones() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity first = createMilestone(testProject, "First", LocalDate.parse("2021-09-06"), null);
+        MilestoneEntity second = createMilestone(testProject, "Second", LocalDate.parse("2021-09-08"), null);
+        ResponseEntity<MilestoneDependencyDto> dependencyResponse = addDependency(first.getId(), second.getId(), 2, "ADMIN");
+        MilestoneDto mileStoneDto = MilestoneDto.builder()
+                .id(first.getId())
+                .projectTitle("Test1")
+                .title("First")
+                .dueDate("2021-09-08")
+                .version(0L)
+                .build();
+
+        // When
+        ResponseEntity<MilestoneDto> response = testRestTemplate.exchange(
+                getUrl(),
+                HttpMethod.PUT,
+                new HttpEntity<>(mileStoneDto, testUtil.getAuthHeader("ADMIN")),
+                MilestoneDto.class);
+
+        // Then
+        assertThat(dependencyResponse.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        Optional<MilestoneEntity> actual = milestoneRepository.findById(second.getId());
+        assertTrue(actual.isPresent());
+        assertThat(actual.get().getDueDate().toString(), is("2021-09-10"));
+    }
+
+    @Test
+    @DisplayName("Reschedule should move the milestone and all later open milestones of the project")
+    public void reschedule() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity earlier = createMilestone(testProject, "Earlier", LocalDate.parse("2021-09-01"), null);
+        MilestoneEntity toMove = createMilestone(testProject, "Move", LocalDate.parse("2021-09-03"), null);
+        MilestoneEntity finished = createMilestone(testProject, "Finished", LocalDate.parse("2021-09-06"), LocalDate.parse("2021-09-01"));
+        MilestoneEntity later = createMilestone(testProject, "Later", LocalDate.parse("2021-09-10"), null);
+
+        // When
+        ResponseEntity<MilestoneDto[]> response = testRestTemplate.exchange(
+                getUrl() + "/" + toMove.getId() + "/reschedule?businessDays=2",
+                HttpMethod.POST,
+                new HttpEntity<>(null, testUtil.getAuthHeader("ADMIN")),
+                MilestoneDto[].class);
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertNotNull(response.getBody());
+        assertThat(Arrays.stream(response.getBody()).map(MilestoneDto::getDueDate).toList(), contains("2021-09-07", "2021-09-14"));
+        assertThat(response.getBody()[0].getVersion(), is(1L));
+        assertThat(milestoneRepository.findById(earlier.getId()).orElseThrow().getDueDate().toString(), is("2021-09-01"));
+        assertThat(milestoneRepository.findById(toMove.getId()).orElseThrow().getDueDate().toString(), is("2021-09-07"));
+        assertThat(milestoneRepository.findById(finished.getId()).orElseThrow().getDueDate().toString(), is("2021-09-06"));
+        assertThat(milestoneRepository.findById(later.getId()).orElseThrow().getDueDate().toString(), is("2021-09-14"));
+        assertThat(milestoneRepository.findById(later.getId()).orElseThrow().getVersion(), is(1L));
+    }
+
+    @Test
+    @DisplayName("Reschedule as user should fail")
+    public void rescheduleAsUser() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity toMove = createMilestone(testProject, "Move", LocalDate.parse("2021-09-03"), null);
+
+        // When
+        ResponseEntity<MilestoneDto[]> response = testRestTemplate.exchange(
+                getUrl() + "/" + toMove.getId() + "/reschedule?businessDays=2",
+                HttpMethod.POST,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                MilestoneDto[].class);
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.UNAUTHORIZED));
+        assertThat(milestoneRepository.findById(toMove.getId()).orElseThrow().getDueDate().toString(), is("2021-09-03"));
+    }
+
+    @Test
+    @DisplayName("Add dependency should move the successor behind the predecessor")
+    public void addDependencyMovesSuccessor() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity first = createMilestone(testProject, "First", LocalDate.parse("2021-09-10"), null);
+        MilestoneEntity second = createMilestone(testProject, "Second", LocalDate.parse("2021-09-08"), null);
+
+        // When
+        ResponseEntity<MilestoneDependencyDto> response = addDependency(first.getId(), second.getId(), 1, "ADMIN");
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertNotNull(response.getBody());
+        assertNotNull(response.getBody().getId());
+        Optional<MilestoneEntity> actual = milestoneRepository.findById(second.getId());
+        assertTrue(actual.isPresent());
+        assertThat(actual.get().getDueDate().toString(), is("2021-09-13"));
+    }
+
+    @Test
+    @DisplayName("Add dependency that would create a cycle should return HttpStatus.BAD_REQUEST")
+    public void addDependencyWithCycle() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity first = createMilestone(testProject, "First", LocalDate.parse("2021-09-06"), null);
+        MilestoneEntity second = createMilestone(testProject, "Second", LocalDate.parse("2021-09-08"), null);
+        addDependency(first.getId(), second.getId(), 2, "ADMIN");
+
+        // When
+        ResponseEntity<MilestoneDependencyDto> response = addDependency(second.getId(), first.getId(), 2, "ADMIN");
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    @DisplayName("Add dependency as user should fail")
+    public void addDependencyAsUser() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity first = createMilestone(testProject, "First", LocalDate.parse("2021-09-06"), null);
+        MilestoneEntity second = createMilestone(testProject, "Second", LocalDate.parse("2021-09-08"), null);
+
+        // When
+        ResponseEntity<MilestoneDependencyDto> response = addDependency(first.getId(), second.getId(), 2, "USER");
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.UNAUTHORIZED));
+        assertTrue(milestoneDependencyRepository.findAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Get schedule should return the slack of every milestone of the project")
+    public void getSchedule() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity first = createMilestone(testProject, "First", LocalDate.parse("2021-09-06"), null);
+        MilestoneEntity second = createMilestone(testProject, "Second", LocalDate.parse("2021-09-08"), null);
+        MilestoneEntity third = createMilestone(testProject, "Third", LocalDate.parse("2021-09-07"), null);
+        addDependency(first.getId(), second.getId(), 2, "ADMIN");
+        addDependency(third.getId(), second.getId(), 0, "ADMIN");
+
+        // When
+        ResponseEntity<MilestoneScheduleDto[]> response = testRestTemplate.exchange(
+                getUrl() + "/Test1/schedule",
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                MilestoneScheduleDto[].class);
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertNotNull(response.getBody());
+        assertThat(Arrays.asList(response.getBody()), containsInAnyOrder(
+                new MilestoneScheduleDto(first.getId(), "First", "2021-09-06", "2021-09-06", "2021-09-06", 0, true),
+                new MilestoneScheduleDto(second.getId(), "Second", "2021-09-08", "2021-09-08", "2021-09-08", 0, true),
+                new MilestoneScheduleDto(third.getId(), "Third", "2021-09-07", "2021-09-07", "2021-09-08", 1, false)));
+    }
+
+    @Test
+    @DisplayName("Delete milestone should remove its dependencies")
+    public void deleteMilestoneRemovesDependencies() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity first = createMilestone(testProject, "First", LocalDate.parse("2021-09-06"), null);
+        MilestoneEntity second = createMilestone(testProject, "Second", LocalDate.parse("2021-09-08"), null);
+        addDependency(first.getId(), second.getId(), 2, "ADMIN");
+
+        // When
+        ResponseEntity<MilestoneDto> response = testRestTemplate.exchange(
+                getUrl() + "/" + first.getId(),
+                HttpMethod.DELETE,
+                new HttpEntity<>(null, testUtil.getAuthHeader("ADMIN")),
+                MilestoneDto.class);
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertTrue(milestoneDependencyRepository.findAll().isEmpty());
+    }
+
+    private ResponseEntity<MilestoneDependencyDto> addDependency(Long predecessorId, Long successorId, int businessDays, String role) {
+        return testRestTemplate.exchange(
+                getUrl() + "/dependency",
+                HttpMethod.POST,
+                new HttpEntity<>(MilestoneDependencyDto.builder()
+                        .predecessorId(predecessorId)
+                        .successorId(successorId)
+                        .businessDays(businessDays)
+                        .build(), testUtil.getAuthHeader(role)),
+                MilestoneDependencyDto.class);
+    }
+
     private String getUrl() {
         return String.format("http://localhost:%s/api/project-planner/milestone", port);
     }
@@ -432,6 +808,17 @@ class MilestoneControllerTest extends SpringBootTests {
         );
     }
 
+    private MilestoneEntity createMilestone(ProjectEntity project, String title, LocalDate dueDate, LocalDate dateFinished) {
+        return milestoneRepository.save(
+                MilestoneEntity.builder()
+                        .projectEntity(project)
+                        .dueDate(Date.valueOf(dueDate))
+                        .dateFinished(dateFinished == null ? null : Date.valueOf(dateFinished))
+                        .title(title)
+                        .build()
+        );
+    }
+
     public MilestoneEntity createTestMilestone1(ProjectEntity testProject) {
         return milestoneRepository.save(
                 MilestoneEntity.builder()
@@ -451,7 +838,7 @@ class MilestoneControllerTest extends SpringBootTests {
                         .projectEntity(testProject)
                         .dateFinished(Date.valueOf("2021-12-12"))
                         .dueDate(Date.valueOf("2021-03-13"))
-                        .title("Test")
+                        .title("Test2")
                         .build()
         );
     }
@@ -1,7 +1,9 @@
 package de.mcstangl.projectplanner.controller;
 
 import de.mcstangl.projectplanner.SpringBootTests;
+import de.mcstangl.projectplanner.api.ProjectCreationResultDto;
 import de.mcstangl.projectplanner.api.ProjectDto;
+import de.mcstangl.projectplanner.api.ProjectPageDto;
 import de.mcstangl.projectplanner.api.UpdateProjectDto;
 import de.mcstangl.projectplanner.api.UserDto;
 import de.mcstangl.projectplanner.enums.ProjectStatus;
@@ -10,6 +12,9 @@ import de.mcstangl.projectplanner.model.ProjectEntity;
 import de.mcstangl.projectplanner.model.UserEntity;
 import de.mcstangl.projectplanner.repository.ProjectRepository;
 import de.mcstangl.projectplanner.repository.UserRepository;
+import de.mcstangl.projectplanner.service.CapacityIndex;
+import de.mcstangl.projectplanner.service.ProjectCache;
+import de.mcstangl.projectplanner.service.UserDirectory;
 import de.mcstangl.projectplanner.util.TestUtil;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -41,9 +46,18 @@ class ProjectControllerTest extends SpringBootTests {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private ProjectCache projectCache;
+
+    @Autowired
+    private CapacityIndex capacityIndex;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDirectory userDirectory;
+
     @Autowired
     private TestUtil testUtil;
 
@@ -51,7 +65,10 @@ class ProjectControllerTest extends SpringBootTests {
     @AfterEach
     public void clear() {
         projectRepository.deleteAll();
+        projectCache.invalidateAll();
+        capacityIndex.invalidateAll();
         userRepository.deleteAll();
+        userDirectory.invalidateAll();
     }
 
     @Test
@@ -183,6 +200,74 @@ class ProjectControllerTest extends SpringBootTests {
         );
     }
 
+    @Test
+    @DisplayName("Creating projects in bulk should persist the valid projects and return a result per project")
+    public void createNewProjects() {
+        // Given
+        UserEntity testUser1 = createTestUser1();
+        createTestProject(testUser1);
+        UserDto owner = UserDto.builder()
+                .loginName("Test")
+                .role("ADMIN").build();
+        UserDto unknownUser = UserDto.builder()
+                .loginName("Unknown")
+                .role("ADMIN").build();
+
+        List<ProjectDto> projectDtos = List.of(
+                createProjectDto("New 1", owner, "2021-09-13"),
+                createProjectDto("Test", owner, "2021-09-13"),
+                createProjectDto("New 2", unknownUser, "2021-09-13"),
+                createProjectDto("New 3", owner, "2021-9"),
+                createProjectDto("New 1", owner, "2021-09-13"),
+                ProjectDto.builder()
+                        .title("New 4")
+                        .customer("Test Customer")
+                        .owner(owner)
+                        .writer(List.of(owner))
+                        .dateOfReceipt("2021-09-14")
+                        .build()
+        );
+
+        // When
+        ResponseEntity<ProjectCreationResultDto[]> response = testRestTemplate.exchange(
+                getUrl() + "/bulk",
+                HttpMethod.POST,
+                new HttpEntity<>(projectDtos, testUtil.getAuthHeader("ADMIN")),
+                ProjectCreationResultDto[].class
+        );
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertNotNull(response.getBody());
+        List<ProjectCreationResultDto> actual = Arrays.asList(response.getBody());
+        assertThat(actual.stream().map(ProjectCreationResultDto::getTitle).toList(),
+                contains("New 1", "Test", "New 2", "New 3", "New 1", "New 4"));
+        assertThat(actual.stream().map(ProjectCreationResultDto::isCreated).toList(),
+                contains(true, false, false, false, false, true));
+        assertThat(actual.get(1).getMessage(), is("Ein Projekt mit diesem Namen existiert schon"));
+        assertThat(actual.get(2).getMessage(), is("Benutzer mit dem Namen Unknown konnte nicht gefunden werden"));
+        assertThat(actual.get(3).getMessage(), is("Bitte geben Sie ein gültiges Datum ein"));
+        assertThat(actual.get(4).getMessage(), is("Ein Projekt mit diesem Namen existiert schon"));
+        assertThat(actual.get(0).getProject().getMilestones().size(), is(9));
+        assertThat(actual.get(5).getProject().getWriter(), contains(owner));
+        assertThat(projectRepository.count(), is(3L));
+    }
+
+    @Test
+    @DisplayName("Creating projects in bulk as USER should return HttpStatus.UNAUTHORIZED")
+    public void createNewProjectsAsUserShouldFail() {
+        // When
+        ResponseEntity<ProjectCreationResultDto[]> response = testRestTemplate.exchange(
+                getUrl() + "/bulk",
+                HttpMethod.POST,
+                new HttpEntity<>(List.of(createProjectDto("New 1", null, "2021-09-13")), testUtil.getAuthHeader("USER")),
+                ProjectCreationResultDto[].class
+        );
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.UNAUTHORIZED));
+    }
+
     @Test
     @DisplayName("Find all should return a list of all projects in DB")
     public void findAll() {
@@ -207,6 +292,119 @@ class ProjectControllerTest extends SpringBootTests {
                 .build()));
     }
 
+    @Test
+    @DisplayName("Find page should return the first projects with a cursor that leads to the next page")
+    public void findPageWithCursor() {
+        // Given
+        UserEntity testUser1 = createTestUser1();
+        createTestProject(testUser1);
+        projectRepository.saveAndFlush(ProjectEntity.builder()
+                .title("Test2")
+                .dateOfReceipt(java.sql.Date.valueOf("2012-03-21"))
+                .owner(testUser1)
+                .status(ProjectStatus.OPEN)
+                .customer("Test").build());
+
+        // When
+        ResponseEntity<ProjectPageDto> firstResponse = testRestTemplate.exchange(
+                getUrl() + "?size=1&withTotal=true",
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                ProjectPageDto.class
+        );
+        assertNotNull(firstResponse.getBody());
+        ResponseEntity<ProjectPageDto> secondResponse = testRestTemplate.exchange(
+                getUrl() + "?size=1&cursor=" + firstResponse.getBody().getNextCursor(),
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                ProjectPageDto.class
+        );
+
+        // Then
+        assertThat(firstResponse.getStatusCode(), is(HttpStatus.OK));
+        assertThat(firstResponse.getBody().getTotalCount(), is(2L));
+        assertThat(firstResponse.getBody().getProjects().get(0).getTitle(), is("Test"));
+        assertThat(secondResponse.getStatusCode(), is(HttpStatus.OK));
+        assertNotNull(secondResponse.getBody());
+        assertNull(secondResponse.getBody().getTotalCount());
+        assertThat(secondResponse.getBody().getProjects().size(), is(1));
+        assertThat(secondResponse.getBody().getProjects().get(0).getTitle(), is("Test2"));
+    }
+
+    @Test
+    @DisplayName("Archived projects should only be returned by the archive page, not by find all or find page")
+    public void findArchivePage() {
+        // Given
+        UserEntity testUser1 = createTestUser1();
+        createTestProject(testUser1);
+        for (String title : List.of("Archiv 1", "Archiv 2")) {
+            projectRepository.saveAndFlush(ProjectEntity.builder()
+                    .title(title)
+                    .dateOfReceipt(java.sql.Date.valueOf(title.equals("Archiv 1") ? "2012-03-21" : "2012-03-22"))
+                    .owner(testUser1)
+                    .status(ProjectStatus.ARCHIVE)
+                    .customer("Test").build());
+        }
+
+        // When
+        ResponseEntity<ProjectDto[]> boardResponse = testRestTemplate.exchange(
+                getUrl(),
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                ProjectDto[].class
+        );
+        ResponseEntity<ProjectPageDto> pageResponse = testRestTemplate.exchange(
+                getUrl() + "?size=10&withTotal=true",
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                ProjectPageDto.class
+        );
+        ResponseEntity<ProjectPageDto> archiveResponse = testRestTemplate.exchange(
+                getUrl() + "/archive?size=1&page=1",
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                ProjectPageDto.class
+        );
+
+        // Then
+        assertNotNull(boardResponse.getBody());
+        assertThat(Arrays.stream(boardResponse.getBody()).map(ProjectDto::getTitle).toList(), contains("Test"));
+        assertNotNull(pageResponse.getBody());
+        assertThat(pageResponse.getBody().getTotalCount(), is(1L));
+        assertThat(pageResponse.getBody().getProjects().size(), is(1));
+        assertThat(archiveResponse.getStatusCode(), is(HttpStatus.OK));
+        assertNotNull(archiveResponse.getBody());
+        assertThat(archiveResponse.getBody().getTotalCount(), is(2L));
+        assertThat(archiveResponse.getBody().getProjects().size(), is(1));
+        assertThat(archiveResponse.getBody().getProjects().get(0).getTitle(), is("Archiv 1"));
+        assertThat(archiveResponse.getBody().getProjects().get(0).getStatus(), is("ARCHIVE"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getArgumentsForBadPageRequestTest")
+    @DisplayName("Find page with an invalid size, page or cursor should return HttpStatus.BAD_REQUEST")
+    public void findPageWithBadRequest(String query) {
+        // When
+        ResponseEntity<ProjectPageDto> response = testRestTemplate.exchange(
+                getUrl() + query,
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                ProjectPageDto.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    }
+
+    private static Stream<Arguments> getArgumentsForBadPageRequestTest() {
+        return Stream.of(
+                Arguments.of("?size=0"),
+                Arguments.of("?size=1000"),
+                Arguments.of("?size=10&page=-1"),
+                Arguments.of("?size=10&cursor=not-a-cursor")
+        );
+    }
+
     @Test
     @DisplayName("Find by title should return project found")
     public void findByTitle() {
@@ -229,6 +427,64 @@ class ProjectControllerTest extends SpringBootTests {
         assertThat(response.getBody().getTitle(), is("Test"));
     }
 
+    @Test
+    @DisplayName("Find all and find by title should return HttpStatus.NOT_MODIFIED until the project changes")
+    public void findWithIfNoneMatch() {
+        // Given
+        UserEntity testUser1 = createTestUser1();
+        createTestProject(testUser1);
+        ResponseEntity<ProjectDto[]> allResponse = testRestTemplate.exchange(
+                getUrl(),
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("ADMIN")),
+                ProjectDto[].class
+        );
+        ResponseEntity<ProjectDto> projectResponse = testRestTemplate.exchange(
+                getUrl() + "/Test",
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("ADMIN")),
+                ProjectDto.class
+        );
+        String boardETag = allResponse.getHeaders().getETag();
+        String projectETag = projectResponse.getHeaders().getETag();
+        assertNotNull(boardETag);
+        assertNotNull(projectETag);
+
+        // When
+        ResponseEntity<ProjectDto[]> notModifiedAllResponse = testRestTemplate.exchange(
+                getUrl(),
+                HttpMethod.GET,
+                new HttpEntity<>(null, getAuthHeaderWithIfNoneMatch(boardETag)),
+                ProjectDto[].class
+        );
+        ResponseEntity<ProjectDto> notModifiedProjectResponse = testRestTemplate.exchange(
+                getUrl() + "/Test",
+                HttpMethod.GET,
+                new HttpEntity<>(null, getAuthHeaderWithIfNoneMatch(projectETag)),
+                ProjectDto.class
+        );
+        testRestTemplate.exchange(
+                getUrl() + "/Test/archive",
+                HttpMethod.PUT,
+                new HttpEntity<>(null, testUtil.getAuthHeader("ADMIN")),
+                ProjectDto.class
+        );
+        ResponseEntity<ProjectDto> modifiedProjectResponse = testRestTemplate.exchange(
+                getUrl() + "/Test",
+                HttpMethod.GET,
+                new HttpEntity<>(null, getAuthHeaderWithIfNoneMatch(projectETag)),
+                ProjectDto.class
+        );
+
+        // Then
+        assertThat(notModifiedAllResponse.getStatusCode(), is(HttpStatus.NOT_MODIFIED));
+        assertThat(notModifiedProjectResponse.getStatusCode(), is(HttpStatus.NOT_MODIFIED));
+        assertThat(modifiedProjectResponse.getStatusCode(), is(HttpStatus.OK));
+        assertThat(modifiedProjectResponse.getHeaders().getETag(), not(projectETag));
+        assertNotNull(modifiedProjectResponse.getBody());
+        assertThat(modifiedProjectResponse.getBody().getStatus(), is("ARCHIVE"));
+    }
+
     @Test
     @DisplayName("Find by title should return HttpStatus.NOT_FOUND if project is not in DB")
     public void findByUnknownTitle() {
@@ -259,6 +515,7 @@ class ProjectControllerTest extends SpringBootTests {
                 .title("Test")
                 .dateOfReceipt("2021-09-13")
                 .newTitle(newTitle)
+                .version(0L)
                 .build();
 
         // When
@@ -278,6 +535,77 @@ class ProjectControllerTest extends SpringBootTests {
         assertThat(response.getBody().getDateOfReceipt(), is("2021-09-13"));
     }
 
+    @Test
+    @DisplayName("Update Project without a version should return HttpStatus.BAD_REQUEST and keep the project")
+    public void updateProjectWithoutVersion() {
+        // Given
+        UserEntity testUser1 = createTestUser1();
+        createTestProject(testUser1);
+        UpdateProjectDto updateProjectDto = UpdateProjectDto.builder()
+                .owner(UserDto.builder().loginName(testUser1.getLoginName()).role("ADMIN").build())
+                .customer("New Customer")
+                .title("Test")
+                .newTitle("Test")
+                .dateOfReceipt("2021-09-13")
+                .build();
+
+        // When
+        ResponseEntity<ProjectDto> response = testRestTemplate.exchange(
+                getUrl() + "/Test",
+                HttpMethod.PUT,
+                new HttpEntity<>(updateProjectDto, testUtil.getAuthHeader("ADMIN")),
+                ProjectDto.class);
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+        assertThat(projectRepository.findByTitle("Test").orElseThrow().getCustomer(), not("New Customer"));
+    }
+
+    @Test
+    @DisplayName("Update Project with an outdated version should return HttpStatus.CONFLICT and keep the other update")
+    public void updateProjectWithOutdatedVersion() {
+        // Given
+        UserEntity testUser1 = createTestUser1();
+        createTestUser2();
+        createTestProject(testUser1);
+
+        UpdateProjectDto firstUpdate = UpdateProjectDto.builder()
+                .owner(UserDto.builder().loginName("Other User").role("ADMIN").build())
+                .customer("First Customer")
+                .title("Test")
+                .newTitle("Test")
+                .dateOfReceipt("2021-09-13")
+                .version(0L)
+                .build();
+        UpdateProjectDto secondUpdate = UpdateProjectDto.builder()
+                .owner(UserDto.builder().loginName("Other User").role("ADMIN").build())
+                .customer("Second Customer")
+                .title("Test")
+                .newTitle("Test")
+                .dateOfReceipt("2021-09-13")
+                .version(0L)
+                .build();
+
+        // When
+        ResponseEntity<ProjectDto> firstResponse = testRestTemplate.exchange(
+                getUrl() + "/Test",
+                HttpMethod.PUT,
+                new HttpEntity<>(firstUpdate, testUtil.getAuthHeader("ADMIN")),
+                ProjectDto.class);
+        ResponseEntity<ProjectDto> secondResponse = testRestTemplate.exchange(
+                getUrl() + "/Test",
+                HttpMethod.PUT,
+                new HttpEntity<>(secondUpdate, testUtil.getAuthHeader("ADMIN")),
+                ProjectDto.class);
+
+        // Then
+        assertThat(firstResponse.getStatusCode(), is(HttpStatus.OK));
+        assertNotNull(firstResponse.getBody());
+        assertThat(firstResponse.getBody().getVersion(), is(1L));
+        assertThat(secondResponse.getStatusCode(), is(HttpStatus.CONFLICT));
+        assertThat(projectRepository.findByTitle("Test").orElseThrow().getCustomer(), is("First Customer"));
+    }
+
     private static Stream<Arguments> getArgumentsForUpdateProjectTest() {
         return Stream.of(
                 Arguments.of("Test", "Test"),
@@ -301,6 +629,7 @@ class ProjectControllerTest extends SpringBootTests {
                 .newTitle("Test")
                 .dateOfReceipt("2021-09-13")
                 .writer(writers)
+                .version(0L)
                 .build();
 
         // When
@@ -352,6 +681,7 @@ class ProjectControllerTest extends SpringBootTests {
                 .newTitle("Test")
                 .dateOfReceipt("2021-09-13")
                 .motionDesign(motionDesigners)
+                .version(0L)
                 .build();
 
         // When
@@ -385,6 +715,39 @@ class ProjectControllerTest extends SpringBootTests {
         );
     }
 
+    @Test
+    @DisplayName("Update Project should return HttpStatus.CONFLICT if a new writer would have too many deadlines")
+    public void updateWritersOfProjectWithTooManyDeadlines() {
+        // Given
+        createTestUser1();
+        createTestUser2();
+        for (String title : List.of("Erstes Projekt", "Zweites Projekt")) {
+            testRestTemplate.exchange(
+                    getUrl(),
+                    HttpMethod.POST,
+                    new HttpEntity<>(createProjectDto(title, UserDto.builder().loginName("Test").role("ADMIN").build(), "2021-09-13"), testUtil.getAuthHeader("ADMIN")),
+                    ProjectDto.class);
+        }
+        List<UserDto> writers = List.of(UserDto.builder().loginName("Other User").role("ADMIN").build());
+
+        // When
+        ResponseEntity<ProjectDto> firstResponse = testRestTemplate.exchange(
+                getUrl() + "/Erstes Projekt",
+                HttpMethod.PUT,
+                new HttpEntity<>(createUpdateProjectDtoWithWriters("Erstes Projekt", writers), testUtil.getAuthHeader("ADMIN")),
+                ProjectDto.class);
+        ResponseEntity<ProjectDto> secondResponse = testRestTemplate.exchange(
+                getUrl() + "/Zweites Projekt",
+                HttpMethod.PUT,
+                new HttpEntity<>(createUpdateProjectDtoWithWriters("Zweites Projekt", writers), testUtil.getAuthHeader("ADMIN")),
+                ProjectDto.class);
+
+        // Then
+        assertThat(firstResponse.getStatusCode(), is(HttpStatus.OK));
+        assertThat(secondResponse.getStatusCode(), is(HttpStatus.CONFLICT));
+        assertThat(projectRepository.findByTitle("Zweites Projekt").orElseThrow().getWriters(), is(empty()));
+    }
+
     @Test
     @DisplayName("Update Project should return HttpStatus.BAD_REQUEST if path variable and project title don't match")
     public void updateProjectWithNonMatchingPathVariable() {
@@ -592,6 +955,33 @@ class ProjectControllerTest extends SpringBootTests {
     }
 
 
+    private ProjectDto createProjectDto(String title, UserDto owner, String dateOfReceipt) {
+        return ProjectDto.builder()
+                .title(title)
+                .customer("Test Customer")
+                .owner(owner)
+                .dateOfReceipt(dateOfReceipt)
+                .build();
+    }
+
+    private UpdateProjectDto createUpdateProjectDtoWithWriters(String title, List<UserDto> writers) {
+        return UpdateProjectDto.builder()
+                .owner(UserDto.builder().loginName("Test").role("ADMIN").build())
+                .customer("Test")
+                .title(title)
+                .newTitle(title)
+                .dateOfReceipt("2021-09-13")
+                .writer(writers)
+                .version(0L)
+                .build();
+    }
+
+    private HttpHeaders getAuthHeaderWithIfNoneMatch(String eTag) {
+        HttpHeaders headers = testUtil.getAuthHeader("ADMIN");
+        headers.setIfNoneMatch(eTag);
+        return headers;
+    }
+
     private String getUrl() {
         return String.format("http://localhost:%s/api/project-planner/project", port);
     }
@@ -0,0 +1,148 @@
+package de.mcstangl.projectplanner.controller;
+
+import de.mcstangl.projectplanner.SpringBootTests;
+import de.mcstangl.projectplanner.api.BoardChangesDto;
+import de.mcstangl.projectplanner.api.ProjectDto;
+import de.mcstangl.projectplanner.api.TombstoneDto;
+import de.mcstangl.projectplanner.api.UserDto;
+import de.mcstangl.projectplanner.enums.UserRole;
+import de.mcstangl.projectplanner.model.UserEntity;
+import de.mcstangl.projectplanner.repository.ProjectRepository;
+import de.mcstangl.projectplanner.repository.TombstoneRepository;
+import de.mcstangl.projectplanner.repository.UserRepository;
+import de.mcstangl.projectplanner.service.ProjectCache;
+import de.mcstangl.projectplanner.service.UserDirectory;
+import de.mcstangl.projectplanner.util.TestUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SyncControllerTest extends SpringBootTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestUtil testUtil;
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectCache projectCache;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @AfterEach
+    public void clear() {
+        projectRepository.deleteAll();
+        projectCache.invalidateAll();
+        tombstoneRepository.deleteAll();
+        userRepository.deleteAll();
+        userDirectory.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Find changes since a version should only return the rows changed and deleted after it")
+    public void findChangesSince() {
+        // Given
+        userRepository.save(UserEntity.builder()
+                .loginName("Owner")
+                .password("Test")
+                .role(UserRole.ADMIN).build());
+        testRestTemplate.exchange(
+                getUrl() + "/project",
+                HttpMethod.POST,
+                new HttpEntity<>(ProjectDto.builder()
+                        .owner(UserDto.builder().loginName("Owner").role("ADMIN").build())
+                        .title("Sync")
+                        .customer("Test")
+                        .dateOfReceipt("2021-09-13")
+                        .build(), testUtil.getAuthHeader("ADMIN")),
+                ProjectDto.class);
+
+        BoardChangesDto initialChanges = sync("0").getBody();
+        assertNotNull(initialChanges);
+        Long milestoneIdToDelete = initialChanges.getMilestones().get(0).getId();
+
+        testRestTemplate.exchange(
+                getUrl() + "/project/Sync/archive",
+                HttpMethod.PUT,
+                new HttpEntity<>(null, testUtil.getAuthHeader("ADMIN")),
+                ProjectDto.class);
+        testRestTemplate.exchange(
+                getUrl() + "/milestone/" + milestoneIdToDelete,
+                HttpMethod.DELETE,
+                new HttpEntity<>(null, testUtil.getAuthHeader("ADMIN")),
+                Object.class);
+
+        // When
+        ResponseEntity<BoardChangesDto> response = sync(initialChanges.getVersion());
+        BoardChangesDto upToDateChanges = sync(response.getBody().getVersion()).getBody();
+
+        // Then
+        assertThat(initialChanges.getProjects().size(), is(1));
+        assertThat(initialChanges.getMilestones().size(), is(9));
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(Long.parseLong(response.getBody().getVersion()), greaterThan(Long.parseLong(initialChanges.getVersion())));
+        assertThat(response.getBody().getProjects().size(), is(1));
+        assertThat(response.getBody().getProjects().get(0).getStatus(), is("ARCHIVE"));
+        assertThat(response.getBody().getMilestones(), empty());
+        assertThat(response.getBody().getDeleted(), contains(TombstoneDto.builder()
+                .type("MILESTONE")
+                .projectTitle("Sync")
+                .milestoneId(milestoneIdToDelete)
+                .build()));
+
+        assertNotNull(upToDateChanges);
+        assertThat(upToDateChanges.getVersion(), is(response.getBody().getVersion()));
+        assertThat(upToDateChanges.getProjects(), empty());
+        assertThat(upToDateChanges.getDeleted(), empty());
+    }
+
+    @Test
+    @DisplayName("Find changes since a negative version should return HttpStatus.BAD_REQUEST")
+    public void findChangesSinceNegativeVersion() {
+        // When
+        ResponseEntity<BoardChangesDto> response = sync("-1");
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    }
+
+    private ResponseEntity<BoardChangesDto> sync(String since) {
+        return testRestTemplate.exchange(
+                getUrl() + "/sync?since=" + since,
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                BoardChangesDto.class);
+    }
+
+    private String getUrl() {
+        return String.format("http://localhost:%s/api/project-planner", port);
+    }
+}
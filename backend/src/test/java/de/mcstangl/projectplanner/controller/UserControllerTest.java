@@ -8,6 +8,8 @@ import de.mcstangl.projectplanner.model.ProjectEntity;
 import de.mcstangl.projectplanner.model.UserEntity;
 import de.mcstangl.projectplanner.repository.ProjectRepository;
 import de.mcstangl.projectplanner.repository.UserRepository;
+import de.mcstangl.projectplanner.service.ProjectCache;
+import de.mcstangl.projectplanner.service.UserDirectory;
 import de.mcstangl.projectplanner.util.TestUtil;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
@@ -46,9 +48,15 @@ class UserControllerTest extends SpringBootTests {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDirectory userDirectory;
+
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private ProjectCache projectCache;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -58,7 +66,9 @@ class UserControllerTest extends SpringBootTests {
     @AfterEach
     public void clear() {
         projectRepository.deleteAll();
+        projectCache.invalidateAll();
         userRepository.deleteAll();
+        userDirectory.invalidateAll();
     }
 
 
@@ -0,0 +1,160 @@
+package de.mcstangl.projectplanner.controller;
+
+import de.mcstangl.projectplanner.SpringBootTests;
+import de.mcstangl.projectplanner.api.StaffWorkloadDto;
+import de.mcstangl.projectplanner.api.UserDto;
+import de.mcstangl.projectplanner.api.WeeklyWorkloadDto;
+import de.mcstangl.projectplanner.enums.ProjectStatus;
+import de.mcstangl.projectplanner.enums.UserRole;
+import de.mcstangl.projectplanner.model.MilestoneEntity;
+import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.model.UserEntity;
+import de.mcstangl.projectplanner.repository.MilestoneRepository;
+import de.mcstangl.projectplanner.repository.ProjectRepository;
+import de.mcstangl.projectplanner.repository.UserRepository;
+import de.mcstangl.projectplanner.service.ProjectCache;
+import de.mcstangl.projectplanner.service.UserDirectory;
+import de.mcstangl.projectplanner.service.WorkloadService;
+import de.mcstangl.projectplanner.util.TestUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.*;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WorkloadControllerTest extends SpringBootTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestUtil testUtil;
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private MilestoneRepository milestoneRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectCache projectCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private WorkloadService workloadService;
+
+    @AfterEach
+    public void tearDown() {
+        milestoneRepository.deleteAll();
+        projectRepository.deleteAll();
+        projectCache.invalidateAll();
+        userRepository.deleteAll();
+        userDirectory.invalidateAll();
+        workloadService.invalidate();
+    }
+
+    @Test
+    @DisplayName("Get workload should count open projects and open milestones per week of every user")
+    public void getWorkload() {
+        // Given
+        UserEntity dave = createUser("Dave");
+        UserEntity anna = createUser("Anna");
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        ProjectEntity openProject = createProject("Open", ProjectStatus.OPEN, Set.of(dave), Set.of(dave));
+        ProjectEntity archivedProject = createProject("Archived", ProjectStatus.ARCHIVE, Set.of(anna), Set.of());
+        createMilestone(openProject, "Overdue", weekStart.minusDays(1), null);
+        createMilestone(openProject, "This week", today, null);
+        createMilestone(openProject, "Finished", today, today);
+        createMilestone(openProject, "Next week", weekStart.plusWeeks(1), null);
+        createMilestone(archivedProject, "Archived", today, null);
+
+        // When
+        ResponseEntity<StaffWorkloadDto[]> response = testRestTemplate.exchange(
+                getUrl() + "?weeks=2",
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                StaffWorkloadDto[].class);
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertNotNull(response.getBody());
+        assertThat(List.of(response.getBody()), contains(
+                new StaffWorkloadDto(new UserDto("Dave", "USER"), 1, 1, List.of(
+                        new WeeklyWorkloadDto(weekStart.toString(), 1),
+                        new WeeklyWorkloadDto(weekStart.plusWeeks(1).toString(), 1))),
+                new StaffWorkloadDto(new UserDto("Anna", "USER"), 0, 0, List.of(
+                        new WeeklyWorkloadDto(weekStart.toString(), 0),
+                        new WeeklyWorkloadDto(weekStart.plusWeeks(1).toString(), 0)))));
+    }
+
+    @Test
+    @DisplayName("Get workload with too many weeks should return HttpStatus.BAD_REQUEST")
+    public void getWorkloadWithTooManyWeeks() {
+        // When
+        ResponseEntity<StaffWorkloadDto> response = testRestTemplate.exchange(
+                getUrl() + "?weeks=27",
+                HttpMethod.GET,
+                new HttpEntity<>(null, testUtil.getAuthHeader("USER")),
+                StaffWorkloadDto.class);
+
+        // Then
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    }
+
+    private String getUrl() {
+        return String.format("http://localhost:%s/api/project-planner/workload", port);
+    }
+
+    private UserEntity createUser(String loginName) {
+        return userRepository.save(UserEntity.builder()
+                .loginName(loginName)
+                .password("Test")
+                .role(UserRole.USER)
+                .build());
+    }
+
+    private ProjectEntity createProject(String title, ProjectStatus status, Set<UserEntity> writers, Set<UserEntity> motionDesigners) {
+        return projectRepository.save(ProjectEntity.builder()
+                .title(title)
+                .customer("Test")
+                .dateOfReceipt(Date.valueOf("2021-01-01"))
+                .status(status)
+                .writers(new HashSet<>(writers))
+                .motionDesigners(new HashSet<>(motionDesigners))
+                .build());
+    }
+
+    private void createMilestone(ProjectEntity project, String title, LocalDate dueDate, LocalDate dateFinished) {
+        milestoneRepository.save(MilestoneEntity.builder()
+                .projectEntity(project)
+                .title(title)
+                .dueDate(Date.valueOf(dueDate))
+                .dateFinished(dateFinished == null ? null : Date.valueOf(dateFinished))
+                .build());
+    }
+}
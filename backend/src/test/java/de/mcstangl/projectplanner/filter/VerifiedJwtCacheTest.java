@@ -0,0 +1,93 @@
+package de.mcstangl.projectplanner.filter;
+
+import de.mcstangl.projectplanner.config.JwtConfig;
+import de.mcstangl.projectplanner.enums.UserRole;
+import de.mcstangl.projectplanner.model.UserEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VerifiedJwtCacheTest {
+
+    @Test
+    @DisplayName("Get should return a cached token and count hits and misses")
+    public void getCachedToken() {
+        // Given
+        VerifiedJwtCache verifiedJwtCache = createCache(10);
+        verifiedJwtCache.put("token", createVerifiedJwt(Instant.now().plus(Duration.ofDays(1))));
+
+        // When
+        VerifiedJwtCache.VerifiedJwt actual = verifiedJwtCache.get("token");
+        VerifiedJwtCache.VerifiedJwt unknown = verifiedJwtCache.get("unknown");
+
+        // Then
+        assertNotNull(actual);
+        assertThat(actual.getPrincipal().getLoginName(), is("Hans"));
+        assertNull(unknown);
+        assertThat(verifiedJwtCache.getHitCount(), is(1L));
+        assertThat(verifiedJwtCache.getMissCount(), is(1L));
+    }
+
+    @Test
+    @DisplayName("Get should not return a token after it expired")
+    public void getExpiredToken() {
+        // Given
+        VerifiedJwtCache verifiedJwtCache = createCache(10);
+        verifiedJwtCache.put("token", createVerifiedJwt(Instant.now().plusMillis(50)));
+
+        // When
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        VerifiedJwtCache.VerifiedJwt actual = verifiedJwtCache.get("token");
+
+        // Then
+        assertNull(actual);
+        assertThat(verifiedJwtCache.size(), is(0));
+    }
+
+    @Test
+    @DisplayName("Put should evict the least recently used token when the cache is full")
+    public void putEvictsLeastRecentlyUsedToken() {
+        // Given
+        VerifiedJwtCache verifiedJwtCache = createCache(2);
+        Instant expiresAt = Instant.now().plus(Duration.ofDays(1));
+        verifiedJwtCache.put("first", createVerifiedJwt(expiresAt));
+        verifiedJwtCache.put("second", createVerifiedJwt(expiresAt));
+        verifiedJwtCache.get("first");
+
+        // When
+        verifiedJwtCache.put("third", createVerifiedJwt(expiresAt));
+
+        // Then
+        assertThat(verifiedJwtCache.size(), is(2));
+        assertNotNull(verifiedJwtCache.get("first"));
+        assertNull(verifiedJwtCache.get("second"));
+        assertNotNull(verifiedJwtCache.get("third"));
+    }
+
+    private VerifiedJwtCache createCache(int cacheSize) {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setCacheSize(cacheSize);
+        return new VerifiedJwtCache(jwtConfig);
+    }
+
+    private VerifiedJwtCache.VerifiedJwt createVerifiedJwt(Instant expiresAt) {
+        UserEntity principal = UserEntity.builder()
+                .loginName("Hans")
+                .role(UserRole.ADMIN)
+                .build();
+        return new VerifiedJwtCache.VerifiedJwt(principal, List.of(new SimpleGrantedAuthority("ADMIN")), expiresAt);
+    }
+}
@@ -1,6 +1,7 @@
 package de.mcstangl.projectplanner.model;
 
 import de.mcstangl.projectplanner.SpringBootTests;
+import de.mcstangl.projectplanner.repository.MilestoneDependencyRepository;
 import de.mcstangl.projectplanner.repository.MilestoneRepository;
 import de.mcstangl.projectplanner.repository.ProjectRepository;
 import org.junit.jupiter.api.DisplayName;
@@ -10,10 +11,12 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
 
 import java.sql.Date;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +36,12 @@ class MilestoneEntityTest extends SpringBootTests {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private MilestoneDependencyRepository milestoneDependencyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
 
     @Test
     @Transactional
@@ -41,7 +50,7 @@ class MilestoneEntityTest extends SpringBootTests {
         // Given
         ProjectEntity testProject = createTestProject();
         createTestMilestone(testProject);
-        createTestMilestone(testProject);
+        createOpenTestMilestone(testProject, "Test2", Date.valueOf("2021-03-13"));
 
         // When
         List<MilestoneEntity> actual = milestoneRepository.findAllByProjectEntity(testProject);
@@ -50,6 +59,88 @@ class MilestoneEntityTest extends SpringBootTests {
         assertThat(actual.size(), is(2));
     }
 
+    @Test
+    @Transactional
+    @DisplayName("Find all projected by project title should return the columns of the milestones of this project")
+    public void findAllProjectedByProjectTitle() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity milestone = createOpenTestMilestone(testProject, "Test2", Date.valueOf("2021-03-13"));
+
+        // When
+        List<MilestoneProjection> actual = milestoneRepository.findAllProjectedByProjectTitle(testProject.getTitle());
+
+        // Then
+        assertThat(actual, contains(new MilestoneProjection(milestone.getId(), testProject.getId(), testProject.getTitle(),
+                "Test2", LocalDate.parse("2021-03-13"), null, milestone.getVersion())));
+    }
+
+
+    @Test
+    @Transactional
+    @DisplayName("Find all leading into downstream should return the dependencies of every later milestone with all of their predecessors")
+    public void findAllLeadingIntoDownstreamOf() {
+        // Given
+        milestoneDependencyRepository.saveAllAndFlush(List.of(
+                createDependency(1L, 2L),
+                createDependency(2L, 3L),
+                createDependency(2L, 4L),
+                createDependency(4L, 3L),
+                createDependency(5L, 3L),
+                createDependency(6L, 1L)));
+
+        // When
+        List<MilestoneDependencyEntity> actual = milestoneDependencyRepository.findAllLeadingIntoDownstreamOf(2L);
+
+        // Then
+        assertThat(actual.stream().map(dependency -> dependency.getPredecessorId() + "->" + dependency.getSuccessorId()).toList(),
+                containsInAnyOrder("1->2", "2->3", "2->4", "4->3", "5->3"));
+    }
+
+    @Test
+    @DisplayName("Database migration should create the due date index of open milestones")
+    public void openDueDateIndexExists() {
+        // When
+        Integer actual = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_MILESTONE_OPEN_DUE_DATE'",
+                Integer.class);
+
+        // Then
+        assertThat(actual, greaterThan(0));
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Exists by project and title should only find milestones with another id")
+    public void existsByProjectEntityAndTitle() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity testMilestone = createOpenTestMilestone(testProject, "Test", Date.valueOf("2021-03-13"));
+
+        // When
+        boolean actual = milestoneRepository.existsByProjectEntityAndTitle(testProject, "Test");
+        boolean actualForSameMilestone = milestoneRepository.existsByProjectEntityAndTitleAndIdNot(testProject, "Test", testMilestone.getId());
+
+        // Then
+        assertTrue(actual);
+        assertFalse(actualForSameMilestone);
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Save a second milestone with the same title for a project should fail")
+    public void saveWithDuplicateTitle() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        createOpenTestMilestone(testProject, "Test", Date.valueOf("2021-03-13"));
+
+        // Then
+        assertThrows(DataIntegrityViolationException.class, () -> milestoneRepository.saveAndFlush(MilestoneEntity.builder()
+                .projectEntity(testProject)
+                .dueDate(Date.valueOf("2021-03-14"))
+                .title("Test")
+                .build()));
+    }
 
     @Test
     @Transactional
@@ -146,6 +237,15 @@ class MilestoneEntityTest extends SpringBootTests {
         assertTrue(actual.isEmpty());
     }
 
+    private MilestoneDependencyEntity createDependency(Long predecessorId, Long successorId) {
+        return MilestoneDependencyEntity.builder()
+                .projectId(1L)
+                .predecessorId(predecessorId)
+                .successorId(successorId)
+                .businessDays(1)
+                .build();
+    }
+
     private ProjectEntity createTestProject() {
         return projectRepository.save(
                 ProjectEntity.builder()
@@ -156,6 +256,16 @@ class MilestoneEntityTest extends SpringBootTests {
         );
     }
 
+    private MilestoneEntity createOpenTestMilestone(ProjectEntity testProject, String title, Date dueDate) {
+        return milestoneRepository.save(
+                MilestoneEntity.builder()
+                        .projectEntity(testProject)
+                        .dueDate(dueDate)
+                        .title(title)
+                        .build()
+        );
+    }
+
     private MilestoneEntity createTestMilestone(ProjectEntity testProject) {
         return milestoneRepository.save(
                 MilestoneEntity.builder()
@@ -1,8 +1,11 @@
 package de.mcstangl.projectplanner.model;
 
 import de.mcstangl.projectplanner.SpringBootTests;
+import de.mcstangl.projectplanner.config.DatabaseMigration;
 import de.mcstangl.projectplanner.enums.ProjectStatus;
+import de.mcstangl.projectplanner.enums.UserRole;
 import de.mcstangl.projectplanner.repository.ProjectRepository;
+import de.mcstangl.projectplanner.repository.UserRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -10,9 +13,14 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -26,6 +34,18 @@ class ProjectEntityTest extends SpringBootTests {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DatabaseMigration databaseMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
 
 
 
@@ -128,6 +148,133 @@ class ProjectEntityTest extends SpringBootTests {
 
     }
 
+    @Test
+    @Transactional
+    @DisplayName("Find all projected sorted by next due date should order projects by their earliest open milestone")
+    public void findAllProjectedSortedByNextDueDate() {
+        // Given
+        createTestProject();
+        createTestProjectWithMilestones("Later", Date.valueOf("2021-10-01"), Date.valueOf("2021-09-01"));
+        createTestProjectWithMilestones("Sooner", Date.valueOf("2021-09-20"), null);
+
+        // When
+        List<String> actual = projectRepository.findAllProjectedByStatusSortedByNextDueDate(ProjectStatus.OPEN).stream()
+                .map(ProjectProjection::title)
+                .toList();
+
+        // Then
+        assertThat(actual, contains("Sooner", "Later", "Test"));
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Update next due dates should follow finished milestones and saving the project should not overwrite it")
+    public void updateNextDueDates() {
+        // Given
+        ProjectEntity testProject = createTestProjectWithMilestones("Project", Date.valueOf("2021-09-20"), null);
+        testProject.getMilestones().get(0).setDateFinished(Date.valueOf("2021-09-20"));
+        projectRepository.saveAndFlush(testProject);
+
+        // When
+        projectRepository.updateNextDueDates(List.of(testProject.getId()));
+        entityManager.clear();
+        ProjectEntity afterUpdate = projectRepository.findById(testProject.getId()).orElseThrow();
+        Date nextDueDateAfterUpdate = afterUpdate.getNextDueDate();
+        afterUpdate.setCustomer("Other");
+        afterUpdate.setNextDueDate(Date.valueOf("2021-09-01"));
+        projectRepository.saveAndFlush(afterUpdate);
+        entityManager.clear();
+        ProjectEntity afterSave = projectRepository.findById(testProject.getId()).orElseThrow();
+
+        // Then
+        assertNull(nextDueDateAfterUpdate);
+        assertNull(afterSave.getNextDueDate());
+        assertThat(afterSave.getCustomer(), is("Other"));
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Find all by ids should load every project once with all of its staff and milestones")
+    public void findAllByIdIn() {
+        // Given
+        UserEntity firstUser = userRepository.save(UserEntity.builder().loginName("First").password("Test").role(UserRole.USER).build());
+        UserEntity secondUser = userRepository.save(UserEntity.builder().loginName("Second").password("Test").role(UserRole.USER).build());
+        ProjectEntity testProject = createTestProjectWithMilestones("Staffed", Date.valueOf("2021-10-01"), Date.valueOf("2021-09-01"));
+        testProject.setWriters(new HashSet<>(List.of(firstUser, secondUser)));
+        testProject.setMotionDesigners(new HashSet<>(List.of(firstUser, secondUser)));
+        projectRepository.saveAndFlush(testProject);
+        entityManager.clear();
+
+        // When
+        List<ProjectEntity> actual = projectRepository.findAllByIdIn(List.of(testProject.getId()));
+
+        // Then
+        assertThat(actual.size(), is(1));
+        assertThat(actual.get(0).getWriters().size(), is(2));
+        assertThat(actual.get(0).getMotionDesigners().size(), is(2));
+        assertThat(actual.get(0).getMilestones().size(), is(2));
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Find ids after a cursor should continue with the projects that have no open milestone")
+    public void findIdsSortedByNextDueDateAfter() {
+        // Given
+        ProjectEntity withoutMilestones = createTestProject();
+        createTestProjectWithMilestones("Sooner", Date.valueOf("2021-09-20"), null);
+        ProjectEntity later = createTestProjectWithMilestones("Later", Date.valueOf("2021-10-01"), null);
+
+        // When
+        List<Long> actual = projectRepository.findIdsByStatusSortedByNextDueDateAfter(
+                ProjectStatus.OPEN, Date.valueOf("2021-09-20"), "Sooner", PageRequest.of(0, 10));
+
+        // Then
+        assertThat(actual, contains(later.getId(), withoutMilestones.getId()));
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Queries by status should leave out archived projects and list the archive newest first")
+    public void findByStatus() {
+        // Given
+        createTestProjectWithMilestones("Open", Date.valueOf("2021-09-20"), null);
+        ProjectEntity olderArchived = createTestProjectWithMilestones("Older", Date.valueOf("2021-09-20"), null);
+        olderArchived.setStatus(ProjectStatus.ARCHIVE);
+        ProjectEntity newerArchived = createTestProjectWithMilestones("Newer", Date.valueOf("2021-09-20"), null);
+        newerArchived.setStatus(ProjectStatus.ARCHIVE);
+        newerArchived.setDateOfReceipt(Date.valueOf("2021-09-14"));
+        projectRepository.saveAllAndFlush(List.of(olderArchived, newerArchived));
+
+        // When
+        List<String> openProjects = projectRepository.findAllProjectedByStatusSortedByNextDueDate(ProjectStatus.OPEN).stream()
+                .map(ProjectProjection::title)
+                .toList();
+        List<Long> archivedProjectIds = projectRepository.findIdsByStatusSortedByDateOfReceiptDesc(ProjectStatus.ARCHIVE, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(openProjects, contains("Open"));
+        assertThat(archivedProjectIds, contains(newerArchived.getId(), olderArchived.getId()));
+        assertThat(projectRepository.countByStatus(ProjectStatus.ARCHIVE), is(2L));
+    }
+
+    @Test
+    @DisplayName("Database migration should move the project sequence behind ids that are already taken and never back")
+    public void alignProjectSequence() {
+        // Given
+        jdbcTemplate.update("INSERT INTO projects (project_id, title, date_of_receipt, status, version) VALUES (100000, 'Taken', DATE '2021-09-13', 'OPEN', 0)");
+
+        // When
+        databaseMigration.migrate();
+        long nextValue = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR project_seq", Long.class);
+        databaseMigration.migrate();
+        long nextValueAfterSecondRun = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR project_seq", Long.class);
+        jdbcTemplate.update("DELETE FROM projects WHERE project_id = 100000");
+
+        // Then
+        assertThat(nextValue, is(100050L));
+        assertThat(nextValueAfterSecondRun, is(100100L));
+    }
+
     @Test
     @Transactional
     @DisplayName("Delete should delete project from DB")
@@ -144,11 +291,38 @@ class ProjectEntityTest extends SpringBootTests {
     }
 
 
+    private ProjectEntity createTestProjectWithMilestones(String title, Date openDueDate, Date finishedDueDate) {
+        ProjectEntity projectEntity = ProjectEntity.builder()
+                .title(title)
+                .dateOfReceipt(Date.valueOf("2021-09-13"))
+                .customer("Test")
+                .status(ProjectStatus.OPEN)
+                .milestones(new ArrayList<>())
+                .build();
+        projectEntity.getMilestones().add(MilestoneEntity.builder()
+                .title("Open")
+                .dueDate(openDueDate)
+                .projectEntity(projectEntity)
+                .build());
+        if (finishedDueDate != null) {
+            projectEntity.getMilestones().add(MilestoneEntity.builder()
+                    .title("Finished")
+                    .dueDate(finishedDueDate)
+                    .dateFinished(finishedDueDate)
+                    .projectEntity(projectEntity)
+                    .build());
+        }
+        ProjectEntity savedProjectEntity = projectRepository.saveAndFlush(projectEntity);
+        projectRepository.updateNextDueDates(List.of(savedProjectEntity.getId()));
+        return savedProjectEntity;
+    }
+
     private ProjectEntity createTestProject() {
         return projectRepository.saveAndFlush(
                 ProjectEntity.builder()
                         .title("Test")
                         .dateOfReceipt(Date.valueOf("2021-09-13"))
+                        .status(ProjectStatus.OPEN)
                         .customer("Test").build()
         );
     }
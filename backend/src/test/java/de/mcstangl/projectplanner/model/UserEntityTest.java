@@ -2,7 +2,12 @@ package de.mcstangl.projectplanner.model;
 
 import de.mcstangl.projectplanner.SpringBootTests;
 import de.mcstangl.projectplanner.enums.UserRole;
+import de.mcstangl.projectplanner.repository.ProjectRepository;
 import de.mcstangl.projectplanner.repository.UserRepository;
+import de.mcstangl.projectplanner.service.UserEntityDetailsService;
+import de.mcstangl.projectplanner.service.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -12,11 +17,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManagerFactory;
+import java.sql.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +35,18 @@ class UserEntityTest extends SpringBootTests {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserEntityDetailsService userEntityDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     @Transactional
     @DisplayName("Save should persist user in DB")
@@ -84,6 +105,23 @@ class UserEntityTest extends SpringBootTests {
 
     }
 
+    @Test
+    @Transactional
+    @DisplayName("Find all projected should return login name and role of all users")
+    public void findAllProjected() {
+        // Given
+        UserEntity adminUser = createAdminUser();
+        UserEntity user = createUser();
+
+        // When
+        List<UserProjection> actual = userRepository.findAllProjected();
+
+        // Then
+        assertThat(actual, contains(
+                new UserProjection(adminUser.getLoginName(), adminUser.getRole()),
+                new UserProjection(user.getLoginName(), user.getRole())));
+    }
+
 
     @Test
     @Transactional
@@ -112,6 +150,75 @@ class UserEntityTest extends SpringBootTests {
         assertTrue(actualOptional.isEmpty());
     }
 
+    @Test
+    @Transactional
+    @DisplayName("Count linked projects should count every project once, no matter how the user is linked")
+    public void countLinkedProjects() {
+        // Given
+        UserEntity user = createUser();
+        UserEntity adminUser = createAdminUser();
+        createProjectsLinkedToUser(user, 0, 2);
+        projectRepository.save(ProjectEntity.builder()
+                .title("Writer only")
+                .customer("Test")
+                .dateOfReceipt(Date.valueOf("2021-09-13"))
+                .owner(adminUser)
+                .writers(Set.of(user, adminUser))
+                .build());
+
+        // When
+        long actual = userRepository.countLinkedProjects(user);
+
+        // Then
+        assertThat(actual, is(3L));
+        assertThat(userRepository.countLinkedProjects(adminUser), is(1L));
+    }
+
+    @Test
+    @DisplayName("Login and user lookup should execute the same number of SQL statements no matter how many projects the user has")
+    public void loginStatementCountIsIndependentOfProjects() {
+        // Given
+        UserEntity user = createUser();
+        createProjectsLinkedToUser(user, 0, 1);
+        long statementsWithOneProject = countStatementsOfLoginAndLookup(user.getLoginName());
+        createProjectsLinkedToUser(user, 1, 20);
+
+        // When
+        long statementsWithManyProjects = countStatementsOfLoginAndLookup(user.getLoginName());
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+
+        // Then
+        assertThat(statementsWithOneProject, is(2L));
+        assertThat(statementsWithManyProjects, is(statementsWithOneProject));
+    }
+
+    private long countStatementsOfLoginAndLookup(String loginName) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        userEntityDetailsService.loadUserByUsername(loginName);
+        userService.findByLoginName(loginName);
+
+        long statementCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        return statementCount;
+    }
+
+    private void createProjectsLinkedToUser(UserEntity user, int from, int to) {
+        for (int i = from; i < to; i++) {
+            projectRepository.save(ProjectEntity.builder()
+                    .title("Test" + i)
+                    .customer("Test")
+                    .dateOfReceipt(Date.valueOf("2021-09-13"))
+                    .owner(user)
+                    .writers(Set.of(user))
+                    .motionDesigners(Set.of(user))
+                    .build());
+        }
+    }
+
     private UserEntity createAdminUser() {
         return userRepository.save(UserEntity.builder()
                 .loginName("Hans")
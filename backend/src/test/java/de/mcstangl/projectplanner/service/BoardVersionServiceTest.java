@@ -0,0 +1,67 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.enums.ChangeType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+class BoardVersionServiceTest {
+
+    private final BoardVersionService boardVersionService = new BoardVersionService();
+
+    @Test
+    @DisplayName("A project change should change the ETag of the project and the board but not of other projects")
+    public void projectChanged() {
+        // Given
+        String boardETag = boardVersionService.getBoardETag();
+        String projectETag = boardVersionService.getProjectETag("Test");
+        String otherProjectETag = boardVersionService.getProjectETag("Other");
+
+        // When
+        boardVersionService.projectChanged("Test");
+
+        // Then
+        assertThat(boardVersionService.getBoardETag(), not(boardETag));
+        assertThat(boardVersionService.getProjectETag("Test"), not(projectETag));
+        assertThat(boardVersionService.getProjectETag("Other"), is(otherProjectETag));
+    }
+
+    @Test
+    @DisplayName("Changing all projects should change the ETag of every project")
+    public void allProjectsChanged() {
+        // Given
+        boardVersionService.projectChanged("Test");
+        String projectETag = boardVersionService.getProjectETag("Test");
+        String otherProjectETag = boardVersionService.getProjectETag("Other");
+
+        // When
+        boardVersionService.allProjectsChanged();
+
+        // Then
+        assertThat(boardVersionService.getProjectETag("Test"), not(projectETag));
+        assertThat(boardVersionService.getProjectETag("Other"), not(otherProjectETag));
+    }
+
+    @Test
+    @DisplayName("Renaming a project should forget the previous title and change its ETag")
+    public void projectRenamed() {
+        // Given
+        boardVersionService.projectChanged("Test");
+        String previousTitleETag = boardVersionService.getProjectETag("Test");
+
+        // When
+        boardVersionService.onBoardChanged(BoardChangedEvent.builder()
+                .type(ChangeType.PROJECT_UPDATED)
+                .projectTitle("Renamed")
+                .previousProjectTitle("Test")
+                .build());
+
+        // Then
+        assertThat(boardVersionService.getProjectETag("Test"), not(previousTitleETag));
+        assertThat(boardVersionService.getProjectETag("Test"), is(boardVersionService.getProjectETag("Unknown")));
+        assertThat(boardVersionService.getProjectETag("Renamed"), not(previousTitleETag));
+    }
+}
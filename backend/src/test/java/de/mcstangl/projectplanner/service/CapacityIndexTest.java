@@ -0,0 +1,179 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.config.CapacityConfig;
+import de.mcstangl.projectplanner.enums.ChangeType;
+import de.mcstangl.projectplanner.model.ProjectDueDate;
+import de.mcstangl.projectplanner.model.StaffAssignment;
+import de.mcstangl.projectplanner.repository.StaffWorkloadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class CapacityIndexTest {
+
+    private final StaffWorkloadRepository staffWorkloadRepositoryMock = mock(StaffWorkloadRepository.class);
+
+    private CapacityIndex capacityIndex;
+
+    // Test1 works on project 1 with four deadlines from Monday 2021-09-13 to Thursday 2021-09-16
+    @BeforeEach
+    void setup() {
+        CapacityConfig capacityConfig = new CapacityConfig();
+        capacityConfig.setMaxDeadlines(6);
+        capacityConfig.setWindowBusinessDays(5);
+        capacityIndex = new CapacityIndex(staffWorkloadRepositoryMock, new DateService(), capacityConfig);
+
+        when(staffWorkloadRepositoryMock.findOpenProjectStaff()).thenReturn(List.of(
+                new StaffAssignment(1L, "Projekt 1", "Test1"),
+                new StaffAssignment(1L, "Projekt 1", "Test2")));
+        when(staffWorkloadRepositoryMock.findOpenDueDatesOfStaffedProjects()).thenReturn(List.of(
+                new ProjectDueDate(1L, LocalDate.parse("2021-09-13")),
+                new ProjectDueDate(1L, LocalDate.parse("2021-09-14")),
+                new ProjectDueDate(1L, LocalDate.parse("2021-09-15")),
+                new ProjectDueDate(1L, LocalDate.parse("2021-09-16"))));
+    }
+
+    @Test
+    @DisplayName("Find conflict should return the first window of business days with too many deadlines")
+    public void findConflict() {
+        // When
+        Optional<CapacityConflict> actual = capacityIndex.findConflict("Test1", 2L, List.of(
+                LocalDate.parse("2021-09-16"),
+                LocalDate.parse("2021-09-17"),
+                LocalDate.parse("2021-09-17")));
+
+        // Then
+        assertThat(actual, is(Optional.of(new CapacityConflict(
+                "Test1", LocalDate.parse("2021-09-13"), LocalDate.parse("2021-09-17"), 7, 6))));
+    }
+
+    @Test
+    @DisplayName("Find conflict should count business days only, so a window can span a weekend")
+    public void findConflictOverWeekend() {
+        // When
+        Optional<CapacityConflict> actual = capacityIndex.findConflict("Test1", 2L, List.of(
+                LocalDate.parse("2021-09-20"),
+                LocalDate.parse("2021-09-20"),
+                LocalDate.parse("2021-09-21"),
+                LocalDate.parse("2021-09-21"),
+                LocalDate.parse("2021-09-21")));
+
+        // Then
+        assertThat(actual, is(Optional.of(new CapacityConflict(
+                "Test1", LocalDate.parse("2021-09-15"), LocalDate.parse("2021-09-21"), 7, 6))));
+    }
+
+    @Test
+    @DisplayName("Find conflict should accept deadlines that stay within the limit or are spread out")
+    public void findConflictWithinLimit() {
+        // When
+        Optional<CapacityConflict> withinLimit = capacityIndex.findConflict("Test1", 2L, List.of(
+                LocalDate.parse("2021-09-16"),
+                LocalDate.parse("2021-09-17")));
+        Optional<CapacityConflict> spreadOut = capacityIndex.findConflict("Test1", 2L, List.of(
+                LocalDate.parse("2021-09-20"),
+                LocalDate.parse("2021-09-21"),
+                LocalDate.parse("2021-09-22"),
+                LocalDate.parse("2021-09-23")));
+
+        // Then
+        assertTrue(withinLimit.isEmpty());
+        assertTrue(spreadOut.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Find conflict should not count the deadlines of the project the user is assigned to twice")
+    public void findConflictOnOwnProject() {
+        // When
+        Optional<CapacityConflict> actual = capacityIndex.findConflict("Test1", 1L, List.of(
+                LocalDate.parse("2021-09-13"),
+                LocalDate.parse("2021-09-14"),
+                LocalDate.parse("2021-09-15"),
+                LocalDate.parse("2021-09-16")));
+
+        // Then
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Find conflict should load the index once and only reload projects that changed")
+    public void findConflictReloadsChangedProjects() {
+        // Given
+        List<LocalDate> dueDates = List.of(LocalDate.parse("2021-09-17"), LocalDate.parse("2021-09-17"), LocalDate.parse("2021-09-17"));
+        assertThat(capacityIndex.findConflict("Test2", 2L, dueDates).isPresent(), is(true));
+        when(staffWorkloadRepositoryMock.findOpenProjectStaffByTitleIn(List.of("Projekt 1"))).thenReturn(List.of(
+                new StaffAssignment(1L, "Projekt 1", "Test1")));
+        when(staffWorkloadRepositoryMock.findOpenDueDatesOfStaffedProjectsByTitleIn(List.of("Projekt 1"))).thenReturn(List.of(
+                new ProjectDueDate(1L, LocalDate.parse("2021-09-13"))));
+
+        // When
+        capacityIndex.onBoardChanged(BoardChangedEvent.builder().type(ChangeType.PROJECT_UPDATED).projectTitle("Projekt 1").build());
+        Optional<CapacityConflict> removedUser = capacityIndex.findConflict("Test2", 2L, dueDates);
+        Optional<CapacityConflict> remainingUser = capacityIndex.findConflict("Test1", 2L, dueDates);
+
+        // Then
+        assertTrue(removedUser.isEmpty());
+        assertTrue(remainingUser.isEmpty());
+        verify(staffWorkloadRepositoryMock, times(1)).findOpenProjectStaff();
+        verify(staffWorkloadRepositoryMock, times(1)).findOpenProjectStaffByTitleIn(List.of("Projekt 1"));
+    }
+
+    @Test
+    @DisplayName("Find conflict should load the index again when it was invalidated during the load")
+    public void findConflictInvalidatedDuringLoad() {
+        // Given
+        when(staffWorkloadRepositoryMock.findOpenDueDatesOfStaffedProjects())
+                .thenAnswer(invocation -> {
+                    capacityIndex.invalidateAll();
+                    return List.of();
+                })
+                .thenReturn(List.of(new ProjectDueDate(1L, LocalDate.parse("2021-09-13"))));
+
+        // When
+        Optional<CapacityConflict> actual = capacityIndex.findConflict("Test1", 1L, List.of(LocalDate.parse("2021-09-13")));
+
+        // Then
+        assertTrue(actual.isEmpty());
+        verify(staffWorkloadRepositoryMock, times(2)).findOpenProjectStaff();
+    }
+
+    @Test
+    @DisplayName("Board changes should not wait for a load of the index that is still running")
+    public void onBoardChangedDuringLoad() throws Exception {
+        // Given
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch loadReleased = new CountDownLatch(1);
+        when(staffWorkloadRepositoryMock.findOpenProjectStaff()).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            loadReleased.await();
+            return List.of(new StaffAssignment(1L, "Projekt 1", "Test1"));
+        });
+        CompletableFuture<Optional<CapacityConflict>> check = CompletableFuture.supplyAsync(
+                () -> capacityIndex.findConflict("Test1", 2L, List.of(LocalDate.parse("2021-09-17"))));
+        loadStarted.await();
+
+        // When
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            capacityIndex.onBoardChanged(BoardChangedEvent.builder().type(ChangeType.PROJECT_UPDATED).projectTitle("Projekt 1").build());
+            capacityIndex.onBoardChanged(BoardChangedEvent.builder().type(ChangeType.USER_UPDATED).build());
+        });
+        loadReleased.countDown();
+
+        // Then
+        assertTrue(check.get().isEmpty());
+        verify(staffWorkloadRepositoryMock, times(2)).findOpenProjectStaff();
+    }
+}
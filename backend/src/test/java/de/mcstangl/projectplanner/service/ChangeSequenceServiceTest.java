@@ -0,0 +1,85 @@
+package de.mcstangl.projectplanner.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChangeSequenceServiceTest {
+
+    private final JdbcTemplate jdbcTemplateMock = mock(JdbcTemplate.class);
+
+    private final ChangeSequenceService changeSequenceService = new ChangeSequenceService(jdbcTemplateMock);
+
+    @BeforeEach
+    void setup() {
+        when(jdbcTemplateMock.queryForObject("SELECT nextval('change_seq')", Long.class)).thenReturn(100L, 101L, 102L);
+    }
+
+    @Test
+    @DisplayName("The completed change sequence should stay below a writer that commits after a later writer")
+    public void findCompletedChangeSequenceWithInterleavedWriters() {
+        // Given
+        TransactionSynchronization firstWriter = drawInTransaction();
+        TransactionSynchronization secondWriter = drawInTransaction();
+
+        // When
+        secondWriter.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        long whileFirstWriterIsOpen = changeSequenceService.findCompletedChangeSequence();
+        firstWriter.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        long afterBothCommitted = changeSequenceService.findCompletedChangeSequence();
+
+        // Then
+        assertThat(whileFirstWriterIsOpen, is(99L));
+        assertThat(afterBothCommitted, is(101L));
+    }
+
+    @Test
+    @DisplayName("A rolled back writer should not hold back the completed change sequence")
+    public void findCompletedChangeSequenceAfterRollback() {
+        // Given
+        TransactionSynchronization writer = drawInTransaction();
+
+        // When
+        writer.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        long actual = changeSequenceService.findCompletedChangeSequence();
+
+        // Then
+        assertThat(actual, is(100L));
+    }
+
+    @Test
+    @DisplayName("Before anything was drawn the completed change sequence should be where the sequence stands")
+    public void findCompletedChangeSequenceAfterStart() {
+        // When
+        long actual = changeSequenceService.findCompletedChangeSequence();
+
+        // Then
+        assertThat(actual, is(100L));
+    }
+
+    @Test
+    @DisplayName("Drawing a change sequence outside of a transaction should fail")
+    public void nextWithoutTransaction() {
+        // Then
+        assertThrows(IllegalStateException.class, changeSequenceService::next);
+    }
+
+    private TransactionSynchronization drawInTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeSequenceService.next();
+            return TransactionSynchronizationManager.getSynchronizations().get(0);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
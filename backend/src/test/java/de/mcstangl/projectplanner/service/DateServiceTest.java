@@ -1,12 +1,17 @@
 package de.mcstangl.projectplanner.service;
 
+import de.mcstangl.projectplanner.config.BusinessDayConfig;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.sql.Date;
+import java.time.LocalDate;
 import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -87,4 +92,84 @@ class DateServiceTest {
                 Arguments.of(Date.valueOf("2021-09-03"),10, Calendar.FRIDAY)
         );
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @MethodSource("getArgumentsForAddBusinessDaysTest")
+    public void addBusinessDaysFromAnyWeekday(LocalDate startDate, int daysToAdd, LocalDate expected) {
+        // Given
+        DateService dateService = new DateService();
+
+        // When
+        LocalDate actual = dateService.addBusinessDays(startDate, daysToAdd);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    private static Stream<Arguments> getArgumentsForAddBusinessDaysTest() {
+        return Stream.of(
+                Arguments.of(LocalDate.parse("2021-09-04"), 1, LocalDate.parse("2021-09-06")),
+                Arguments.of(LocalDate.parse("2021-09-05"), 5, LocalDate.parse("2021-09-10")),
+                Arguments.of(LocalDate.parse("2021-09-06"), 0, LocalDate.parse("2021-09-06")),
+                Arguments.of(LocalDate.parse("2021-09-06"), 100, LocalDate.parse("2022-01-24")),
+                Arguments.of(LocalDate.parse("2021-09-06"), 1000, LocalDate.parse("2025-07-07")),
+                Arguments.of(LocalDate.parse("2021-09-06"), -1, LocalDate.parse("2021-09-03")),
+                Arguments.of(LocalDate.parse("2021-09-04"), -1, LocalDate.parse("2021-09-03")),
+                Arguments.of(LocalDate.parse("2022-01-03"), -3, LocalDate.parse("2021-12-29"))
+        );
+    }
+
+    @Test
+    @DisplayName("Add business days should skip the configured holidays of the region")
+    public void addBusinessDaysWithHolidays() {
+        // Given
+        DateService dateService = new DateService(createBusinessDayConfig());
+
+        // When
+        LocalDate actual = dateService.addBusinessDays(LocalDate.parse("2021-12-23"), 3);
+
+        // Then
+        assertThat(actual, is(LocalDate.parse("2021-12-29")));
+        assertFalse(dateService.isBusinessDay(LocalDate.parse("2021-12-24")));
+        assertFalse(dateService.isBusinessDay(LocalDate.parse("2022-12-26")));
+        assertTrue(dateService.isBusinessDay(LocalDate.parse("2022-12-27")));
+    }
+
+    @Test
+    @DisplayName("Business days between should be the inverse of add business days")
+    public void businessDaysBetween() {
+        // Given
+        DateService dateService = new DateService(createBusinessDayConfig());
+        LocalDate startDate = LocalDate.parse("2021-09-06");
+
+        for (int days = -600; days <= 600; days++) {
+            // When
+            LocalDate endDate = dateService.addBusinessDays(startDate, days);
+            int actual = dateService.businessDaysBetween(startDate, endDate);
+
+            // Then
+            assertThat(actual, is(days));
+        }
+    }
+
+    @Test
+    @DisplayName("Creating a date service for a region without holidays should fail")
+    public void createWithUnknownRegion() {
+        // Given
+        BusinessDayConfig businessDayConfig = createBusinessDayConfig();
+        businessDayConfig.setRegion("AT");
+
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new DateService(businessDayConfig));
+
+        // Then
+        assertThat(exception.getMessage(), is("Für die Region AT sind keine Feiertage konfiguriert"));
+    }
+
+    private BusinessDayConfig createBusinessDayConfig() {
+        BusinessDayConfig businessDayConfig = new BusinessDayConfig();
+        businessDayConfig.setRegion("DE");
+        businessDayConfig.setHolidays(Map.of("DE", List.of("12-24", "12-25", "12-26", "2021-12-31")));
+        return businessDayConfig;
+    }
+}
@@ -0,0 +1,28 @@
+package de.mcstangl.projectplanner.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class LoadGenerationTest {
+
+    private final LoadGeneration loadGeneration = new LoadGeneration();
+
+    @Test
+    @DisplayName("A load should stay current until the next invalidation")
+    public void isCurrent() {
+        // Given
+        long generation = loadGeneration.current();
+
+        // When
+        boolean currentBeforeInvalidation = loadGeneration.isCurrent(generation);
+        loadGeneration.invalidate();
+
+        // Then
+        assertThat(currentBeforeInvalidation, is(true));
+        assertThat(loadGeneration.isCurrent(generation), is(false));
+        assertThat(loadGeneration.isCurrent(loadGeneration.current()), is(true));
+    }
+}
@@ -0,0 +1,193 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.model.MilestoneDependencyEntity;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MilestoneScheduleTest {
+
+    private final DateService dateService = new DateService();
+
+    @Test
+    @DisplayName("Analyze should calculate earliest and latest dates and mark milestones without slack as critical")
+    public void analyze() {
+        // Given
+        MilestoneSchedule schedule = new MilestoneSchedule(createTestMilestones(null), createTestDependencies(), dateService);
+
+        // When
+        List<MilestoneScheduleEntry> actual = schedule.analyze();
+
+        // Then
+        assertThat(actual, containsInAnyOrder(
+                new MilestoneScheduleEntry(1L, "A", LocalDate.parse("2021-09-06"), LocalDate.parse("2021-09-06"), LocalDate.parse("2021-09-06"), 0, true),
+                new MilestoneScheduleEntry(2L, "B", LocalDate.parse("2021-09-08"), LocalDate.parse("2021-09-08"), LocalDate.parse("2021-09-08"), 0, true),
+                new MilestoneScheduleEntry(3L, "C", LocalDate.parse("2021-09-13"), LocalDate.parse("2021-09-13"), LocalDate.parse("2021-09-13"), 0, true),
+                new MilestoneScheduleEntry(4L, "D", LocalDate.parse("2021-09-07"), LocalDate.parse("2021-09-07"), LocalDate.parse("2021-09-10"), 3, false)));
+        assertThat(actual.get(actual.size() - 1).milestoneId(), is(3L));
+    }
+
+    @Test
+    @DisplayName("Analyze should ignore milestones without due date")
+    public void analyzeWithoutDueDate() {
+        // Given
+        List<MilestoneProjection> milestones = new ArrayList<>(createTestMilestones(null));
+        milestones.add(new MilestoneProjection(5L, 1L, "Test", "E", (LocalDate) null, null, 0));
+        List<MilestoneDependencyEntity> dependencies = new ArrayList<>(createTestDependencies());
+        dependencies.add(createDependency(3L, 5L, 1));
+        MilestoneSchedule schedule = new MilestoneSchedule(milestones, dependencies, dateService);
+
+        // When
+        List<MilestoneScheduleEntry> actual = schedule.analyze();
+
+        // Then
+        assertThat(actual.stream().map(MilestoneScheduleEntry::milestoneId).toList(), containsInAnyOrder(1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    @DisplayName("Move to should push back every milestone downstream that would be due too early and skip weekends")
+    public void moveTo() {
+        // Given
+        MilestoneSchedule schedule = new MilestoneSchedule(createTestMilestones(null), createTestDependencies(), dateService);
+
+        // When
+        Map<Long, LocalDate> actual = schedule.moveTo(1L, LocalDate.parse("2021-09-08"));
+
+        // Then
+        assertThat(actual, is(Map.of(
+                1L, LocalDate.parse("2021-09-08"),
+                2L, LocalDate.parse("2021-09-10"),
+                3L, LocalDate.parse("2021-09-15"))));
+        assertThat(schedule.analyze(), hasItem(
+                new MilestoneScheduleEntry(3L, "C", LocalDate.parse("2021-09-15"), LocalDate.parse("2021-09-15"), LocalDate.parse("2021-09-15"), 0, true)));
+    }
+
+    @Test
+    @DisplayName("Move to should stop at milestones that are still due late enough")
+    public void moveToWithSlack() {
+        // Given
+        MilestoneSchedule schedule = new MilestoneSchedule(createTestMilestones(null), createTestDependencies(), dateService);
+
+        // When
+        Map<Long, LocalDate> actual = schedule.moveTo(4L, LocalDate.parse("2021-09-09"));
+
+        // Then
+        assertThat(actual, is(Map.of(4L, LocalDate.parse("2021-09-09"))));
+    }
+
+    @Test
+    @DisplayName("Move to an earlier date should not pull dependent milestones forward")
+    public void moveToEarlierDate() {
+        // Given
+        MilestoneSchedule schedule = new MilestoneSchedule(createTestMilestones(null), createTestDependencies(), dateService);
+
+        // When
+        Map<Long, LocalDate> actual = schedule.moveTo(1L, LocalDate.parse("2021-09-01"));
+
+        // Then
+        assertThat(actual, is(Map.of(1L, LocalDate.parse("2021-09-01"))));
+    }
+
+    @Test
+    @DisplayName("Move to should not move finished milestones")
+    public void moveToWithFinishedMilestone() {
+        // Given
+        MilestoneSchedule schedule = new MilestoneSchedule(createTestMilestones(LocalDate.parse("2021-09-08")), createTestDependencies(), dateService);
+
+        // When
+        Map<Long, LocalDate> actual = schedule.moveTo(1L, LocalDate.parse("2021-09-08"));
+
+        // Then
+        assertThat(actual, is(Map.of(1L, LocalDate.parse("2021-09-08"))));
+    }
+
+    @Test
+    @DisplayName("Move to with an unknown milestone should not change anything")
+    public void moveToUnknownMilestone() {
+        // Given
+        MilestoneSchedule schedule = new MilestoneSchedule(createTestMilestones(null), createTestDependencies(), dateService);
+
+        // When
+        Map<Long, LocalDate> actual = schedule.moveTo(42L, LocalDate.parse("2021-09-08"));
+
+        // Then
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Reschedule should move a milestone behind a new predecessor and everything after it")
+    public void reschedule() {
+        // Given
+        List<MilestoneDependencyEntity> dependencies = new ArrayList<>(createTestDependencies());
+        dependencies.add(createDependency(4L, 2L, 5));
+        MilestoneSchedule schedule = new MilestoneSchedule(createTestMilestones(null), dependencies, dateService);
+
+        // When
+        Map<Long, LocalDate> actual = schedule.reschedule(2L);
+
+        // Then
+        assertThat(actual, is(Map.of(
+                2L, LocalDate.parse("2021-09-14"),
+                3L, LocalDate.parse("2021-09-17"))));
+    }
+
+    @Test
+    @DisplayName("Would create cycle should detect dependencies back to an earlier milestone")
+    public void wouldCreateCycle() {
+        // Given
+        List<MilestoneDependencyEntity> dependencies = createTestDependencies();
+
+        // Then
+        assertTrue(MilestoneSchedule.wouldCreateCycle(dependencies, 3L, 1L));
+        assertTrue(MilestoneSchedule.wouldCreateCycle(dependencies, 1L, 1L));
+        assertFalse(MilestoneSchedule.wouldCreateCycle(dependencies, 1L, 3L));
+        assertFalse(MilestoneSchedule.wouldCreateCycle(dependencies, 4L, 2L));
+    }
+
+    @Test
+    @DisplayName("Creating a schedule with a cycle should throw IllegalStateException")
+    public void createWithCycle() {
+        // Given
+        List<MilestoneDependencyEntity> dependencies = new ArrayList<>(createTestDependencies());
+        dependencies.add(createDependency(3L, 1L, 1));
+
+        // Then
+        assertThrows(IllegalStateException.class, () -> new MilestoneSchedule(createTestMilestones(null), dependencies, dateService));
+    }
+
+    // A -2-> B -3-> C and D -1-> C, 2021-09-06 is a Monday
+    private List<MilestoneProjection> createTestMilestones(LocalDate dateFinishedOfB) {
+        return List.of(
+                new MilestoneProjection(1L, 1L, "Test", "A", LocalDate.parse("2021-09-06"), null, 0),
+                new MilestoneProjection(2L, 1L, "Test", "B", LocalDate.parse("2021-09-08"), dateFinishedOfB, 0),
+                new MilestoneProjection(3L, 1L, "Test", "C", LocalDate.parse("2021-09-13"), null, 0),
+                new MilestoneProjection(4L, 1L, "Test", "D", LocalDate.parse("2021-09-07"), null, 0));
+    }
+
+    private List<MilestoneDependencyEntity> createTestDependencies() {
+        return List.of(
+                createDependency(1L, 2L, 2),
+                createDependency(2L, 3L, 3),
+                createDependency(4L, 3L, 1));
+    }
+
+    private MilestoneDependencyEntity createDependency(Long predecessorId, Long successorId, int businessDays) {
+        return MilestoneDependencyEntity.builder()
+                .projectId(1L)
+                .predecessorId(predecessorId)
+                .successorId(successorId)
+                .businessDays(businessDays)
+                .build();
+    }
+}
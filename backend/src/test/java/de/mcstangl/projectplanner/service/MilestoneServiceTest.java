@@ -1,20 +1,33 @@
 package de.mcstangl.projectplanner.service;
 
+import de.mcstangl.projectplanner.enums.ChangeType;
+import de.mcstangl.projectplanner.enums.DefaultMilestone;
+import de.mcstangl.projectplanner.enums.TombstoneType;
+import de.mcstangl.projectplanner.model.MilestoneDependencyEntity;
 import de.mcstangl.projectplanner.model.MilestoneEntity;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
 import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.model.TombstoneEntity;
+import de.mcstangl.projectplanner.repository.MilestoneDependencyRepository;
 import de.mcstangl.projectplanner.repository.MilestoneRepository;
 import de.mcstangl.projectplanner.repository.ProjectRepository;
+import de.mcstangl.projectplanner.repository.TombstoneRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
 import java.sql.Date;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +36,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class MilestoneServiceTest {
@@ -36,6 +50,18 @@ class MilestoneServiceTest {
     @Mock
     private DateService dateServiceMock;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisherMock;
+
+    @Mock
+    private ChangeSequenceService changeSequenceServiceMock;
+
+    @Mock
+    private TombstoneRepository tombstoneRepositoryMock;
+
+    @Mock
+    private MilestoneDependencyRepository milestoneDependencyRepositoryMock;
+
     @InjectMocks
     private MilestoneService mileStoneService;
 
@@ -58,24 +84,85 @@ class MilestoneServiceTest {
         closeable.close();
     }
 
+    @Test
+    @DisplayName("Find upcoming without login name should query all open milestones in the window")
+    public void findUpcoming() {
+        // Given
+        LocalDate today = LocalDate.now();
+        when(dateServiceMock.addBusinessDays(today, 5)).thenReturn(today.plusDays(7));
+        MilestoneEntity testMilestone = MilestoneEntity.builder().id(1L).title("Test").build();
+        when(milestoneRepositoryMock.findAllByDateFinishedIsNullAndDueDateBetweenOrderByDueDateAscIdAsc(
+                Date.valueOf(today), Date.valueOf(today.plusDays(7)))).thenReturn(List.of(testMilestone));
+
+        // When
+        List<MilestoneEntity> actual = mileStoneService.findUpcoming(5, null);
+
+        // Then
+        assertThat(actual, contains(testMilestone));
+        verify(milestoneRepositoryMock, never()).findAllOpenByDueDateBetweenAndStaffMember(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Find upcoming with login name should only query the milestones of projects of the staff member")
+    public void findUpcomingForStaffMember() {
+        // Given
+        LocalDate today = LocalDate.now();
+        when(dateServiceMock.addBusinessDays(today, 5)).thenReturn(today.plusDays(7));
+
+        // When
+        mileStoneService.findUpcoming(5, "Test");
+
+        // Then
+        verify(milestoneRepositoryMock, times(1)).findAllOpenByDueDateBetweenAndStaffMember(
+                Date.valueOf(today), Date.valueOf(today.plusDays(7)), "Test");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 261})
+    @DisplayName("Find upcoming with a window out of range should throw IllegalArgumentException")
+    public void findUpcomingWithInvalidWindow(int businessDays) {
+        // When
+        assertThrows(IllegalArgumentException.class, () -> mileStoneService.findUpcoming(businessDays, null));
+    }
+
     @Test
     @DisplayName("Find by project title should return all milestones found")
     public void findAllByProjectTitle() {
         // Given
-        when(projectRepositoryMock.findByTitle("Test")).thenReturn(
-                Optional.of(ProjectEntity.builder().title("Test").id(1L).build())
-        );
+        MilestoneProjection milestone = new MilestoneProjection(1L, 1L, "Test", "Test", LocalDate.parse("2021-01-01"), null, 0L);
+        when(milestoneRepositoryMock.findAllProjectedByProjectTitle("Test")).thenReturn(List.of(milestone));
 
         // When
-        mileStoneService.findAllByProjectTitle("Test");
+        List<MilestoneProjection> actual = mileStoneService.findAllByProjectTitle("Test");
 
         // Then
-        verify(milestoneRepositoryMock, times(1))
-                .findAllByProjectEntity(projectEntityArgumentCaptor.capture());
+        assertThat(actual, contains(milestone));
+        verify(projectRepositoryMock, never()).existsByTitle(any());
+    }
+
+    @Test
+    @DisplayName("Find by project title should return an empty list for a project without milestones")
+    public void findAllByProjectTitleWithoutMilestones() {
+        // Given
+        when(milestoneRepositoryMock.findAllProjectedByProjectTitle("Test")).thenReturn(List.of());
+        when(projectRepositoryMock.existsByTitle("Test")).thenReturn(true);
+
+        // When
+        List<MilestoneProjection> actual = mileStoneService.findAllByProjectTitle("Test");
+
+        // Then
+        assertThat(actual, is(empty()));
+    }
 
-        ProjectEntity capturedArgument = projectEntityArgumentCaptor.getValue();
+    @Test
+    @DisplayName("Find by project title with an unknown project should throw EntityNotFoundException")
+    public void findAllByProjectTitleWithUnknownProject() {
+        // Given
+        when(milestoneRepositoryMock.findAllProjectedByProjectTitle("Unknown")).thenReturn(List.of());
+        when(projectRepositoryMock.existsByTitle("Unknown")).thenReturn(false);
 
-        assertThat(capturedArgument.getTitle(), is("Test"));
+        // When
+        assertThrows(EntityNotFoundException.class, () -> mileStoneService.findAllByProjectTitle("Unknown"));
     }
 
 
@@ -83,16 +170,14 @@ class MilestoneServiceTest {
     @DisplayName("Create new milestone should persist the milestone")
     public void createNewMilestone() {
         // Given
-        when(projectRepositoryMock.findByTitle("Test")).thenReturn(
-                Optional.of(ProjectEntity.builder().title("Test").id(1L).build())
-        );
         MilestoneEntity testMilestone1 = getTestMilestone();
 
         // When
         mileStoneService.createNewMilestone(testMilestone1);
 
         // Then
-        verify(milestoneRepositoryMock, times(1)).save(testMilestone1);
+        verify(milestoneRepositoryMock, times(1)).saveAndFlush(testMilestone1);
+        verify(projectRepositoryMock, times(1)).updateNextDueDates(List.of(1L));
     }
 
 
@@ -117,18 +202,25 @@ class MilestoneServiceTest {
     @DisplayName("Create new milestone with a milestone title that already exits for the project should fail")
     public void createNewMilestoneWithAnExistingTitle() {
         // Given
-        when(milestoneRepositoryMock.findAllByProjectEntity(any())).thenReturn(
-                List.of(MilestoneEntity.builder()
-                                .id(1L)
-                        .projectEntity(ProjectEntity.builder().title("Test").build())
-                        .dateFinished(Date.valueOf("2021-12-12"))
-                        .dueDate(Date.valueOf("2021-03-13"))
-                        .title("Test1")
-                        .build())
-        );
-        when(projectRepositoryMock.findByTitle("Test")).thenReturn(
-                Optional.of(ProjectEntity.builder().title("Test").id(1L).build())
-        );
+        when(milestoneRepositoryMock.existsByProjectEntityAndTitle(any(), eq("Test1"))).thenReturn(true);
+
+        // When
+        assertThrows(EntityExistsException.class, () -> mileStoneService.createNewMilestone(MilestoneEntity.builder()
+                .projectEntity(ProjectEntity.builder().title("Test").build())
+                .title("Test1")
+                .build()));
+
+        // Then
+        verify(milestoneRepositoryMock, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Create new milestone should fail when a milestone with the same title was created concurrently")
+    public void createNewMilestoneWithConcurrentlyCreatedTitle() {
+        // Given
+        when(milestoneRepositoryMock.existsByProjectEntityAndTitle(any(), eq("Test1"))).thenReturn(false);
+        when(milestoneRepositoryMock.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC.UK_MILESTONE_PROJECT_TITLE_INDEX_C ON PUBLIC.MILESTONE(PROJECT_ID, TITLE)\""));
 
         // When
         assertThrows(EntityExistsException.class, () -> mileStoneService.createNewMilestone(MilestoneEntity.builder()
@@ -136,6 +228,25 @@ class MilestoneServiceTest {
                 .title("Test1")
                 .build()));
 
+        // Then
+        verifyNoInteractions(applicationEventPublisherMock);
+    }
+
+    @Test
+    @DisplayName("Update a milestone with the title of another milestone of the project should fail")
+    public void updateWithAnExistingTitle() {
+        // Given
+        when(milestoneRepositoryMock.existsByProjectEntityAndTitleAndIdNot(any(), eq("Test1"), eq(2L))).thenReturn(true);
+
+        // When
+        assertThrows(EntityExistsException.class, () -> mileStoneService.updateMilestone(MilestoneEntity.builder()
+                .id(2L)
+                .projectEntity(ProjectEntity.builder().title("Test").build())
+                .title("Test1")
+                .build()));
+
+        // Then
+        verify(milestoneRepositoryMock, never()).saveAndFlush(any());
     }
 
 
@@ -143,27 +254,17 @@ class MilestoneServiceTest {
     @DisplayName("Update a milestone should change all fields")
     public void update() {
         // Given
-        when(milestoneRepositoryMock.findAllByProjectEntity(any())).thenReturn(
-                List.of(MilestoneEntity.builder()
-                        .id(1L)
-                        .projectEntity(ProjectEntity.builder().title("Test").build())
-                        .dateFinished(Date.valueOf("2021-12-12"))
-                        .dueDate(Date.valueOf("2021-03-13"))
-                        .title("Test1")
-                        .build()));
-
-        when(projectRepositoryMock.findByTitle("Test")).thenReturn(
-                Optional.of(ProjectEntity.builder().title("Test").id(1L).build()));
+        when(milestoneRepositoryMock.existsByProjectEntityAndTitleAndIdNot(any(), eq("New Title"), eq(1L))).thenReturn(false);
 
         // When
         mileStoneService.updateMilestone(MilestoneEntity.builder()
                 .id(1L)
-                .projectEntity(ProjectEntity.builder().title("Test").build())
+                .projectEntity(ProjectEntity.builder().id(1L).title("Test").build())
                 .dateFinished(Date.valueOf("2021-01-01"))
                 .dueDate(Date.valueOf("2021-01-01"))
                 .title("New Title")
                 .build());
-        verify(milestoneRepositoryMock, times(1)).save(milestoneEntityArgumentCaptor.capture());
+        verify(milestoneRepositoryMock, times(1)).saveAndFlush(milestoneEntityArgumentCaptor.capture());
         MilestoneEntity actual = milestoneEntityArgumentCaptor.getValue();
 
         // Then
@@ -171,7 +272,10 @@ class MilestoneServiceTest {
         assertThat(actual.getTitle(), is("New Title"));
         assertThat(actual.getDateFinished().toString(), is("2021-01-01"));
         assertThat(actual.getDueDate().toString(), is("2021-01-01"));
-        assertThat(actual.getProjectEntity(), is(ProjectEntity.builder().title("Test").build()));
+        assertThat(actual.getProjectEntity(), is(ProjectEntity.builder().id(1L).title("Test").build()));
+        verify(projectRepositoryMock, times(1)).updateNextDueDates(List.of(1L));
+        verify(milestoneDependencyRepositoryMock, times(1)).findAllLeadingIntoDownstreamOf(1L);
+        verify(milestoneRepositoryMock, never()).findAllProjectedByProjectTitle(any());
     }
 
     @Test
@@ -180,6 +284,8 @@ class MilestoneServiceTest {
         // Given
         MilestoneEntity testMilestone = getTestMilestone();
         Long idToDelete = testMilestone.getId();
+        ArgumentCaptor<TombstoneEntity> tombstoneCaptor = ArgumentCaptor.forClass(TombstoneEntity.class);
+        when(changeSequenceServiceMock.next()).thenReturn(5L);
 
         when(milestoneRepositoryMock.findById(idToDelete))
                 .thenReturn(Optional.of(testMilestone));
@@ -195,7 +301,12 @@ class MilestoneServiceTest {
         verify(projectRepositoryMock, times(1)).save(projectEntityArgumentCaptor.capture());
         List<MilestoneEntity> actualMilestoneList = projectEntityArgumentCaptor.getValue().getMilestones();
         assertTrue(actualMilestoneList.isEmpty());
-
+        verify(projectRepositoryMock, times(1)).updateNextDueDates(List.of(1L));
+        verify(tombstoneRepositoryMock, times(1)).save(tombstoneCaptor.capture());
+        assertThat(tombstoneCaptor.getValue().getType(), is(TombstoneType.MILESTONE));
+        assertThat(tombstoneCaptor.getValue().getMilestoneId(), is(idToDelete));
+        assertThat(tombstoneCaptor.getValue().getChangeSequence(), is(5L));
+        verify(milestoneDependencyRepositoryMock, times(1)).deleteAllOfMilestone(idToDelete);
     }
 
     @Test
@@ -235,50 +346,192 @@ class MilestoneServiceTest {
 
 
     @Test
-    @DisplayName("Sort milestone by dueDate should return a sorted list")
-    public void sortMilestonesByDueDate(){
+    @DisplayName("Get default milestones should return a list of milestones with expected due dates")
+    public void getDefaultMilestones(){
         // Given
-        MilestoneEntity firstMilestone = MilestoneEntity.builder()
-                .id(1L)
-                .dueDate(Date.valueOf("2021-01-01"))
-                .title("Test1")
-                .build();
-        MilestoneEntity secondMilestone = MilestoneEntity.builder()
-                .id(2L)
-                .dueDate(Date.valueOf("2021-02-02"))
-                .title("Test2")
-                .build();
-        MilestoneEntity thirdMilestone = MilestoneEntity.builder()
-                .id(3L)
-                .dueDate(Date.valueOf("2021-02-03"))
-                .title("Test3")
-                .build();
+        ProjectEntity testProject = ProjectEntity.builder().build();
+        Date testStartDate = Date.valueOf("2021-08-30");
 
         // When
-        List<MilestoneEntity> actual = mileStoneService.sortMilestonesByDueDate(List.of(thirdMilestone, secondMilestone, firstMilestone));
+        List<MilestoneEntity> actual = mileStoneService.getDefaultMilestones(testStartDate, testProject);
 
         // Then
-        assertThat(actual, contains(firstMilestone, secondMilestone, thirdMilestone));
+        assertThat(actual.size(), is(9));
+    }
+
+    @Test
+    @DisplayName("Reschedule should move the milestone and all later open milestones of the project in one update")
+    public void reschedule() {
+        // Given
+        mockBusinessDays(2);
+        MilestoneProjection earlier = new MilestoneProjection(1L, 1L, "Test", "Earlier", LocalDate.parse("2021-09-01"), null, 0);
+        MilestoneProjection toMove = new MilestoneProjection(2L, 1L, "Test", "Move", LocalDate.parse("2021-09-03"), null, 1);
+        MilestoneProjection finished = new MilestoneProjection(3L, 1L, "Test", "Finished", LocalDate.parse("2021-09-06"), LocalDate.parse("2021-09-01"), 0);
+        MilestoneProjection later = new MilestoneProjection(4L, 1L, "Test", "Later", LocalDate.parse("2021-09-10"), null, 0);
+        when(milestoneRepositoryMock.findAllProjectedOfSameProject(2L)).thenReturn(List.of(earlier, toMove, finished, later));
+        when(milestoneRepositoryMock.updateDueDates(any(), eq(7L))).thenReturn(new int[]{1, 1});
+        when(changeSequenceServiceMock.next()).thenReturn(7L);
 
+        // When
+        List<MilestoneProjection> actual = mileStoneService.reschedule(2L, 2);
+
+        // Then
+        assertThat(actual, contains(
+                new MilestoneProjection(2L, 1L, "Test", "Move", LocalDate.parse("2021-09-07"), null, 2),
+                new MilestoneProjection(4L, 1L, "Test", "Later", LocalDate.parse("2021-09-14"), null, 1)));
+        verify(milestoneRepositoryMock, times(1)).updateDueDates(List.of(
+                new MilestoneProjection(2L, 1L, "Test", "Move", LocalDate.parse("2021-09-07"), null, 1),
+                new MilestoneProjection(4L, 1L, "Test", "Later", LocalDate.parse("2021-09-14"), null, 0)), 7L);
+        verify(projectRepositoryMock, times(1)).updateNextDueDates(List.of(1L));
     }
 
     @Test
-    @DisplayName("Get default milestones should return a list of milestones with expected due dates")
-    public void getDefaultMilestones(){
+    @DisplayName("Reschedule a milestone that was changed in the meantime should throw ObjectOptimisticLockingFailureException")
+    public void rescheduleWithOutdatedVersion() {
         // Given
-        ProjectEntity testProject = ProjectEntity.builder().build();
-        Date testStartDate = Date.valueOf("2021-08-30");
+        mockBusinessDays(2);
+        when(milestoneRepositoryMock.findAllProjectedOfSameProject(2L)).thenReturn(List.of(
+                new MilestoneProjection(2L, 1L, "Test", "Move", LocalDate.parse("2021-09-03"), null, 1)));
+        when(milestoneRepositoryMock.updateDueDates(any(), anyLong())).thenReturn(new int[]{0});
+
+        // Then
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> mileStoneService.reschedule(2L, 2));
+    }
+
+    @Test
+    @DisplayName("Reschedule an unknown milestone should throw EntityNotFoundException")
+    public void rescheduleUnknownMilestone() {
+        // Given
+        when(milestoneRepositoryMock.findAllProjectedOfSameProject(2L)).thenReturn(List.of());
+
+        // Then
+        assertThrows(EntityNotFoundException.class, () -> mileStoneService.reschedule(2L, 2));
+        verify(milestoneRepositoryMock, never()).updateDueDates(any(), anyLong());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 261, -261})
+    @DisplayName("Reschedule by zero or too many business days should throw IllegalArgumentException")
+    public void rescheduleWithInvalidBusinessDays(int businessDays) {
+        assertThrows(IllegalArgumentException.class, () -> mileStoneService.reschedule(2L, businessDays));
+    }
+
+    @Test
+    @DisplayName("Add dependency should save the dependency for the project of the milestones")
+    public void addDependency() {
+        // Given
+        ProjectEntity testProject = ProjectEntity.builder().id(1L).title("Test").build();
+        mockMilestonesOfProject(testProject);
+        when(milestoneDependencyRepositoryMock.findAllLeadingIntoDownstreamOf(2L)).thenReturn(List.of());
 
         // When
-        List<MilestoneEntity> actual = mileStoneService.getDefaultMilestones(testStartDate, testProject);
+        mileStoneService.addDependency(MilestoneDependencyEntity.builder().predecessorId(1L).successorId(2L).businessDays(3).build());
 
         // Then
-        assertThat(actual.size(), is(9));
+        ArgumentCaptor<MilestoneDependencyEntity> dependencyCaptor = ArgumentCaptor.forClass(MilestoneDependencyEntity.class);
+        verify(milestoneDependencyRepositoryMock, times(1)).save(dependencyCaptor.capture());
+        assertThat(dependencyCaptor.getValue().getProjectId(), is(1L));
+        assertThat(dependencyCaptor.getValue().getBusinessDays(), is(3));
+    }
+
+    @Test
+    @DisplayName("Add dependency that would create a cycle should throw IllegalArgumentException")
+    public void addDependencyWithCycle() {
+        // Given
+        ProjectEntity testProject = ProjectEntity.builder().id(1L).title("Test").build();
+        mockMilestonesOfProject(testProject);
+        when(milestoneDependencyRepositoryMock.findAllLeadingIntoDownstreamOf(2L)).thenReturn(List.of(
+                MilestoneDependencyEntity.builder().projectId(1L).predecessorId(2L).successorId(1L).build()));
+
+        // When
+        assertThrows(IllegalArgumentException.class, () -> mileStoneService.addDependency(
+                MilestoneDependencyEntity.builder().predecessorId(1L).successorId(2L).businessDays(3).build()));
+
+        // Then
+        verify(milestoneDependencyRepositoryMock, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Add dependency between milestones of different projects should throw IllegalArgumentException")
+    public void addDependencyBetweenProjects() {
+        // Given
+        when(milestoneRepositoryMock.findById(1L)).thenReturn(Optional.of(MilestoneEntity.builder()
+                .id(1L).title("First").projectEntity(ProjectEntity.builder().id(1L).title("Test").build()).build()));
+        when(milestoneRepositoryMock.findById(2L)).thenReturn(Optional.of(MilestoneEntity.builder()
+                .id(2L).title("Second").projectEntity(ProjectEntity.builder().id(2L).title("Other").build()).build()));
+
+        // When
+        assertThrows(IllegalArgumentException.class, () -> mileStoneService.addDependency(
+                MilestoneDependencyEntity.builder().predecessorId(1L).successorId(2L).businessDays(3).build()));
+
+        // Then
+        verify(milestoneDependencyRepositoryMock, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Remove dependency should delete the dependency and publish a change of the successor")
+    public void removeDependency() {
+        // Given
+        ProjectEntity testProject = ProjectEntity.builder().id(1L).title("Test").build();
+        mockMilestonesOfProject(testProject);
+        MilestoneDependencyEntity dependency = MilestoneDependencyEntity.builder().id(3L).projectId(1L).predecessorId(1L).successorId(2L).build();
+        when(milestoneDependencyRepositoryMock.findById(3L)).thenReturn(Optional.of(dependency));
+        ArgumentCaptor<BoardChangedEvent> eventCaptor = ArgumentCaptor.forClass(BoardChangedEvent.class);
+
+        // When
+        MilestoneDependencyEntity actual = mileStoneService.removeDependency(3L);
+
+        // Then
+        assertThat(actual, is(dependency));
+        verify(milestoneDependencyRepositoryMock, times(1)).delete(dependency);
+        verify(applicationEventPublisherMock, times(1)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getType(), is(ChangeType.MILESTONE_UPDATED));
+        assertThat(eventCaptor.getValue().getProjectTitle(), is("Test"));
+        assertThat(eventCaptor.getValue().getMilestoneId(), is(2L));
+    }
+
+    @Test
+    @DisplayName("Create default dependencies should link every default milestone to the one before")
+    public void createDefaultDependencies() {
+        // Given
+        ProjectEntity testProject = ProjectEntity.builder().id(1L).title("Test").build();
+        List<MilestoneEntity> milestones = mileStoneService.getDefaultMilestones(Date.valueOf("2021-08-30"), testProject);
+        for (int i = 0; i < milestones.size(); i++) {
+            milestones.get(i).setId((long) i + 1);
+        }
+        testProject.setMilestones(milestones);
+
+        // When
+        mileStoneService.createDefaultDependencies(List.of(testProject));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MilestoneDependencyEntity>> dependenciesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(milestoneDependencyRepositoryMock, times(1)).saveAll(dependenciesCaptor.capture());
+        List<MilestoneDependencyEntity> actual = dependenciesCaptor.getValue();
+        assertThat(actual.size(), is(8));
+        assertThat(actual.get(0).getPredecessorId(), is(1L));
+        assertThat(actual.get(0).getSuccessorId(), is(2L));
+        assertThat(actual.get(0).getBusinessDays(), is(DefaultMilestone.REDAKTIONSFREIGABE.getDueTime()));
+        assertThat(actual.get(7).getSuccessorId(), is(9L));
+    }
+
+    private void mockBusinessDays(int businessDays) {
+        DateService dateService = new DateService();
+        when(dateServiceMock.addBusinessDays(any(LocalDate.class), eq(businessDays)))
+                .thenAnswer(invocation -> dateService.addBusinessDays((LocalDate) invocation.getArgument(0), businessDays));
+    }
+
+    private void mockMilestonesOfProject(ProjectEntity testProject) {
+        when(milestoneRepositoryMock.findById(1L)).thenReturn(Optional.of(MilestoneEntity.builder()
+                .id(1L).title("First").projectEntity(testProject).build()));
+        when(milestoneRepositoryMock.findById(2L)).thenReturn(Optional.of(MilestoneEntity.builder()
+                .id(2L).title("Second").projectEntity(testProject).build()));
     }
 
     private MilestoneEntity getTestMilestone() {
         return MilestoneEntity.builder()
-                .projectEntity(ProjectEntity.builder().title("Test").build())
+                .projectEntity(ProjectEntity.builder().id(1L).title("Test").build())
                 .dateFinished(Date.valueOf("2021-12-12"))
                 .dueDate(Date.valueOf("2021-03-13"))
                 .title("Test1")
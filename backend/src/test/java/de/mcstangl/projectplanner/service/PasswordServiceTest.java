@@ -0,0 +1,71 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.config.PasswordHashingConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordServiceTest {
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private PasswordService passwordService;
+
+    @AfterEach
+    public void shutdown() {
+        passwordService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Hash password should complete with a hash matching the password")
+    public void hashPassword() {
+        // Given
+        passwordService = new PasswordService(passwordEncoder, new PasswordHashingConfig());
+
+        // When
+        String actual = passwordService.hashPassword("password").join();
+
+        // Then
+        assertTrue(passwordEncoder.matches("password", actual));
+    }
+
+    @Test
+    @DisplayName("Supply async should reject tasks when all threads are busy and the queue is full")
+    public void supplyAsyncWithFullQueue() {
+        // Given
+        PasswordHashingConfig passwordHashingConfig = new PasswordHashingConfig();
+        passwordHashingConfig.setThreads(1);
+        passwordHashingConfig.setQueueCapacity(1);
+        passwordService = new PasswordService(passwordEncoder, passwordHashingConfig);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = passwordService.supplyAsync(() -> awaitLatch(latch));
+        CompletableFuture<Boolean> queued = passwordService.supplyAsync(() -> awaitLatch(latch));
+
+        // When
+        assertThrows(TaskRejectedException.class, () -> passwordService.supplyAsync(() -> true));
+
+        // Then
+        latch.countDown();
+        assertThat(running.join(), is(true));
+        assertThat(queued.join(), is(true));
+    }
+
+    private boolean awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.config.ProjectCacheConfig;
+import de.mcstangl.projectplanner.enums.ChangeType;
+import de.mcstangl.projectplanner.model.ProjectEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ProjectCacheTest {
+
+    @Test
+    @DisplayName("Find by title should load a project once and count hits and misses")
+    public void findByTitle() {
+        // Given
+        ProjectCache projectCache = createCache(10);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        // When
+        projectCache.findByTitle("Test", title -> load(loadCount, 1L, title));
+        Optional<ProjectEntity> actual = projectCache.findByTitle("Test", title -> load(loadCount, 1L, title));
+
+        // Then
+        assertThat(actual.isPresent(), is(true));
+        assertThat(loadCount.get(), is(1));
+        assertThat(projectCache.getHitCount(), is(1L));
+        assertThat(projectCache.getMissCount(), is(1L));
+    }
+
+    @Test
+    @DisplayName("Renaming a project should invalidate the cached project by its previous title")
+    public void onBoardChangedWithRenamedProject() {
+        // Given
+        ProjectCache projectCache = createCache(10);
+        AtomicInteger loadCount = new AtomicInteger();
+        projectCache.findByTitle("Test", title -> load(loadCount, 1L, title));
+
+        // When
+        projectCache.onBoardChanged(BoardChangedEvent.builder()
+                .type(ChangeType.PROJECT_UPDATED)
+                .projectTitle("New Title")
+                .previousProjectTitle("Test")
+                .build());
+        Map<Long, ProjectEntity> actual = projectCache.findAllById(List.of(1L), ids -> List.of(createProject(1L, "New Title")));
+
+        // Then
+        assertThat(projectCache.findByTitle("Test", title -> Optional.empty()).isPresent(), is(false));
+        assertThat(actual.get(1L).getTitle(), is("New Title"));
+    }
+
+    @Test
+    @DisplayName("A project loaded before an invalidation should not be cached")
+    public void findByTitleWithInvalidationDuringLoad() {
+        // Given
+        ProjectCache projectCache = createCache(10);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        // When
+        projectCache.findByTitle("Test", title -> {
+            projectCache.invalidate(title);
+            return load(loadCount, 1L, title);
+        });
+        projectCache.findByTitle("Test", title -> load(loadCount, 1L, title));
+
+        // Then
+        assertThat(loadCount.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("Find all by id should only load the projects missing in the cache and evict the least recently used")
+    public void findAllById() {
+        // Given
+        ProjectCache projectCache = createCache(2);
+        AtomicInteger loadCount = new AtomicInteger();
+        projectCache.findByTitle("First", title -> load(loadCount, 1L, title));
+
+        // When
+        Map<Long, ProjectEntity> actual = projectCache.findAllById(List.of(1L, 2L, 3L), ids -> {
+            assertThat(ids, contains(2L, 3L));
+            return List.of(createProject(2L, "Second"), createProject(3L, "Third"));
+        });
+
+        // Then
+        assertThat(actual.keySet(), containsInAnyOrder(1L, 2L, 3L));
+        assertThat(projectCache.size(), is(2));
+        assertThat(projectCache.getHitCount(), is(1L));
+        assertThat(projectCache.getMissCount(), is(3L));
+    }
+
+    private Optional<ProjectEntity> load(AtomicInteger loadCount, Long id, String title) {
+        loadCount.incrementAndGet();
+        return Optional.of(createProject(id, title));
+    }
+
+    private ProjectEntity createProject(Long id, String title) {
+        return ProjectEntity.builder()
+                .id(id)
+                .title(title)
+                .build();
+    }
+
+    private ProjectCache createCache(int maxSize) {
+        ProjectCacheConfig projectCacheConfig = new ProjectCacheConfig();
+        projectCacheConfig.setMaxSize(maxSize);
+        return new ProjectCache(projectCacheConfig);
+    }
+}
@@ -1,11 +1,18 @@
 package de.mcstangl.projectplanner.service;
 
+import de.mcstangl.projectplanner.config.ProjectCacheConfig;
 import de.mcstangl.projectplanner.enums.ProjectStatus;
+import de.mcstangl.projectplanner.enums.TombstoneType;
 import de.mcstangl.projectplanner.enums.UserRole;
 import de.mcstangl.projectplanner.model.MilestoneEntity;
+import de.mcstangl.projectplanner.model.MilestoneProjection;
 import de.mcstangl.projectplanner.model.ProjectEntity;
+import de.mcstangl.projectplanner.model.ProjectProjection;
+import de.mcstangl.projectplanner.model.StaffProjection;
+import de.mcstangl.projectplanner.model.TombstoneEntity;
 import de.mcstangl.projectplanner.model.UserEntity;
 import de.mcstangl.projectplanner.repository.ProjectRepository;
+import de.mcstangl.projectplanner.repository.TombstoneRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,10 +21,13 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
 import java.sql.Date;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -38,6 +48,21 @@ class ProjectServiceTest {
     @Mock
     private MilestoneService milestoneServiceMock;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisherMock;
+
+    @Mock
+    private ChangeSequenceService changeSequenceServiceMock;
+
+    @Mock
+    private TombstoneRepository tombstoneRepositoryMock;
+
+    @Mock
+    private CapacityIndex capacityIndexMock;
+
+    @Spy
+    private ProjectCache projectCache = new ProjectCache(new ProjectCacheConfig());
+
     @Captor
     private ArgumentCaptor<ProjectEntity> projectEntityCaptor;
 
@@ -119,6 +144,29 @@ class ProjectServiceTest {
 
     }
 
+    @Test
+    @DisplayName("FindByName should sort the milestones in place once and serve the cached project afterwards")
+    public void findByTitleSortsCachedProjectOnce() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        MilestoneEntity withoutDueDate = MilestoneEntity.builder().id(1L).title("Test1").build();
+        MilestoneEntity later = MilestoneEntity.builder().id(2L).title("Test2").dueDate(Date.valueOf("2021-02-02")).build();
+        MilestoneEntity sooner = MilestoneEntity.builder().id(3L).title("Test3").dueDate(Date.valueOf("2021-01-01")).build();
+        List<MilestoneEntity> milestones = new ArrayList<>(List.of(withoutDueDate, later, sooner));
+        testProject.setMilestones(milestones);
+        when(projectRepositoryMock.findByTitle("Test")).thenReturn(Optional.of(testProject));
+
+        // When
+        projectService.findByTitle("Test");
+        Optional<ProjectEntity> actualOptional = projectService.findByTitle("Test");
+
+        // Then
+        assertTrue(actualOptional.isPresent());
+        assertThat(actualOptional.get().getMilestones(), sameInstance(milestones));
+        assertThat(milestones, contains(sooner, later, withoutDueDate));
+        verify(projectRepositoryMock, times(1)).findByTitle("Test");
+    }
+
     @Test
     @DisplayName("FindByName should return an optional empty when the project is not found")
     public void findByTitleUnknown() {
@@ -135,22 +183,117 @@ class ProjectServiceTest {
     }
 
     @Test
-    @DisplayName("FindAll should return all projects in DB")
-    public void findAll() {
+    @DisplayName("FindBoard should return all open projects in DB")
+    public void findBoard() {
+        // Given
+        ProjectProjection testProject = createTestProjectProjection(1L, "Test");
+        when(projectRepositoryMock.findAllProjectedByStatusSortedByNextDueDate(ProjectStatus.OPEN)).thenReturn(List.of(testProject));
+
+        // When
+        ProjectBoard actual = projectService.findBoard();
+
+        // Then
+        assertThat(actual.getProjects(), contains(testProject));
+        assertThat(actual.getWriters(1L), is(empty()));
+        assertThat(actual.getMotionDesigners(1L), is(empty()));
+        assertThat(actual.getMilestones(1L), is(empty()));
+    }
+
+    @Test
+    @DisplayName("FindBoard should group staff and milestones by project and keep their order")
+    public void findBoardGroupsRowsByProject() {
+        // Given
+        ProjectProjection firstProject = createTestProjectProjection(1L, "Test");
+        ProjectProjection secondProject = createTestProjectProjection(2L, "Test2");
+        StaffProjection writer = new StaffProjection(1L, "Test1", UserRole.USER);
+        StaffProjection motionDesigner = new StaffProjection(2L, "Test2", UserRole.USER);
+        MilestoneProjection firstMilestone = new MilestoneProjection(1L, 1L, "Test", "First", LocalDate.parse("2021-01-01"), null, 0L);
+        MilestoneProjection secondMilestone = new MilestoneProjection(2L, 2L, "Test2", "Second", LocalDate.parse("2021-01-02"), null, 0L);
+        MilestoneProjection thirdMilestone = new MilestoneProjection(3L, 1L, "Test", "Third", LocalDate.parse("2021-01-03"), null, 0L);
+
+        when(projectRepositoryMock.findAllProjectedByStatusSortedByNextDueDate(ProjectStatus.OPEN)).thenReturn(List.of(firstProject, secondProject));
+        when(projectRepositoryMock.findAllWritersProjectedByStatus(ProjectStatus.OPEN)).thenReturn(List.of(writer));
+        when(projectRepositoryMock.findAllMotionDesignersProjectedByStatus(ProjectStatus.OPEN)).thenReturn(List.of(motionDesigner));
+        when(milestoneServiceMock.findAllProjectedSortedByDueDate(ProjectStatus.OPEN)).thenReturn(List.of(firstMilestone, secondMilestone, thirdMilestone));
+
+        // When
+        ProjectBoard actual = projectService.findBoard();
+
+        // Then
+        assertThat(actual.getProjects(), contains(firstProject, secondProject));
+        assertThat(actual.getWriters(1L), contains(writer));
+        assertThat(actual.getWriters(2L), is(empty()));
+        assertThat(actual.getMotionDesigners(2L), contains(motionDesigner));
+        assertThat(actual.getMilestones(1L), contains(firstMilestone, thirdMilestone));
+        assertThat(actual.getMilestones(2L), contains(secondMilestone));
+    }
+
+    @Test
+    @DisplayName("Find changes since should return all changed rows and the highest change sequence as version")
+    public void findChangesSince() {
         // Given
         ProjectEntity testProject = createTestProject();
-        when(projectRepositoryMock.findAll()).thenReturn(
-                List.of(testProject)
-        );
+        testProject.setChangeSequence(12L);
+        MilestoneEntity milestone = MilestoneEntity.builder()
+                .id(1L)
+                .title("Test")
+                .dueDate(Date.valueOf("2021-01-01"))
+                .changeSequence(11L)
+                .build();
+        TombstoneEntity tombstone = TombstoneEntity.builder()
+                .changeSequence(14L)
+                .type(TombstoneType.MILESTONE)
+                .projectTitle("Test")
+                .milestoneId(2L)
+                .build();
+        when(projectRepositoryMock.findAllByChangeSequenceGreaterThan(10L)).thenReturn(List.of(testProject));
+        when(milestoneServiceMock.findAllChangedSince(10L)).thenReturn(List.of(milestone));
+        when(tombstoneRepositoryMock.findAllByChangeSequenceGreaterThanOrderByChangeSequenceAsc(10L)).thenReturn(List.of(tombstone));
+        when(changeSequenceServiceMock.findCompletedChangeSequence()).thenReturn(20L);
+
+        // When
+        BoardChanges actual = projectService.findChangesSince(10L);
 
-        when(milestoneServiceMock.getAllSortedByDueDate()).thenReturn(List.of());
+        // Then
+        assertThat(actual.getVersion(), is(14L));
+        assertThat(actual.getProjects(), contains(testProject));
+        assertThat(actual.getMilestones(), contains(milestone));
+        assertThat(actual.getTombstones(), contains(tombstone));
+    }
+
+    @Test
+    @DisplayName("Find changes since should not return a version past a change that is not committed yet")
+    public void findChangesSinceWithChangeInFlight() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        testProject.setChangeSequence(14L);
+        when(projectRepositoryMock.findAllByChangeSequenceGreaterThan(10L)).thenReturn(List.of(testProject));
+        when(milestoneServiceMock.findAllChangedSince(10L)).thenReturn(List.of());
+        when(tombstoneRepositoryMock.findAllByChangeSequenceGreaterThanOrderByChangeSequenceAsc(10L)).thenReturn(List.of());
+        when(changeSequenceServiceMock.findCompletedChangeSequence()).thenReturn(12L);
 
         // When
-        List<ProjectEntity> actual = projectService.findAll();
+        BoardChanges actual = projectService.findChangesSince(10L);
 
         // Then
-        assertThat(actual.size(), is(1));
-        assertThat(actual, contains(testProject));
+        assertThat(actual.getVersion(), is(12L));
+        assertThat(actual.getProjects(), contains(testProject));
+    }
+
+    @Test
+    @DisplayName("Find changes since without changes should keep the requested version")
+    public void findChangesSinceWithoutChanges() {
+        // Given
+        when(projectRepositoryMock.findAllByChangeSequenceGreaterThan(10L)).thenReturn(List.of());
+        when(milestoneServiceMock.findAllChangedSince(10L)).thenReturn(List.of());
+        when(tombstoneRepositoryMock.findAllByChangeSequenceGreaterThanOrderByChangeSequenceAsc(10L)).thenReturn(List.of());
+
+        // When
+        BoardChanges actual = projectService.findChangesSince(10L);
+
+        // Then
+        assertThat(actual.getVersion(), is(10L));
+        assertThat(actual.getProjects(), empty());
     }
 
     @Test
@@ -206,6 +349,66 @@ class ProjectServiceTest {
     }
 
 
+    @Test
+    @DisplayName("Creating projects in bulk should check all titles in one query and save the valid projects together")
+    public void createNewProjects() {
+        // Given
+        ProjectEntity newProject = createTestProject();
+        newProject.setTitle("New?");
+        ProjectEntity existingProject = createTestProject();
+        ProjectEntity duplicateProject = createTestProject();
+        duplicateProject.setTitle("New");
+        ProjectEntity invalidProject = createTestProject();
+        invalidProject.setCustomer("");
+        when(projectRepositoryMock.findTitlesIn(any())).thenReturn(Set.of("Test"));
+
+        // When
+        List<ProjectCreationResult> actual = projectService.createNewProjects(
+                List.of(newProject, existingProject, duplicateProject, invalidProject));
+
+        // Then
+        verify(projectRepositoryMock, times(1)).findTitlesIn(Set.of("New", "Test"));
+        verify(projectRepositoryMock, times(1)).saveAll(List.of(newProject));
+        verify(projectRepositoryMock, never()).findByTitle(any());
+        assertThat(actual.stream().map(ProjectCreationResult::isCreated).toList(), contains(true, false, false, false));
+        assertThat(actual.get(0).getProjectEntity().getTitle(), is("New"));
+        assertThat(actual.get(0).getProjectEntity().getStatus(), is(ProjectStatus.OPEN));
+        assertThat(actual.get(1).getErrorMessage(), is("Ein Projekt mit diesem Namen existiert schon"));
+        assertThat(actual.get(2).getErrorMessage(), is("Ein Projekt mit diesem Namen existiert schon"));
+        assertThat(actual.get(3).getErrorMessage(), is("Kundenname darf nicht leer sein"));
+    }
+
+    @Test
+    @DisplayName("Creating projects in bulk should reject a project whose new staff would have too many deadlines, counting the projects of the same request")
+    public void createNewProjectsWithOverloadedWriter() {
+        // Given
+        ProjectEntity overloadedProject = createTestProject();
+        overloadedProject.setTitle("Overloaded");
+        overloadedProject.setWriters(Set.of(createTestUser1()));
+        ProjectEntity firstProject = createTestProject();
+        firstProject.setTitle("First");
+        firstProject.setWriters(Set.of(createTestUser2()));
+        ProjectEntity secondProject = createTestProject();
+        secondProject.setTitle("Second");
+        secondProject.setWriters(Set.of(createTestUser2()));
+        when(projectRepositoryMock.findTitlesIn(any())).thenReturn(Set.of());
+        when(milestoneServiceMock.getDefaultMilestones(any(), any())).thenAnswer(invocation -> List.of(
+                MilestoneEntity.builder().title("Offen").dueDate(Date.valueOf("2021-09-15")).build()));
+        when(capacityIndexMock.findConflict(eq("Test1"), any(), any()))
+                .thenReturn(Optional.of(new CapacityConflict("Test1", LocalDate.parse("2021-09-13"), LocalDate.parse("2021-09-17"), 7, 6)));
+        when(capacityIndexMock.findConflict(eq("Test2"), any(), any())).thenReturn(Optional.empty());
+
+        // When
+        List<ProjectCreationResult> actual = projectService.createNewProjects(List.of(overloadedProject, firstProject, secondProject));
+
+        // Then
+        assertThat(actual.stream().map(ProjectCreationResult::isCreated).toList(), contains(false, true, true));
+        assertThat(actual.get(0).getErrorMessage(), is("Test1 hätte vom 13.09.2021 bis zum 17.09.2021 7 Deadlines, erlaubt sind höchstens 6"));
+        verify(capacityIndexMock, times(1)).findConflict("Test2", 1L, List.of(LocalDate.parse("2021-09-15")));
+        verify(capacityIndexMock, times(1)).findConflict("Test2", 1L, List.of(LocalDate.parse("2021-09-15"), LocalDate.parse("2021-09-15")));
+        verify(projectRepositoryMock, times(1)).saveAll(List.of(firstProject, secondProject));
+    }
+
     @ParameterizedTest
     @MethodSource("getArgumentsForInvalidProjectTest")
     @DisplayName("Creating a new project with an invalid title or customer should throw IllegalArgumentException")
@@ -297,6 +500,43 @@ class ProjectServiceTest {
         assertThat(actualSaved.getDateOfReceipt().toString(), is("1999-01-01"));
     }
 
+    @Test
+    @DisplayName("Renaming a project should record a tombstone for the old title with the change sequence of the update")
+    public void updateTitleRecordsTombstone() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        when(projectRepositoryMock.findByTitle("Test")).thenReturn(Optional.of(testProject));
+        when(changeSequenceServiceMock.next()).thenReturn(7L);
+        ArgumentCaptor<TombstoneEntity> tombstoneCaptor = ArgumentCaptor.forClass(TombstoneEntity.class);
+
+        // When
+        projectService.update(ProjectEntity.builder().title("Test").build(), "new Title");
+
+        // Then
+        verify(projectRepositoryMock, times(1)).save(projectEntityCaptor.capture());
+        verify(tombstoneRepositoryMock, times(1)).save(tombstoneCaptor.capture());
+        assertThat(projectEntityCaptor.getValue().getChangeSequence(), is(7L));
+        assertThat(tombstoneCaptor.getValue().getChangeSequence(), is(7L));
+        assertThat(tombstoneCaptor.getValue().getType(), is(TombstoneType.PROJECT));
+        assertThat(tombstoneCaptor.getValue().getProjectTitle(), is("Test"));
+    }
+
+    @Test
+    @DisplayName("Update with an outdated version should throw ObjectOptimisticLockingFailureException")
+    public void updateWithOutdatedVersion() {
+        // Given
+        ProjectEntity testProject = createTestProject();
+        testProject.setVersion(3L);
+        when(projectRepositoryMock.findByTitle("Test")).thenReturn(Optional.of(testProject));
+
+        // When
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> projectService.update(ProjectEntity.builder().title("Test").version(2L).build(), "Test"));
+
+        // Then
+        verify(projectRepositoryMock, never()).save(any());
+    }
+
     @Test
     @DisplayName("Update should update writers")
     public void updateWriters() {
@@ -320,11 +560,8 @@ class ProjectServiceTest {
                                 .build()));
 
 
-        when(userServiceMock.findByLoginName(any()))
-                .thenReturn(
-                        Optional.of(testUser1))
-                .thenReturn(
-                        Optional.of(testUser2));
+        when(userServiceMock.findReferencesByLoginNameIn(Set.of("Test1", "Test2")))
+                .thenReturn(Map.of("Test1", testUser1, "Test2", testUser2));
 
         ProjectEntity projectEntity = ProjectEntity.builder()
                 .owner(testUser3)
@@ -365,11 +602,8 @@ class ProjectServiceTest {
                                 .build()));
 
 
-        when(userServiceMock.findByLoginName(any()))
-                .thenReturn(
-                        Optional.of(testUser1))
-                .thenReturn(
-                        Optional.of(testUser2));
+        when(userServiceMock.findReferencesByLoginNameIn(Set.of("Test1", "Test2")))
+                .thenReturn(Map.of("Test1", testUser1, "Test2", testUser2));
 
 
         ProjectEntity projectEntity = ProjectEntity.builder()
@@ -389,6 +623,97 @@ class ProjectServiceTest {
         assertThat(actual, containsInAnyOrder(testUser1, testUser2));
     }
 
+    @Test
+    @DisplayName("Update should reject a new writer who would have too many deadlines and not save the project")
+    public void updateWithOverloadedWriter() {
+        // Given
+        UserEntity testUser1 = createTestUser1();
+        when(projectRepositoryMock.findByTitle("Test")).thenReturn(Optional.of(createTestProjectWithMilestones(new HashSet<>())));
+        when(userServiceMock.findReferencesByLoginNameIn(Set.of("Test1"))).thenReturn(Map.of("Test1", testUser1));
+        when(capacityIndexMock.findConflict(eq("Test1"), eq(1L), any()))
+                .thenReturn(Optional.of(new CapacityConflict("Test1", LocalDate.parse("2021-09-13"), LocalDate.parse("2021-09-17"), 7, 6)));
+
+        ProjectEntity projectEntity = ProjectEntity.builder()
+                .title("Test")
+                .writers(Set.of(testUser1))
+                .build();
+
+        // When
+        CapacityExceededException actual = assertThrows(CapacityExceededException.class, () -> projectService.update(projectEntity, "Test"));
+
+        // Then
+        assertThat(actual.getMessage(), is("Test1 hätte vom 13.09.2021 bis zum 17.09.2021 7 Deadlines, erlaubt sind höchstens 6"));
+        verify(capacityIndexMock, times(1)).findConflict("Test1", 1L, List.of(LocalDate.parse("2021-09-15")));
+        verify(projectRepositoryMock, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Update should only check the capacity of staff members who are new to the project")
+    public void updateChecksCapacityOfNewStaffOnly() {
+        // Given
+        UserEntity testUser1 = createTestUser1();
+        UserEntity testUser2 = createTestUser2();
+        when(projectRepositoryMock.findByTitle("Test")).thenReturn(Optional.of(createTestProjectWithMilestones(new HashSet<>(Set.of(testUser1)))));
+        when(userServiceMock.findReferencesByLoginNameIn(Set.of("Test1", "Test2"))).thenReturn(Map.of("Test1", testUser1, "Test2", testUser2));
+
+        ProjectEntity projectEntity = ProjectEntity.builder()
+                .title("Test")
+                .writers(Set.of(testUser1))
+                .motionDesigners(Set.of(testUser2))
+                .build();
+
+        // When
+        projectService.update(projectEntity, "Test");
+
+        // Then
+        verify(capacityIndexMock, never()).findConflict(eq("Test1"), any(), any());
+        verify(capacityIndexMock, times(1)).findConflict(eq("Test2"), eq(1L), any());
+        verify(projectRepositoryMock, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("Update should check the capacity of all staff members when an archived project is opened again")
+    public void updateChecksCapacityWhenReopened() {
+        // Given
+        UserEntity testUser1 = createTestUser1();
+        ProjectEntity archivedProject = createTestProjectWithMilestones(new HashSet<>(Set.of(testUser1)));
+        archivedProject.setStatus(ProjectStatus.ARCHIVE);
+        when(projectRepositoryMock.findByTitle("Test")).thenReturn(Optional.of(archivedProject));
+        when(userServiceMock.findReferencesByLoginNameIn(Set.of("Test1"))).thenReturn(Map.of("Test1", testUser1));
+
+        ProjectEntity projectEntity = ProjectEntity.builder()
+                .title("Test")
+                .status(ProjectStatus.OPEN)
+                .writers(Set.of(testUser1))
+                .build();
+
+        // When
+        projectService.update(projectEntity, "Test");
+
+        // Then
+        verify(capacityIndexMock, times(1)).findConflict("Test1", 1L, List.of(LocalDate.parse("2021-09-15")));
+    }
+
+    @Test
+    @DisplayName("Update with an unknown staff member should throw EntityNotFoundException")
+    public void updateWithUnknownWriter() {
+        // Given
+        UserEntity testUser1 = createTestUser1();
+        when(projectRepositoryMock.findByTitle("Test")).thenReturn(Optional.of(createTestProject()));
+        when(userServiceMock.findReferencesByLoginNameIn(Set.of("Test1"))).thenReturn(Map.of());
+
+        ProjectEntity projectEntity = ProjectEntity.builder()
+                .title("Test")
+                .writers(Set.of(testUser1))
+                .build();
+
+        // When
+        assertThrows(EntityNotFoundException.class, () -> projectService.update(projectEntity, "Test"));
+
+        // Then
+        verify(projectRepositoryMock, never()).save(any());
+    }
+
     @Test
     @DisplayName("Move to archive should set project status to ARCHIVE")
     public void moveToArchive(){
@@ -436,6 +761,24 @@ class ProjectServiceTest {
         assertThat(actual, is(ProjectStatus.OPEN));
     }
 
+    @Test
+    @DisplayName("Restore project should reject the project when a staff member would have too many deadlines")
+    public void restoreProjectWithOverloadedWriter() {
+        // Given
+        ProjectEntity archivedProject = createTestProjectWithMilestones(new HashSet<>(Set.of(createTestUser1())));
+        archivedProject.setStatus(ProjectStatus.ARCHIVE);
+        when(projectRepositoryMock.findByTitle("Test")).thenReturn(Optional.of(archivedProject));
+        when(capacityIndexMock.findConflict(eq("Test1"), eq(1L), any()))
+                .thenReturn(Optional.of(new CapacityConflict("Test1", LocalDate.parse("2021-09-13"), LocalDate.parse("2021-09-17"), 7, 6)));
+
+        // When
+        assertThrows(CapacityExceededException.class, () -> projectService.restoreFromArchive("Test"));
+
+        // Then
+        verify(capacityIndexMock, times(1)).findConflict("Test1", 1L, List.of(LocalDate.parse("2021-09-15")));
+        verify(projectRepositoryMock, never()).save(any());
+    }
+
     @Test
     @DisplayName("Move to archive should throw an EntityNotFoundException when project is not in DB")
     public void restoreProjectWithUnknownProjectTitle(){
@@ -471,6 +814,21 @@ class ProjectServiceTest {
                 .build();
     }
 
+    private ProjectProjection createTestProjectProjection(Long id, String title) {
+        return new ProjectProjection(id, title, "Test", LocalDate.parse("2021-09-13"), ProjectStatus.OPEN, 0L, "Test", UserRole.ADMIN);
+    }
+
+    private ProjectEntity createTestProjectWithMilestones(Set<UserEntity> writers) {
+        ProjectEntity projectEntity = createTestProject();
+        projectEntity.setStatus(ProjectStatus.OPEN);
+        projectEntity.setWriters(writers);
+        projectEntity.setMotionDesigners(new HashSet<>());
+        projectEntity.setMilestones(List.of(
+                MilestoneEntity.builder().id(1L).title("Offen").dueDate(Date.valueOf("2021-09-15")).build(),
+                MilestoneEntity.builder().id(2L).title("Erledigt").dueDate(Date.valueOf("2021-09-14")).dateFinished(Date.valueOf("2021-09-14")).build()));
+        return projectEntity;
+    }
+
     private ProjectEntity createTestProject() {
         return ProjectEntity.builder()
                 .id(1L)
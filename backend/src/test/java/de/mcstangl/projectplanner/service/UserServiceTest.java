@@ -1,8 +1,8 @@
 package de.mcstangl.projectplanner.service;
 
 import de.mcstangl.projectplanner.enums.UserRole;
-import de.mcstangl.projectplanner.model.ProjectEntity;
 import de.mcstangl.projectplanner.model.UserEntity;
+import de.mcstangl.projectplanner.model.UserProjection;
 import de.mcstangl.projectplanner.repository.UserRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,11 +12,14 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -32,6 +35,15 @@ class UserServiceTest {
     @Mock
     private PasswordService passwordService;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisherMock;
+
+    @Mock
+    private ChangeSequenceService changeSequenceServiceMock;
+
+    @Spy
+    private UserDirectory userDirectory = new UserDirectory();
+
     @InjectMocks
     private UserService userService;
 
@@ -62,12 +74,12 @@ class UserServiceTest {
         adminUser.setPassword(null);
 
         when(passwordService.getRandomPassword()).thenReturn("RandomPassword");
-        when(passwordService.getHashedPassword("RandomPassword")).thenReturn("HashedPassword");
+        when(passwordService.hashPassword("RandomPassword")).thenReturn(CompletableFuture.completedFuture("HashedPassword"));
         when(userRepositoryMock.save(any())).thenReturn(adminUser);
         when(userRepositoryMock.findByLoginName(adminUser.getLoginName())).thenReturn(Optional.empty());
 
         // When
-        UserEntity actual = userService.createNewUser(adminUser);
+        UserEntity actual = userService.createNewUser(adminUser).join();
 
         verify(userRepositoryMock, times(1)).save(userEntityArgumentCaptor.capture());
         UserEntity argument = userEntityArgumentCaptor.getValue();
@@ -111,13 +123,13 @@ class UserServiceTest {
     @DisplayName("Find all should return all user in DB")
     public void findAll() {
         // Given
-        UserEntity adminUser = createTestAdminUser();
-        UserEntity user = createTestUser();
+        UserProjection adminUser = new UserProjection("Test", UserRole.ADMIN);
+        UserProjection user = new UserProjection("Other", UserRole.USER);
 
-        when(userRepositoryMock.findAll()).thenReturn(List.of(adminUser, user));
+        when(userRepositoryMock.findAllProjected()).thenReturn(List.of(adminUser, user));
 
         // When
-        List<UserEntity> actual = userService.findAll();
+        List<UserProjection> actual = userService.findAll();
 
         // Then
         assertThat(actual.size(), is(2));
@@ -139,6 +151,42 @@ class UserServiceTest {
         assertTrue(actual.isPresent());
     }
 
+    @Test
+    @DisplayName("Find references by login names should load the missing users in one query and keep only id, login name and role")
+    public void findReferencesByLoginNameIn() {
+        // Given
+        UserEntity testUser = createTestUser();
+        UserEntity testAdminUser = createTestAdminUser();
+        when(userRepositoryMock.findAllByLoginNameIn(any())).thenReturn(List.of(testUser, testAdminUser));
+
+        // When
+        Map<String, UserEntity> actual = userService.findReferencesByLoginNameIn(List.of("Dave", "Hans", "Unknown"));
+        Map<String, UserEntity> actualCached = userService.findReferencesByLoginNameIn(List.of("Dave", "Hans"));
+
+        // Then
+        verify(userRepositoryMock, times(1)).findAllByLoginNameIn(any());
+        assertThat(actual.keySet(), containsInAnyOrder("Dave", "Hans"));
+        assertThat(actualCached.get("Dave").getId(), is(testUser.getId()));
+        assertThat(actualCached.get("Hans").getRole(), is(UserRole.ADMIN));
+        assertNull(actualCached.get("Dave").getPassword());
+    }
+
+    @Test
+    @DisplayName("Update user should remove the old login name from the user directory")
+    public void updateUserInvalidatesUserDirectory() {
+        // Given
+        UserEntity user = createTestUser();
+        when(userRepositoryMock.findAllByLoginNameIn(any())).thenReturn(List.of(user));
+        userService.findReferencesByLoginNameIn(List.of(user.getLoginName()));
+        when(userRepositoryMock.findByLoginName(user.getLoginName())).thenReturn(Optional.of(user));
+
+        // When
+        userService.updateUser(user.getLoginName(), UserEntity.builder().loginName("New Name").build());
+
+        // Then
+        assertThat(userDirectory.size(), is(0));
+    }
+
     @Test
     @DisplayName("Find user by login should return an empty optional if the user is not in DB")
     public void findByUnknownLoginName() {
@@ -231,10 +279,10 @@ class UserServiceTest {
         when(userRepositoryMock.findByLoginName(testUser.getLoginName())).thenReturn(Optional.of(testUser));
         when(userRepositoryMock.save(any())).thenReturn(testUser);
         when(passwordService.getRandomPassword()).thenReturn("RandomPassword");
-        when(passwordService.getHashedPassword("RandomPassword")).thenReturn("HashedPassword");
+        when(passwordService.hashPassword("RandomPassword")).thenReturn(CompletableFuture.completedFuture("HashedPassword"));
 
         // When
-        UserEntity actual = userService.resetPassword(testUser.getLoginName());
+        UserEntity actual = userService.resetPassword(testUser.getLoginName()).join();
 
         verify(userRepositoryMock, times(1)).save(userEntityArgumentCaptor.capture());
         UserEntity argument = userEntityArgumentCaptor.getValue();
@@ -273,33 +321,22 @@ class UserServiceTest {
         assertThrows(EntityNotFoundException.class, () -> userService.deleteUserByLoginName("Unknown"));
     }
 
-    @ParameterizedTest
-    @MethodSource("getArgumentsForDeleteUserWithProjectsTest")
-    @DisplayName("Delete user should throw an IllegalArgumentException if the user has a relation to any project")
-    public void deleteUserWithProjects(List<ProjectEntity> projectList1,  List<ProjectEntity> projectList2, List<ProjectEntity> projectList3) {
+    @Test
+    @DisplayName("Delete user should throw an IllegalArgumentException with the project count if the user has a relation to any project")
+    public void deleteUserWithProjects() {
         // Given
         UserEntity testUser = createTestUser();
-        testUser.setOwnedProjects(projectList1);
-        testUser.setWriterInProjects(projectList2);
-        testUser.setMotionDesignerInProjects(projectList3);
 
         when(userRepositoryMock.findByLoginName(testUser.getLoginName())).thenReturn(Optional.of(testUser));
+        when(userRepositoryMock.countLinkedProjects(testUser)).thenReturn(3L);
 
-        // Then
-        assertThrows(IllegalArgumentException.class, () -> userService.deleteUserByLoginName(testUser.getLoginName()));
-    }
-
+        // When
+        IllegalArgumentException actual = assertThrows(IllegalArgumentException.class,
+                () -> userService.deleteUserByLoginName(testUser.getLoginName()));
 
-    public static Stream<Arguments> getArgumentsForDeleteUserWithProjectsTest(){
-        List<ProjectEntity> testProjectList = List.of(ProjectEntity.builder()
-                .title("Test")
-                .id(1L)
-                .build());
-        return Stream.of(
-                Arguments.of(null, null,testProjectList),
-                Arguments.of(null, testProjectList,null),
-                Arguments.of(testProjectList, null, null)
-        );
+        // Then
+        assertThat(actual.getMessage(), is("Der Benutzer Dave ist verknüpft in 3 Projekten und kann nicht gelöscht werden"));
+        verify(userRepositoryMock, times(0)).delete(any());
     }
 
     private UserEntity createTestAdminUser() {
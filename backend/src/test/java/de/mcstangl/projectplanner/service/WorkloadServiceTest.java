@@ -0,0 +1,112 @@
+package de.mcstangl.projectplanner.service;
+
+import de.mcstangl.projectplanner.enums.UserRole;
+import de.mcstangl.projectplanner.model.StaffMilestoneCount;
+import de.mcstangl.projectplanner.model.StaffProjectCount;
+import de.mcstangl.projectplanner.model.UserProjection;
+import de.mcstangl.projectplanner.repository.StaffWorkloadRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class WorkloadServiceTest {
+
+    // A Wednesday, the week starts on 2021-09-06
+    private static final LocalDate TODAY = LocalDate.parse("2021-09-08");
+
+    @Mock
+    private StaffWorkloadRepository staffWorkloadRepositoryMock;
+
+    @Mock
+    private UserService userServiceMock;
+
+    @InjectMocks
+    private WorkloadService workloadService;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    public void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+        when(userServiceMock.findAll()).thenReturn(List.of(
+                new UserProjection("Dave", UserRole.USER),
+                new UserProjection("Hans", UserRole.ADMIN)));
+        when(staffWorkloadRepositoryMock.countOpenProjects()).thenReturn(List.of(new StaffProjectCount("Dave", 2)));
+        when(staffWorkloadRepositoryMock.countOpenMilestonesDueBefore(any())).thenReturn(List.of(
+                new StaffMilestoneCount("Dave", LocalDate.parse("2021-09-01"), 1),
+                new StaffMilestoneCount("Dave", LocalDate.parse("2021-09-06"), 2),
+                new StaffMilestoneCount("Dave", LocalDate.parse("2021-09-12"), 1),
+                new StaffMilestoneCount("Dave", LocalDate.parse("2021-09-13"), 3)));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    @DisplayName("Get workload should count the open milestones of every user per week starting on monday")
+    public void getWorkload() {
+        // When
+        List<StaffWorkload> actual = workloadService.getWorkload(3, TODAY);
+
+        // Then
+        assertThat(actual, contains(
+                new StaffWorkload("Dave", UserRole.USER, 2, 1, List.of(
+                        new WeeklyWorkload(LocalDate.parse("2021-09-06"), 3),
+                        new WeeklyWorkload(LocalDate.parse("2021-09-13"), 3),
+                        new WeeklyWorkload(LocalDate.parse("2021-09-20"), 0))),
+                new StaffWorkload("Hans", UserRole.ADMIN, 0, 0, List.of(
+                        new WeeklyWorkload(LocalDate.parse("2021-09-06"), 0),
+                        new WeeklyWorkload(LocalDate.parse("2021-09-13"), 0),
+                        new WeeklyWorkload(LocalDate.parse("2021-09-20"), 0)))));
+        verify(staffWorkloadRepositoryMock, times(1)).countOpenMilestonesDueBefore(LocalDate.parse("2021-09-06").plusWeeks(WorkloadService.MAX_WEEKS));
+    }
+
+    @Test
+    @DisplayName("Get workload should aggregate only once until the board changes")
+    public void getWorkloadReusesCounters() {
+        // When
+        workloadService.getWorkload(2, TODAY);
+        workloadService.getWorkload(4, TODAY.plusDays(1));
+        workloadService.onBoardChanged(BoardChangedEvent.builder().projectTitle("Test").build());
+        workloadService.getWorkload(2, TODAY);
+
+        // Then
+        verify(staffWorkloadRepositoryMock, times(2)).countOpenProjects();
+        verify(staffWorkloadRepositoryMock, times(2)).countOpenMilestonesDueBefore(any());
+    }
+
+    @Test
+    @DisplayName("Get workload should aggregate again when a new week starts")
+    public void getWorkloadInNewWeek() {
+        // When
+        workloadService.getWorkload(2, TODAY);
+        List<StaffWorkload> actual = workloadService.getWorkload(2, TODAY.plusWeeks(1));
+
+        // Then
+        verify(staffWorkloadRepositoryMock, times(2)).countOpenProjects();
+        assertThat(actual.get(0).weeks().get(0).weekStart(), is(LocalDate.parse("2021-09-13")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 27})
+    @DisplayName("Get workload with a number of weeks out of range should throw IllegalArgumentException")
+    public void getWorkloadWithInvalidWeeks(int weeks) {
+        assertThrows(IllegalArgumentException.class, () -> workloadService.getWorkload(weeks, TODAY));
+    }
+}
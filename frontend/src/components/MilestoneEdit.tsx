@@ -58,6 +58,7 @@ const MilestoneEdit: FC<MilestoneEditProps> = ({
       dateFinished: formData.dateFinished,
       projectTitle: projectTitle,
       id: milestone ? milestone.id : undefined,
+      version: milestone ? milestone.version : undefined,
     }
     if (milestone) {
       setLoading(true)
@@ -100,6 +100,7 @@ const ProjectDetailsEdit: FC<ProjectDetailsEditProps> = ({
         owner: formData.owner,
         writer: formData.writer,
         motionDesign: formData.motionDesign,
+        version: project.version,
       }
       updateProject(updateProjectDto, token)
         .then(projectDto => {
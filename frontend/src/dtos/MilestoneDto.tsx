@@ -4,4 +4,5 @@ export interface MilestoneDto {
   dueDate: string
   dateFinished: string
   projectTitle: string
+  version?: number
 }
@@ -10,4 +10,5 @@ export interface ProjectDto {
   writer: UserDto[]
   motionDesign: UserDto[]
   milestones?: MilestoneDto[]
+  version?: number
 }
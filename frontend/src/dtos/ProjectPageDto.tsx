@@ -0,0 +1,7 @@
+import { ProjectDto } from './ProjectDto'
+
+export interface ProjectPageDto {
+  projects: ProjectDto[]
+  nextCursor?: string
+  totalCount?: number
+}
@@ -9,4 +9,5 @@ export interface UpdateProjectDto {
   owner: UserDto
   writer: UserDto[]
   motionDesign: UserDto[]
+  version?: number
 }
@@ -2,7 +2,8 @@ import { FC, useContext, useEffect, useState } from 'react'
 import { PageLayout } from '../components/PageLayout'
 import Header from '../components/Header'
 import { ProjectDto } from '../dtos/ProjectDto'
-import { findAllProjects } from '../service/api-service'
+import { ProjectPageDto } from '../dtos/ProjectPageDto'
+import { findAllProjects, findArchivedProjects } from '../service/api-service'
 import AuthContext from '../auth/AuthContext'
 import { Link } from 'react-router-dom'
 import styled from 'styled-components/macro'
@@ -12,6 +13,9 @@ import ProjectList from '../components/ProjectList'
 import { ButtonGroupFlexbox } from '../components/ButtonGroupFlexbox'
 import Switch from 'react-switch'
 import { InputField } from '../components/Inputfield'
+import { Button } from '../components/Button'
+
+const ARCHIVE_PAGE_SIZE = 50
 
 const ProjectListPage: FC = () => {
   const { token, authUser } = useContext(AuthContext)
@@ -19,10 +23,14 @@ const ProjectListPage: FC = () => {
   const [projects, setProjects] = useState<ProjectDto[]>()
   const [search, setSearch] = useState('')
   const [archiveOn, setArchiveOn] = useState(false)
+  const [archivedProjects, setArchivedProjects] = useState<ProjectDto[]>([])
+  const [archivePage, setArchivePage] = useState(0)
+  const [archiveTotalCount, setArchiveTotalCount] = useState(0)
 
+  const visibleProjects = archiveOn ? archivedProjects : projects
   let filteredProjects: ProjectDto[] = []
-  if (projects) {
-    filteredProjects = projects.filter(
+  if (visibleProjects) {
+    filteredProjects = visibleProjects.filter(
       project =>
         project.title.toUpperCase().includes(search.toUpperCase()) ||
         project.customer.toUpperCase().includes(search.toUpperCase()) ||
@@ -45,6 +53,36 @@ const ProjectListPage: FC = () => {
     }
   }, [token])
 
+  const loadArchivePage = (page: number) => {
+    if (token) {
+      return findArchivedProjects(token, page, ARCHIVE_PAGE_SIZE).then(
+        (projectPage: ProjectPageDto) => {
+          setArchivedProjects(loadedProjects =>
+            page === 0
+              ? projectPage.projects
+              : [...loadedProjects, ...projectPage.projects]
+          )
+          setArchivePage(page)
+          setArchiveTotalCount(projectPage.totalCount ?? 0)
+        }
+      )
+    }
+  }
+
+  useEffect(() => {
+    if (token && archiveOn) {
+      setLoading(true)
+      findArchivedProjects(token, 0, ARCHIVE_PAGE_SIZE)
+        .then((projectPage: ProjectPageDto) => {
+          setArchivedProjects(projectPage.projects)
+          setArchivePage(0)
+          setArchiveTotalCount(projectPage.totalCount ?? 0)
+        })
+        .catch(console.error)
+        .finally(() => setLoading(false))
+    }
+  }, [archiveOn, token])
+
   const handleArchiveSwitch = () => {
     if (archiveOn) {
       setArchiveOn(false)
@@ -56,6 +94,7 @@ const ProjectListPage: FC = () => {
     if (token) {
       return findAllProjects(token)
         .then(setProjects)
+        .then(() => loadArchivePage(0))
         .finally(() => setLoading(false))
     }
   }
@@ -112,6 +151,17 @@ const ProjectListPage: FC = () => {
             )}
           />
         )}
+        {!loading &&
+          archiveOn &&
+          archivedProjects.length < archiveTotalCount && (
+            <Button
+              onClick={() =>
+                loadArchivePage(archivePage + 1)?.catch(console.error)
+              }
+            >
+              Weitere Projekte laden
+            </Button>
+          )}
       </MainStyle>
     </PageLayout>
   )
@@ -33,6 +33,18 @@ export const findAllProjects = (token: string) =>
     .get('/api/project-planner/project', getAuthHeaders(token))
     .then(response => response.data)
 
+export const findArchivedProjects = (
+  token: string,
+  page: number,
+  size: number
+) =>
+  axios
+    .get(
+      `/api/project-planner/project/archive?page=${page}&size=${size}`,
+      getAuthHeaders(token)
+    )
+    .then(response => response.data)
+
 export const findProjectByTitle = (title: string, token: string) =>
   axios
     .get('/api/project-planner/project/' + title, getAuthHeaders(token))